@@ -0,0 +1,71 @@
+package com.mockapi.server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockapi.server.MockapiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Argument parsing, application bootstrap and JSON reporting shared by the
+ * embedded-server harnesses
+ */
+final class HarnessSupport {
+
+    private HarnessSupport() {
+    }
+
+    /**
+     * Application builder with devtools' restarter off; it is on the test classpath and
+     * would otherwise re-run the harness main
+     */
+    static SpringApplicationBuilder application() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(MockapiApplication.class);
+    }
+
+    /**
+     * Plain HTTP on a random port without mock persistence, so runs start from an empty
+     * registry; extra arguments override or add to these
+     */
+    static String[] serverArgs(String profiles, String... extra) {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : List.of("--spring.profiles.active=" + profiles, "--server.port=0",
+                "--server.ssl.enabled=false", "--logging.level.root=WARN", "--mockapi.persistence.dir=")) {
+            args.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        for (String arg : extra) {
+            args.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        return args.values().toArray(new String[0]);
+    }
+
+    static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    static void writeJson(String file, List<Map<String, Object>> results) throws IOException {
+        Path path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), results);
+        System.out.println("Results written to " + path.toAbsolutePath());
+    }
+}
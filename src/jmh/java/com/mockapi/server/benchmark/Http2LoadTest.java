@@ -0,0 +1,166 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.LatencyProfile;
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockService;
+import jakarta.servlet.Filter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares HTTP/1.1 with HTTP/2 over TLS on the main connector.
+ * <p>
+ * Boots the application with the bundled keystore on a random port and fires
+ * {@code --requests} concurrent requests at a mock that answers after
+ * {@code --delay-ms}. HTTP/1.1 needs a connection per in-flight request, while HTTP/2
+ * multiplexes them as streams, up to mockapi.http2.max-concurrent-streams per connection;
+ * the server counts the distinct client connections it saw. Reports connections, latency percentiles and errors per
+ * protocol, also written as JSON to {@code --out}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.mockapi.server.benchmark.Http2LoadTest \
+ *     -Dbenchmark.args="--requests=2000 --delay-ms=50"
+ * </pre>
+ * Pass {@code --protocol=h1} or {@code --protocol=h2} to run a single protocol.
+ */
+public class Http2LoadTest {
+
+    private static final String PATH = "/bench/multiplexed";
+
+    public static void main(String[] args) throws Exception {
+        int requests = HarnessSupport.intArg(args, "requests", 2000);
+        int delayMs = HarnessSupport.intArg(args, "delay-ms", 50);
+        String protocol = HarnessSupport.stringArg(args, "protocol", "both");
+        // The bundled keystore holds a self-signed certificate
+        System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (!"h2".equals(protocol)) {
+            results.add(run(HttpClient.Version.HTTP_1_1, requests, delayMs));
+        }
+        if (!"h1".equals(protocol)) {
+            results.add(run(HttpClient.Version.HTTP_2, requests, delayMs));
+        }
+        HarnessSupport.writeJson(HarnessSupport.stringArg(args, "out", "target/http2-result.json"), results);
+    }
+
+    private static Map<String, Object> run(HttpClient.Version version, int requests, int delayMs) throws Exception {
+        Set<String> connections = ConcurrentHashMap.newKeySet();
+        Filter connectionCounter = (request, response, chain) -> {
+            connections.add(request.getRemoteAddr() + ":" + request.getRemotePort());
+            chain.doFilter(request, response);
+        };
+
+        try (ConfigurableApplicationContext ctx = HarnessSupport.application()
+                .initializers(c -> ((GenericApplicationContext) c)
+                        .registerBean("connectionCounter", Filter.class, () -> connectionCounter))
+                .run(HarnessSupport.serverArgs("benchmark",
+                        "--server.ssl.enabled=true",
+                        "--server.tomcat.max-connections=" + (requests * 2),
+                        "--server.tomcat.accept-count=" + requests))) {
+
+            ctx.getBean(MockService.class).addMock(new MockEndpoint(PATH, "GET", 200, "{\"status\":\"ok\"}",
+                    null, null, LatencyProfile.fixed(delayMs)));
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+            URI uri = URI.create("https://localhost:" + port + PATH);
+
+            int maxStreams = ctx.getEnvironment().getProperty("mockapi.http2.max-concurrent-streams", Integer.class, 100);
+            AtomicReference<HttpClient.Version> negotiated = new AtomicReference<>();
+            LoadResult result = fire(uri, version, requests, maxStreams, negotiated);
+            String name = version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+            System.out.printf("%-8s | negotiated %s | %,d requests in flight | %,d connections | %s%n",
+                    name, negotiated.get(), requests, connections.size(), result.summary());
+
+            Map<String, Object> labels = new LinkedHashMap<>();
+            labels.put("protocol", name);
+            labels.put("negotiated", String.valueOf(negotiated.get()));
+            labels.put("inFlight", requests);
+            labels.put("delayMillis", delayMs);
+            labels.put("connections", connections.size());
+            return result.toMap(labels);
+        }
+    }
+
+    private static LoadResult fire(URI uri, HttpClient.Version version, int requests, int maxStreams,
+                                   AtomicReference<HttpClient.Version> negotiated) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).GET().build();
+            // The JDK client fails streams beyond the server's limit instead of queueing them,
+            // so give each HTTP/2 connection its own client, as a multiplexing gateway would
+            int clientCount = version == HttpClient.Version.HTTP_2 ? (requests + maxStreams - 1) / maxStreams : 1;
+            HttpClient[] clients = new HttpClient[clientCount];
+            for (int i = 0; i < clientCount; i++) {
+                clients[i] = HttpClient.newBuilder()
+                        .version(version)
+                        .sslContext(trustAll())
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .executor(executor)
+                        .build();
+                // Establish the connection first, so HTTP/2 streams share it
+                negotiated.set(clients[i].send(request, HttpResponse.BodyHandlers.discarding()).version());
+            }
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int slot = i;
+                long start = System.nanoTime();
+                clients[i % clientCount].sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200) {
+                        latencies[slot] = -1;
+                        errors.incrementAndGet();
+                    } else {
+                        latencies[slot] = System.nanoTime() - start;
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+            return new LoadResult(latencies, requests, errors.get(), System.nanoTime() - begin);
+        }
+    }
+
+    private static SSLContext trustAll() throws Exception {
+        TrustManager trustAll = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[]{trustAll}, null);
+        return context;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mockapi.server.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one load-test run: latencies of the successful requests, error count and
+ * wall time, with throughput and percentile helpers for the console and JSON reports.
+ */
+final class LoadResult {
+
+    private final long[] sortedNanos;
+    private final int errors;
+    private final long wallNanos;
+
+    /**
+     * Negative latencies mark failed requests and are left out of the percentiles
+     */
+    LoadResult(long[] latencyNanos, int count, int errors, long wallNanos) {
+        this.sortedNanos = Arrays.stream(latencyNanos, 0, count).filter(l -> l >= 0).sorted().toArray();
+        this.errors = errors;
+        this.wallNanos = wallNanos;
+    }
+
+    int requests() {
+        return sortedNanos.length;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    long wallMillis() {
+        return wallNanos / 1_000_000;
+    }
+
+    double throughput() {
+        return sortedNanos.length * 1e9 / Math.max(1, wallNanos);
+    }
+
+    double percentileMillis(double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+    }
+
+    String summary() {
+        return String.format("%,d requests | wall %,d ms | %,.0f req/s | p50 %.2f ms | p99 %.2f ms | p99.9 %.2f ms | max %.2f ms | errors %,d",
+                requests(), wallMillis(), throughput(), percentileMillis(50), percentileMillis(99),
+                percentileMillis(99.9), percentileMillis(100), errors);
+    }
+
+    /**
+     * Result fields for the JSON report, after the caller's own labels
+     */
+    Map<String, Object> toMap(Map<String, Object> labels) {
+        Map<String, Object> map = new LinkedHashMap<>(labels);
+        map.put("requests", requests());
+        map.put("errors", errors);
+        map.put("wallMillis", wallMillis());
+        map.put("throughput", Math.round(throughput()));
+        map.put("p50Millis", percentileMillis(50));
+        map.put("p99Millis", percentileMillis(99));
+        map.put("p999Millis", percentileMillis(99.9));
+        map.put("maxMillis", percentileMillis(100));
+        return map;
+    }
+}
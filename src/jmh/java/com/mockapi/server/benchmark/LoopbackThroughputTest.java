@@ -0,0 +1,245 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.MockService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop throughput of the embedded server over loopback.
+ * <p>
+ * Boots the application on a random port, registers a small JSON mock and drives it
+ * from {@code --connections} keep-alive connections, each sending its next request as
+ * soon as the previous response has been read. The client speaks raw HTTP/1.1 over
+ * sockets so that it costs far less than the server under test. After
+ * {@code --warmup-seconds} it measures for {@code --seconds} and reports throughput and
+ * latency percentiles, also written as JSON to {@code --out}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.mockapi.server.benchmark.LoopbackThroughputTest \
+ *     -Dbenchmark.args="--engine=both --connections=64 --seconds=10"
+ * </pre>
+ * {@code --engine} is servlet, reactive or both; {@code --body-bytes} sets the mock body size.
+ */
+public class LoopbackThroughputTest {
+
+    private static final String PATH = "/bench/tiny";
+
+    public static void main(String[] args) throws Exception {
+        String engine = HarnessSupport.stringArg(args, "engine", "both");
+        int connections = HarnessSupport.intArg(args, "connections", 64);
+        int seconds = HarnessSupport.intArg(args, "seconds", 10);
+        int warmupSeconds = HarnessSupport.intArg(args, "warmup-seconds", 3);
+        int bodyBytes = HarnessSupport.intArg(args, "body-bytes", 64);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String name : List.of("servlet", "reactive")) {
+            if ("both".equals(engine) || name.equals(engine)) {
+                results.add(run(name, connections, seconds, warmupSeconds, bodyBytes));
+            }
+        }
+        HarnessSupport.writeJson(HarnessSupport.stringArg(args, "out", "target/loopback-result.json"), results);
+    }
+
+    private static Map<String, Object> run(String engine, int connections, int seconds, int warmupSeconds,
+                                           int bodyBytes) throws Exception {
+        String profiles = "reactive".equals(engine) ? "benchmark,reactive" : "benchmark";
+        try (ConfigurableApplicationContext ctx = HarnessSupport.application()
+                .run(HarnessSupport.serverArgs(profiles))) {
+
+            StringBuilder body = new StringBuilder("{\"status\":\"ok\",\"pad\":\"");
+            while (body.length() < bodyBytes - 2) {
+                body.append('x');
+            }
+            ctx.getBean(MockService.class).addMock(PATH, "GET", 200, body.append("\"}").toString());
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+
+            LoadResult result = drive(port, connections, seconds, warmupSeconds);
+            System.out.printf("%-8s | %,d connections | %d B body | %s%n", engine, connections, bodyBytes, result.summary());
+
+            Map<String, Object> labels = new LinkedHashMap<>();
+            labels.put("engine", engine);
+            labels.put("connections", connections);
+            labels.put("bodyBytes", bodyBytes);
+            labels.put("seconds", seconds);
+            return result.toMap(labels);
+        }
+    }
+
+    private static LoadResult drive(int port, int connections, int seconds, int warmupSeconds) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + seconds * 1_000_000_000L;
+        Worker[] workers = new Worker[connections];
+        CountDownLatch done = new CountDownLatch(connections);
+        AtomicInteger errors = new AtomicInteger();
+        byte[] request = ("GET " + PATH + " HTTP/1.1\r\nHost: localhost:" + port + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Worker(port, request, measureFrom, measureUntil, errors, done);
+            Thread.ofPlatform().name("loopback-client-" + i).daemon().start(workers[i]);
+        }
+        done.await();
+
+        int total = Arrays.stream(workers).mapToInt(w -> w.count).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        return new LoadResult(latencies, total, errors.get(), measureUntil - measureFrom);
+    }
+
+    private static final class Worker implements Runnable {
+        private final int port;
+        private final byte[] request;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final AtomicInteger errors;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+
+        private Worker(int port, byte[] request, long measureFrom, long measureUntil,
+                       AtomicInteger errors, CountDownLatch done) {
+            this.port = port;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.errors = errors;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            Socket socket = null;
+            try {
+                ResponseReader in = null;
+                OutputStream out = null;
+                long now;
+                while ((now = System.nanoTime()) < measureUntil) {
+                    if (socket == null) {
+                        // Reconnects when the server ends keep-alive, e.g. Tomcat's per-connection request cap
+                        socket = new Socket();
+                        socket.setTcpNoDelay(true);
+                        socket.connect(new InetSocketAddress("localhost", port));
+                        out = socket.getOutputStream();
+                        in = new ResponseReader(socket.getInputStream());
+                        now = System.nanoTime();
+                    }
+                    out.write(request);
+                    int status = in.read();
+                    long latency = System.nanoTime() - now;
+                    if (in.closeRequested) {
+                        socket.close();
+                        socket = null;
+                    }
+                    if (now < measureFrom) {
+                        continue;
+                    }
+                    if (status != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        record(latency);
+                    }
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            } finally {
+                closeQuietly(socket);
+                done.countDown();
+            }
+        }
+
+        private static void closeQuietly(Socket socket) {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Run is over
+                }
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    /**
+     * Minimal HTTP/1.1 response reader: status code, Content-Length, Connection: close
+     * and a skipped body
+     */
+    private static final class ResponseReader {
+        private static final byte[] CONTENT_LENGTH = "content-length:".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CONNECTION_CLOSE = "connection: close".getBytes(StandardCharsets.US_ASCII);
+
+        private final InputStream in;
+        private final byte[] line = new byte[1024];
+        private boolean closeRequested;
+
+        private ResponseReader(InputStream in) {
+            this.in = new BufferedInputStream(in, 64 * 1024);
+        }
+
+        private int read() throws IOException {
+            readLine();
+            int status = (line[9] - '0') * 100 + (line[10] - '0') * 10 + (line[11] - '0');
+            long contentLength = 0;
+            int length;
+            while ((length = readLine()) > 0) {
+                if (length > CONTENT_LENGTH.length && startsWithIgnoreCase(line, CONTENT_LENGTH)) {
+                    contentLength = Long.parseLong(new String(line, CONTENT_LENGTH.length,
+                            length - CONTENT_LENGTH.length, StandardCharsets.US_ASCII).trim());
+                } else if (length >= CONNECTION_CLOSE.length && startsWithIgnoreCase(line, CONNECTION_CLOSE)) {
+                    closeRequested = true;
+                }
+            }
+            in.skipNBytes(contentLength);
+            return status;
+        }
+
+        /**
+         * Read one header line without its CRLF; returns its length, 0 for the blank line
+         */
+        private int readLine() throws IOException {
+            int length = 0;
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("Connection closed by server");
+                }
+                if (b != '\r' && length < line.length) {
+                    line[length++] = (byte) b;
+                }
+            }
+            return length;
+        }
+
+        private static boolean startsWithIgnoreCase(byte[] value, byte[] lowerCasePrefix) {
+            for (int i = 0; i < lowerCasePrefix.length; i++) {
+                if (Character.toLowerCase(value[i]) != lowerCasePrefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
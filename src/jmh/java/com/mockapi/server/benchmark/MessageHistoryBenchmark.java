@@ -0,0 +1,39 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.MessageHistory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of remembering one sent message, from one thread and from several publishers
+ * adding to the same ring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageHistoryBenchmark {
+
+    private MessageHistory history;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        history = new MessageHistory(1000);
+        content = "{\"orderId\":\"O-48213\",\"status\":\"PAID\",\"amount\":\"500\",\"currency\":\"TRY\"}";
+    }
+
+    @Benchmark
+    public void add() {
+        history.add("payments.events", "/", content, true);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addContended() {
+        history.add("payments.events", "/", content, true);
+    }
+}
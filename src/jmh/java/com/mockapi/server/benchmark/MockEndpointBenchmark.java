@@ -0,0 +1,85 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockRequest;
+import com.mockapi.server.service.RenderBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body encoding cost: registering an endpoint (UTF-8 encoding and template compilation,
+ * paid once; the ETag digest waits for the first request), writing the pre-encoded body
+ * per request, and rendering a templated body per request, either into a new array or
+ * into a pooled buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockEndpointBenchmark {
+
+    @Param({"64", "4096", "65536"})
+    private int bodySize;
+
+    private String response;
+    private MockEndpoint staticEndpoint;
+    private MockEndpoint templateEndpoint;
+    private Map<String, String> pathVariables;
+    private OutputStream sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        StringBuilder json = new StringBuilder("{\"id\":\"{{path.id}}\",\"data\":\"");
+        while (json.length() < bodySize - 2) {
+            json.append("ödeme-");
+        }
+        response = json.append("\"}").toString();
+        staticEndpoint = new MockEndpoint("/payments/latest", "GET", 200, response);
+        templateEndpoint = new MockEndpoint("/payments/{id}", "GET", 200, response);
+        pathVariables = Map.of("id", "4111");
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public MockEndpoint register() {
+        return new MockEndpoint("/payments/latest", "GET", 200, response);
+    }
+
+    @Benchmark
+    public void writeStatic() throws IOException {
+        staticEndpoint.writeBody(sink);
+    }
+
+    @Benchmark
+    public byte[] renderTemplate() {
+        return templateEndpoint.renderBody(pathVariables);
+    }
+
+    @Benchmark
+    public int renderTemplatePooled() throws IOException {
+        RenderBuffer buffer = RenderBuffer.acquire();
+        try {
+            templateEndpoint.renderBody(MockRequest.EMPTY, pathVariables, buffer);
+            return buffer.size();
+        } finally {
+            buffer.release();
+        }
+    }
+}
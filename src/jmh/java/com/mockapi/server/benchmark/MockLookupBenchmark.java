@@ -0,0 +1,69 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.RouteMatch;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route lookup on the request hot path. Run with "-prof gc": gc.alloc.rate.norm
+ * should report ~0 B/op for exact hits, misses and template lookups; only
+ * matchTemplate allocates, for the captured path variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockLookupBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int mockCount;
+
+    private MockService mockService;
+    private String[] requestUris;
+    private String templateUri;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        mockService = new MockService();
+        requestUris = new String[mockCount];
+        for (int i = 0; i < mockCount; i++) {
+            String path = "/gks-api/v1/users/" + i;
+            mockService.addMock(path, i % 2 == 0 ? "GET" : "POST", 200, "{\"id\":" + i + "}");
+            // Distinct instances, as the servlet container hands us a fresh URI per request
+            requestUris[i] = new String(path);
+            // One template per hundred exact routes, all sharing the trie
+            if (i % 100 == 0) {
+                mockService.addMock("/gks-api/v1/accounts/" + i + "/cards/{cardId}", "GET", 200, "{}");
+            }
+        }
+        templateUri = "/gks-api/v1/accounts/" + (mockCount - 1) / 100 * 100 + "/cards/4111";
+    }
+
+    @Benchmark
+    public MockEndpoint lookupHit() {
+        int i = (cursor++ & Integer.MAX_VALUE) % mockCount;
+        return mockService.getMockEndpoint(RequestMethod.resolve(i % 2 == 0 ? "GET" : "POST"), requestUris[i]);
+    }
+
+    @Benchmark
+    public MockEndpoint lookupTemplate() {
+        return mockService.getMockEndpoint(RequestMethod.GET, templateUri);
+    }
+
+    @Benchmark
+    public RouteMatch matchTemplate() {
+        return mockService.match(RequestMethod.GET, templateUri);
+    }
+
+    @Benchmark
+    public MockEndpoint lookupMiss() {
+        return mockService.getMockEndpoint(RequestMethod.resolve("DELETE"), requestUris[0]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.controller.DynamicMockController;
+import com.mockapi.server.service.MatchCondition;
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.RequestJournal;
+import com.mockapi.server.service.TimerWheel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * DynamicMockController end to end through the DispatcherServlet with MockMvc: handler
+ * mapping, route lookup, variant selection and body writing, without a network stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockMvcBenchmark {
+
+    private static final String PAYMENT_JSON = "{\"amount\":500,\"currency\":\"TRY\"}";
+
+    private TimerWheel timerWheel;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        MockService mockService = new MockService();
+        for (int i = 0; i < 1000; i++) {
+            mockService.addMock("/gks-api/v1/users/" + i, "GET", 200, "{\"id\":" + i + "}");
+        }
+        mockService.addMock("/gks-api/v1/accounts/{accountId}", "GET", 200, "{\"accountId\":\"{{path.accountId}}\"}");
+        mockService.addMock(new MockEndpoint("/gks-api/v1/payments", "POST", 201, "{\"status\":\"review\"}",
+                null, List.of(MatchCondition.jsonPath("$.amount", "500"))));
+        mockService.addMock("/gks-api/v1/payments", "POST", 201, "{\"status\":\"accepted\"}");
+
+        timerWheel = new TimerWheel(1, 64);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DynamicMockController(mockService, timerWheel,
+                new RequestJournal(0, 0, false))).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        timerWheel.stop();
+    }
+
+    @Benchmark
+    public int staticHit() throws Exception {
+        return mockMvc.perform(get("/gks-api/v1/users/500")).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int templateHit() throws Exception {
+        return mockMvc.perform(get("/gks-api/v1/accounts/TR33")).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int bodyConditionHit() throws Exception {
+        return mockMvc.perform(post("/gks-api/v1/payments").contentType(MediaType.APPLICATION_JSON).content(PAYMENT_JSON))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int miss() throws Exception {
+        return mockMvc.perform(get("/gks-api/v1/unknown")).andReturn().getResponse().getStatus();
+    }
+}
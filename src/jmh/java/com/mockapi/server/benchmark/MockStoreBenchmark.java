@@ -0,0 +1,79 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.BodyCompressor;
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.MockStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of a persisted registry of 100k mocks: a snapshot plus a log tail of
+ * 10k records, decoded from the store alone and restored into a serving MockService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MockStoreBenchmark {
+
+    @Param({"100000"})
+    public int mocks;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mockstore");
+        List<MockEndpoint> endpoints = new ArrayList<>(mocks);
+        for (int i = 0; i < mocks; i++) {
+            endpoints.add(new MockEndpoint(i % 10 == 0 ? "/api/v1/accounts/" + i + "/items/{id}" : "/api/v1/items/" + i,
+                    "GET", 200, "{\"id\":" + i + ",\"status\":\"ACTIVE\",\"currency\":\"TRY\"}", "application/json"));
+        }
+        int tail = mocks / 10;
+        try (MockStore store = store()) {
+            store.recover();
+            store.snapshot(endpoints.subList(0, mocks - tail));
+            for (MockEndpoint endpoint : endpoints.subList(mocks - tail, mocks)) {
+                store.added(List.of(endpoint));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private MockStore store() {
+        return new MockStore(directory.toString(), Integer.MAX_VALUE, false);
+    }
+
+    @Benchmark
+    public List<MockEndpoint> recover() throws IOException {
+        try (MockStore store = store()) {
+            return store.recover();
+        }
+    }
+
+    @Benchmark
+    public MockService restoreService() throws IOException {
+        try (MockStore store = store()) {
+            return new MockService(new BodyCompressor(1024, 256), store);
+        }
+    }
+}
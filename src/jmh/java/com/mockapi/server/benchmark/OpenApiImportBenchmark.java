@@ -0,0 +1,104 @@
+package com.mockapi.server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.mockapi.server.service.ImportResult;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.OpenApiImporter;
+import com.mockapi.server.service.TemplateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import a generated ~20 MB OpenAPI spec (5000 paths, 10k operations, each with
+ * a referenced schema and an inline example) as JSON and as YAML, replacing the registry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OpenApiImportBenchmark {
+
+    private static final int PATHS = 5000;
+
+    private Path json;
+    private Path yaml;
+    private OpenApiImporter importer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode spec = mapper.createObjectNode();
+        spec.put("openapi", "3.0.3");
+        spec.putObject("info").put("title", "Generated").put("version", "1.0.0");
+        spec.putArray("servers").addObject().put("url", "https://api.example.com/v1");
+        ObjectNode paths = spec.putObject("paths");
+        ObjectNode schemas = spec.putObject("components").putObject("schemas");
+        for (int i = 0; i < PATHS; i++) {
+            ObjectNode schema = schemas.putObject("Resource" + i).put("type", "object");
+            ObjectNode properties = schema.putObject("properties");
+            for (int p = 0; p < 12; p++) {
+                ObjectNode property = properties.putObject("field" + p)
+                        .put("type", p % 3 == 0 ? "integer" : "string")
+                        .put("description", "Field " + p + " of resource " + i + ", as returned by the downstream service");
+                if (p % 4 == 1) {
+                    property.put("format", "date-time");
+                }
+            }
+            ObjectNode item = paths.putObject("/resources" + i + "/{id}");
+            ObjectNode get = item.putObject("get").put("operationId", "getResource" + i)
+                    .put("summary", "Fetch resource " + i)
+                    .put("description", "Returns resource " + i + " by id, with all of its fields populated.");
+            get.putArray("tags").add("group" + i % 50);
+            ArrayNode parameters = get.putArray("parameters");
+            parameters.addObject().put("name", "id").put("in", "path").put("required", true)
+                    .putObject("schema").put("type", "string");
+            get.putObject("responses").putObject("200").put("description", "OK")
+                    .putObject("content").putObject("application/json")
+                    .putObject("schema").put("$ref", "#/components/schemas/Resource" + i);
+            ObjectNode post = item.putObject("post").put("operationId", "updateResource" + i);
+            post.putArray("tags").add("group" + i % 50);
+            ObjectNode example = post.putObject("responses").putObject("201").put("description", "Created")
+                    .putObject("content").putObject("application/json").putObject("example");
+            for (int p = 0; p < 12; p++) {
+                example.put("field" + p, "value " + p + " of resource " + i + " in the example response");
+            }
+        }
+        json = Files.createTempFile("openapi", ".json");
+        yaml = Files.createTempFile("openapi", ".yaml");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), spec);
+        new YAMLMapper().writeValue(yaml.toFile(), spec);
+        System.out.println("Spec size: JSON " + Files.size(json) / 1024 / 1024 + " MB, YAML "
+                + Files.size(yaml) / 1024 / 1024 + " MB");
+        importer = new OpenApiImporter(new MockService(), new TemplateService());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(yaml);
+    }
+
+    @Benchmark
+    public ImportResult importJson() throws IOException {
+        try (InputStream input = Files.newInputStream(json)) {
+            return importer.importSpec(input, true, null);
+        }
+    }
+
+    @Benchmark
+    public ImportResult importYaml() throws IOException {
+        try (InputStream input = Files.newInputStream(yaml)) {
+            return importer.importSpec(input, true, null);
+        }
+    }
+}
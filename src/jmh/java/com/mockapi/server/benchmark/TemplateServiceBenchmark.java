@@ -0,0 +1,192 @@
+package com.mockapi.server.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mockapi.server.service.EndpointTemplate;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.TemplateCategory;
+import com.mockapi.server.service.TemplateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of the template library: bean construction alone (the UI can come up
+ * while templates load), time until templates are usable, and the old whole-document
+ * databind load for comparison. Also compares category lookup through the index with
+ * the previous stream filter over every category. For a watched template directory,
+ * compares re-applying one edited file with loading the whole directory.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TemplateServiceBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({"200"})
+    public int categories;
+
+    @Param({"250"})
+    public int templatesPerCategory;
+
+    private Path file;
+    private TemplateService loaded;
+    private List<TemplateCategory> categoryList;
+    private String lastCategory;
+    private TemplateService pending;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("api_templates", ".json");
+        writeLibrary(file, 0, categories, templatesPerCategory, "ACTIVE");
+        loaded = new TemplateService(file.toString());
+        categoryList = loaded.getCategories();
+        lastCategory = "Category " + (categories - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    static void writeLibrary(Path target, int firstCategory, int categories, int templatesPerCategory,
+                             String status) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(target)) {
+            writer.write('[');
+            for (int c = firstCategory; c < firstCategory + categories; c++) {
+                writer.write((c > firstCategory ? "," : "") + "{\"name\":\"Category " + c + "\",\"endpoints\":[");
+                for (int t = 0; t < templatesPerCategory; t++) {
+                    writer.write((t > 0 ? "," : "") + "{\"name\":\"Template " + t + "\",\"path\":\"/api/v1/c" + c
+                            + "/resource" + t + "\",\"method\":\"POST\",\"statusCode\":200,"
+                            + "\"contentType\":\"application/json\",\"response\":\"{\\n  \\\"id\\\": \\\"" + t
+                            + "\\\",\\n  \\\"status\\\": \\\"" + status + "\\\",\\n  \\\"amount\\\": 1250.75,"
+                            + "\\n  \\\"currency\\\": \\\"TRY\\\",\\n  \\\"description\\\": \\\"Generated template body\\\"\\n}\"}");
+                }
+                writer.write("]}");
+            }
+            writer.write(']');
+        }
+    }
+
+    /**
+     * A watched directory of 300 files with 50 templates each, all registered as mocks
+     */
+    @State(Scope.Benchmark)
+    public static class TemplateDirectory {
+
+        private static final int FILES = 300;
+
+        private Path directory;
+        private TemplateService service;
+        private boolean flip;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("templates");
+            for (int f = 0; f < FILES; f++) {
+                writeLibrary(directory.resolve("templates-" + f + ".json"), f * 5, 5, 10, "ACTIVE");
+            }
+            service = new TemplateService("", directory.toString(), new MockService());
+            service.getCategories();
+        }
+
+        /**
+         * Edit one file between invocations; its size changes so the edit is always detected
+         */
+        @Setup(Level.Invocation)
+        public void editOneFile() throws IOException {
+            flip = !flip;
+            writeLibrary(directory.resolve("templates-150.json"), 750, 5, 10, flip ? "SUSPENDED" : "ACTIVE");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            service.close();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public TemplateService reloadChangedFile(TemplateDirectory templates) throws IOException {
+        templates.service.reloadTemplates();
+        return templates.service;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int loadWholeDirectory(TemplateDirectory templates) throws IOException {
+        try (TemplateService service = new TemplateService("", templates.directory.toString(), new MockService())) {
+            return service.getTemplateCount();
+        }
+    }
+
+    /**
+     * Let a background load started by {@link #construct()} finish outside the measurement
+     */
+    @TearDown(Level.Invocation)
+    public void awaitPending() {
+        if (pending != null) {
+            pending.getCategories();
+            pending = null;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public TemplateService construct() {
+        pending = new TemplateService(file.toString());
+        return pending;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<TemplateCategory> constructAndLoad() {
+        return new TemplateService(file.toString()).getCategories();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<TemplateCategory> databindLoad() throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return OBJECT_MAPPER.readValue(input, new TypeReference<List<TemplateCategory>>() {});
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<EndpointTemplate> indexedLookup() {
+        return loaded.getTemplatesByCategory(lastCategory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<EndpointTemplate> streamFilterLookup() {
+        return categoryList.stream()
+                .filter(category -> category.getName().equals(lastCategory))
+                .findFirst()
+                .map(TemplateCategory::getEndpoints)
+                .orElse(List.of());
+    }
+}
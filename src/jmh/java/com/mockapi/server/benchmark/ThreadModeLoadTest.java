@@ -0,0 +1,132 @@
+package com.mockapi.server.benchmark;
+
+import com.mockapi.server.service.MockService;
+import jakarta.servlet.Filter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test comparing Tomcat's platform-thread pool with virtual-thread execution.
+ * <p>
+ * Boots the application twice over plain HTTP on a random port, once per mode, with a
+ * servlet filter that blocks each request for {@code --delay-ms} to stand in for a slow
+ * downstream call. It then opens {@code --connections} concurrent connections (one
+ * request each) and reports wall time, throughput, latency percentiles and errors.
+ * <pre>
+ * ulimit -n 65535   # client and server sockets share this process
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.mockapi.server.benchmark.ThreadModeLoadTest \
+ *     -Dbenchmark.args="--connections=10000 --delay-ms=200"
+ * </pre>
+ * Pass {@code --mode=platform} or {@code --mode=virtual} to run a single mode. Results
+ * are also written to {@code --out} (default target/thread-mode-result.json).
+ */
+public class ThreadModeLoadTest {
+
+    private static final String PATH = "/bench/slow-downstream";
+
+    public static void main(String[] args) throws Exception {
+        int connections = HarnessSupport.intArg(args, "connections", 10_000);
+        int delayMs = HarnessSupport.intArg(args, "delay-ms", 200);
+        String mode = HarnessSupport.stringArg(args, "mode", "both");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (!"virtual".equals(mode)) {
+            results.add(run(false, connections, delayMs));
+        }
+        if (!"platform".equals(mode)) {
+            results.add(run(true, connections, delayMs));
+        }
+        HarnessSupport.writeJson(HarnessSupport.stringArg(args, "out", "target/thread-mode-result.json"), results);
+    }
+
+    private static Map<String, Object> run(boolean virtualThreads, int connections, int delayMs) throws Exception {
+        Filter slowDownstream = (request, response, chain) -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            chain.doFilter(request, response);
+        };
+
+        try (ConfigurableApplicationContext ctx = HarnessSupport.application()
+                .initializers(c -> ((GenericApplicationContext) c)
+                        .registerBean("slowDownstreamFilter", Filter.class, () -> slowDownstream))
+                .run(HarnessSupport.serverArgs("benchmark",
+                        "--server.tomcat.max-connections=" + (connections * 2),
+                        "--server.tomcat.accept-count=" + connections,
+                        "--spring.threads.virtual.enabled=" + virtualThreads))) {
+
+            ctx.getBean(MockService.class).addMock(PATH, "GET", 200, "{\"status\":\"ok\"}");
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+            URI uri = URI.create("http://localhost:" + port + PATH);
+
+            LoadResult result = fire(uri, connections);
+            String threads = virtualThreads ? "virtual" : "platform";
+            System.out.printf("%-8s threads | %,d connections | delay %d ms | %s%n",
+                    threads, connections, delayMs, result.summary());
+
+            Map<String, Object> labels = new LinkedHashMap<>();
+            labels.put("threads", threads);
+            labels.put("connections", connections);
+            labels.put("delayMillis", delayMs);
+            return result.toMap(labels);
+        }
+    }
+
+    private static LoadResult fire(URI uri, int connections) throws InterruptedException {
+        long[] latencies = new long[connections];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(connections);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(clients)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).GET().build();
+
+            for (int i = 0; i < connections; i++) {
+                int slot = i;
+                clients.submit(() -> {
+                    try {
+                        start.await();
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[slot] = System.nanoTime() - begin;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        latencies[slot] = -1;
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            return new LoadResult(latencies, connections, errors.get(), System.nanoTime() - begin);
+        }
+    }
+}
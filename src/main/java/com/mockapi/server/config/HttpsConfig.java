@@ -2,19 +2,66 @@ package com.mockapi.server.config;
 
 import org.apache.catalina.Context;
 import org.apache.catalina.connector.Connector;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
 import org.apache.tomcat.util.descriptor.web.SecurityCollection;
 import org.apache.tomcat.util.descriptor.web.SecurityConstraint;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.boot.web.servlet.server.ServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Configuration for HTTPS and HTTP to HTTPS redirect
+ * Configuration for HTTPS, HTTP/2 and HTTP to HTTPS redirect
  */
 @Configuration
 public class HttpsConfig {
 
+    /**
+     * Same switch Spring Boot uses for the main connector; additional connectors
+     * are not customized by Boot, so they pick it up here
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${mockapi.http2.max-concurrent-streams:100}")
+    private long maxConcurrentStreams;
+
+    @Value("${mockapi.http2.max-concurrent-stream-execution:20}")
+    private int maxConcurrentStreamExecution;
+
+    @Value("${mockapi.http2.initial-window-size:65535}")
+    private int initialWindowSize;
+
+    /**
+     * Port of the extra cleartext HTTP/2 (h2c) connector; negative disables it
+     */
+    @Value("${mockapi.http2.h2c-port:-1}")
+    private int h2cPort;
+
+    /**
+     * Applies the HTTP/2 limits to the main connector (Boot adds HTTP/2 to it when
+     * server.http2.enabled is set) and adds the h2c connector when a port is configured
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2Customizer() {
+        return factory -> {
+            factory.addConnectorCustomizers(connector -> {
+                for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                    if (protocol instanceof Http2Protocol http2) {
+                        configureHttp2(http2);
+                    }
+                }
+            });
+            if (h2cPort >= 0) {
+                factory.addAdditionalTomcatConnectors(createH2cConnector());
+            }
+        };
+    }
+
     /**
      * Creates a Tomcat connector that redirects HTTP (8080) to HTTPS (8443)
      * Uncomment @Bean annotation to enable HTTP to HTTPS redirect
@@ -39,12 +86,37 @@ public class HttpsConfig {
     }
 
     private Connector createHttpConnector() {
+        Connector connector = newCleartextConnector(8080);
+        connector.setRedirectPort(8443);
+        return connector;
+    }
+
+    /**
+     * Cleartext connector accepting HTTP/1.1, h2c upgrades and h2c with prior knowledge
+     */
+    private Connector createH2cConnector() {
+        Connector connector = newCleartextConnector(h2cPort);
+        Http2Protocol http2 = new Http2Protocol();
+        configureHttp2(http2);
+        connector.addUpgradeProtocol(http2);
+        return connector;
+    }
+
+    private Connector newCleartextConnector(int port) {
         Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
         connector.setScheme("http");
-        connector.setPort(8080);
+        connector.setPort(port);
         connector.setSecure(false);
-        connector.setRedirectPort(8443);
+        if (virtualThreads) {
+            connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("mockapi-http-"));
+        }
         return connector;
     }
+
+    private void configureHttp2(Http2Protocol http2) {
+        http2.setMaxConcurrentStreams(maxConcurrentStreams);
+        http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+        http2.setInitialWindowSize(initialWindowSize);
+    }
 }
 
@@ -0,0 +1,53 @@
+package com.mockapi.server.config;
+
+import com.mockapi.server.controller.ReactiveMockHandler;
+import com.mockapi.server.service.MockService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Configuration for the reactive engine, active when the reactive profile switches the
+ * application to a reactive web application
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Value("${mockapi.http2.max-concurrent-streams:100}")
+    private long maxConcurrentStreams;
+
+    @Value("${mockapi.http2.initial-window-size:65535}")
+    private int initialWindowSize;
+
+    /**
+     * Tomcat is on the classpath too and Boot would prefer it for reactive apps as well,
+     * so declare the Netty factory explicitly. server.port, server.ssl and
+     * server.http2.enabled still apply; without TLS, HTTP/2 is served as h2c.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.accessLog(false)
+                .http2Settings(settings -> settings
+                        .maxConcurrentStreams(maxConcurrentStreams)
+                        .initialWindowSize(initialWindowSize)));
+        return factory;
+    }
+
+    /**
+     * Route every request outside the admin API to the mock registry; router functions
+     * run before annotated controllers, so the admin paths must be left to them explicitly
+     */
+    @Bean
+    public RouterFunction<ServerResponse> mockRoutes(ReactiveMockHandler handler) {
+        return RouterFunctions.route(RequestPredicates.path(MockService.ADMIN_PATH + "/**").negate(),
+                handler::handle);
+    }
+}
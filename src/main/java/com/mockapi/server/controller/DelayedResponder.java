@@ -0,0 +1,128 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.ByteRange;
+import com.mockapi.server.service.LatencyProfile;
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.TimerWheel;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replies to requests for endpoints with a {@link LatencyProfile}. The request is put
+ * into async mode and its thread released straight away; the response is written when
+ * the sampled delay expires on the shared {@link TimerWheel}. Throttled bodies are sent
+ * in slices, each one scheduled on the wheel again, so nothing sleeps between writes.
+ */
+class DelayedResponder {
+
+    /** Target spacing between slices of a throttled body */
+    private static final long SLICE_INTERVAL_MS = 50;
+
+    private final TimerWheel timerWheel;
+
+    DelayedResponder(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Reply after the endpoint's delay with either the pre-encoded body or the given bytes
+     * (a rendered or compressed body); {@code notModified} sends an empty 304 instead, and
+     * a non-null {@code range} sends just that part of the body as a 206 (or a 416)
+     */
+    void respond(HttpServletRequest request, MockEndpoint endpoint, byte[] body, boolean notModified,
+                 ByteRange range) {
+        respond(request, endpoint, endpoint.getStatusCode(), body, notModified, range);
+    }
+
+    /**
+     * Reply after the endpoint's delay with the given status and bytes, such as the
+     * result of a resource endpoint
+     */
+    void respond(HttpServletRequest request, MockEndpoint endpoint, int status, byte[] body) {
+        respond(request, endpoint, status, body, false, null);
+    }
+
+    private void respond(HttpServletRequest request, MockEndpoint endpoint, int status, byte[] body,
+                         boolean notModified, ByteRange range) {
+        AsyncContext async = request.startAsync();
+        async.setTimeout(0);
+        timerWheel.schedule(() -> begin(async, endpoint, status, body, notModified, range),
+                endpoint.getLatency().sampleDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void begin(AsyncContext async, MockEndpoint endpoint, int status, byte[] body, boolean notModified,
+                       ByteRange range) {
+        HttpServletResponse response = (HttpServletResponse) async.getResponse();
+        int total = body != null ? body.length : endpoint.getContentLength();
+        if (notModified) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            async.complete();
+            return;
+        }
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(total));
+            async.complete();
+            return;
+        }
+        int offset = 0;
+        int length = total;
+        response.setStatus(status);
+        if (range != null) {
+            offset = range.getStart();
+            length = range.getLength();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(total));
+        }
+        response.setContentType(endpoint.getContentType());
+        response.setContentLength(length);
+        if (!endpoint.getLatency().isThrottled() || length == 0) {
+            try {
+                write(response.getOutputStream(), endpoint, body, offset, length);
+            } catch (IOException e) {
+                System.out.println("❌ Failed to write delayed response: " + e.getMessage());
+            }
+            async.complete();
+            return;
+        }
+        trickle(async, endpoint, body, offset, offset + length);
+    }
+
+    private void trickle(AsyncContext async, MockEndpoint endpoint, byte[] body, int offset, int end) {
+        long rate = endpoint.getLatency().getBytesPerSecond();
+        int slice = (int) Math.min(end - offset, Math.max(1, rate * SLICE_INTERVAL_MS / 1000));
+        try {
+            ServletOutputStream out = async.getResponse().getOutputStream();
+            write(out, endpoint, body, offset, slice);
+            out.flush();
+        } catch (IOException e) {
+            // Client went away mid-body
+            async.complete();
+            return;
+        }
+
+        int next = offset + slice;
+        if (next >= end) {
+            async.complete();
+            return;
+        }
+        long delayMs = Math.max(1, slice * 1000L / rate);
+        timerWheel.schedule(() -> trickle(async, endpoint, body, next, end), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void write(ServletOutputStream out, MockEndpoint endpoint, byte[] body,
+                              int offset, int length) throws IOException {
+        if (body != null) {
+            out.write(body, offset, length);
+        } else {
+            endpoint.writeBody(out, offset, length);
+        }
+    }
+}
@@ -1,38 +1,225 @@
 package com.mockapi.server.controller;
 
+import com.mockapi.server.service.ByteRange;
+import com.mockapi.server.service.ContentEncoding;
+import com.mockapi.server.service.EncodedBody;
 import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockRequest;
+import com.mockapi.server.service.RenderBuffer;
+import com.mockapi.server.service.RequestJournal;
+import com.mockapi.server.service.ResourceStore;
+import com.mockapi.server.service.RouteMatch;
+import com.mockapi.server.service.TimerWheel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Enumeration;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import com.mockapi.server.service.MockService;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DynamicMockController {
 
+    /** Request attributes through which Tomcat sends a file with sendfile(2) */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final RequestJournal.HeaderReader<HttpServletRequest> HEADERS = (request, sink) -> {
+        Enumeration<String> names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            Enumeration<String> values = request.getHeaders(name);
+            while (values.hasMoreElements()) {
+                sink.header(name, values.nextElement());
+            }
+        }
+    };
+
     private final MockService mockService;
+    private final DelayedResponder delayedResponder;
+    private final RequestJournal journal;
 
-    public DynamicMockController(MockService mockService) {
+    public DynamicMockController(MockService mockService, TimerWheel timerWheel, RequestJournal journal) {
         this.mockService = mockService;
+        this.delayedResponder = new DelayedResponder(timerWheel);
+        this.journal = journal;
     }
 
-    @RequestMapping(value = "/**", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.PATCH})
-    public ResponseEntity<?> handleAny(@RequestBody(required = false) String body,
-                                       @RequestHeader Map<String, String> headers,
-                                       HttpServletRequest request) {
+    /**
+     * Serves the registered mock by writing its pre-encoded body directly to the
+     * servlet output stream, bypassing the message converters. Headers, query
+     * parameters and the body are only read when a variant's match conditions or body
+     * placeholders need them; templated bodies are rendered into a pooled buffer.
+     * Scenario transitions are applied during selection, and resource endpoints answer
+     * from their stateful collection.
+     * Large text bodies are sent as cached gzip/deflate variants when the client accepts them.
+     * File-backed bodies are handed to the connector's sendfile support where available,
+     * and single-range GETs of static bodies are answered with 206 Partial Content.
+     * Endpoints with a latency profile are answered asynchronously once their delay expires.
+     * The mapping leaves {@link MockService#ADMIN_PATH} to the admin controllers, so a
+     * request there that none of them accepts gets Spring's own 404, 405 or 415, as on the
+     * reactive engine; it is never matched against the registry or journaled.
+     * Every request is recorded in the request journal once it has been answered; its body
+     * is read up front for that only when the journal records bodies.
+     */
+    @RequestMapping(value = {"/", "/{segment:(?!__admin$).*}/**"}, method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.PATCH})
+    public void handleAny(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Defensive: the mapping already leaves the admin prefix out
+        if (MockService.isAdminPath(request.getRequestURI())) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        long start = System.nanoTime();
+        MockRequest mockRequest = new ServletMockRequest(request);
+        // Only when bodies are journaled; read up front, as once an async reply completes the
+        // body can no longer be read
+        String body = journal.isRecordingBodies() ? mockRequest.getBody() : null;
+        try {
+            serve(request, response, mockRequest);
+        } finally {
+            if (journal.isEnabled()) {
+                record(request, response, body, start);
+            }
+        }
+    }
 
-        String path = request.getRequestURI();
-        String method = request.getMethod();
+    private void serve(HttpServletRequest request, HttpServletResponse response, MockRequest mockRequest)
+            throws IOException {
+        RequestMethod method = RequestMethod.resolve(request.getMethod());
+        RouteMatch match = mockService.match(method, request.getRequestURI(), mockRequest);
+        if (match == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
 
-        MockEndpoint endpoint = mockService.getMockEndpoint(path, method);
-        if (endpoint != null) {
-            return ResponseEntity
-                    .status(endpoint.getStatusCode())
-                    .header("Content-Type", endpoint.getContentType())
-                    .body(endpoint.getResponse());
-        } else {
-            return ResponseEntity.notFound().build();
+        MockEndpoint endpoint = match.getEndpoint();
+        if (endpoint.isResource()) {
+            ResourceStore.Result result = mockService.applyResource(method, match, mockRequest);
+            if (endpoint.isDelayed()) {
+                delayedResponder.respond(request, endpoint, result.statusCode(), result.body());
+                return;
+            }
+            response.setStatus(result.statusCode());
+            response.setContentType(endpoint.getContentType());
+            response.setContentLength(result.body().length);
+            response.getOutputStream().write(result.body());
+            return;
+        }
+        if (endpoint.isDynamic()) {
+            if (endpoint.isDelayed()) {
+                delayedResponder.respond(request, endpoint, endpoint.renderBody(mockRequest, match.getPathVariables()),
+                        false, null);
+                return;
+            }
+            RenderBuffer buffer = RenderBuffer.acquire();
+            try {
+                endpoint.renderBody(mockRequest, match.getPathVariables(), buffer);
+                response.setStatus(endpoint.getStatusCode());
+                response.setContentType(endpoint.getContentType());
+                response.setContentLength(buffer.size());
+                buffer.writeTo(response.getOutputStream());
+            } finally {
+                buffer.release();
+            }
+            return;
+        }
+
+        EncodedBody encoded = null;
+        if (mockService.isCompressible(endpoint)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            encoded = mockService.getEncodedBody(endpoint,
+                    ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)));
+        }
+        String eTag = encoded != null ? encoded.getETag() : endpoint.getETag();
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        if (encoded != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoded.getEncoding().getToken());
+        }
+        boolean notModified = method == RequestMethod.GET && eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        ByteRange range = null;
+        if (encoded == null && endpoint.getStatusCode() == HttpStatus.OK.value()) {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (method == RequestMethod.GET && !notModified) {
+                range = ByteRange.resolve(request.getHeader(HttpHeaders.RANGE), request.getHeader(HttpHeaders.IF_RANGE),
+                        eTag, endpoint.getContentLength());
+            }
+        }
+        if (endpoint.isDelayed()) {
+            delayedResponder.respond(request, endpoint, encoded != null ? encoded.bytes() : null, notModified, range);
+            return;
         }
+        if (notModified) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(endpoint.getContentLength()));
+            return;
+        }
+
+        response.setContentType(endpoint.getContentType());
+        if (encoded != null) {
+            response.setStatus(endpoint.getStatusCode());
+            response.setContentLength(encoded.getContentLength());
+            encoded.writeTo(response.getOutputStream());
+            return;
+        }
+        int offset = 0;
+        int length = endpoint.getContentLength();
+        response.setStatus(endpoint.getStatusCode());
+        if (range != null) {
+            offset = range.getStart();
+            length = range.getLength();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(endpoint.getContentLength()));
+        }
+        response.setContentLength(length);
+        if (endpoint.isFileBacked() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat streams the file from the page cache once this method returns
+            request.setAttribute(SENDFILE_FILENAME, endpoint.getBodyFile().toString());
+            request.setAttribute(SENDFILE_START, (long) offset);
+            request.setAttribute(SENDFILE_END, (long) offset + length);
+            return;
+        }
+        endpoint.writeBody(response.getOutputStream(), offset, length);
+    }
+
+    /**
+     * Journal the request now, or once a delayed reply has been sent
+     */
+    private void record(HttpServletRequest request, HttpServletResponse response, String body, long start) {
+        if (!request.isAsyncStarted()) {
+            journal.record(request.getMethod(), request.getRequestURI(), request.getQueryString(), request, HEADERS,
+                    body, response.getStatus(), start);
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                journal.record(request.getMethod(), request.getRequestURI(), request.getQueryString(), request,
+                        HEADERS, body, response.getStatus(), start);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
     }
 }
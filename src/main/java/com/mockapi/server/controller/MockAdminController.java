@@ -0,0 +1,76 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.ImportResult;
+import com.mockapi.server.service.MockImporter;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.OpenApiImporter;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Admin API for loading mocks in bulk, e.g. from CI pipelines. Works on both the servlet
+ * and the reactive engine; the servlet engine streams the request body into the parser.
+ */
+@RestController
+@RequestMapping(MockService.ADMIN_PATH + "/mocks")
+public class MockAdminController {
+
+    private final MockService mockService;
+    private final MockImporter importer;
+    private final OpenApiImporter openApiImporter;
+
+    public MockAdminController(MockService mockService, MockImporter importer, OpenApiImporter openApiImporter) {
+        this.mockService = mockService;
+        this.importer = importer;
+        this.openApiImporter = openApiImporter;
+    }
+
+    /**
+     * Register a JSON array or NDJSON stream of endpoint definitions in one atomic swap,
+     * added to the current mocks or, with {@code replace=true}, replacing them all
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportResult importMocks(@RequestBody InputStreamResource body,
+                                    @RequestParam(defaultValue = "false") boolean replace) throws IOException {
+        try (InputStream input = body.getInputStream()) {
+            return importer.importMocks(input, replace);
+        }
+    }
+
+    /**
+     * Generate mocks from an OpenAPI 3 or Swagger 2 spec in JSON or YAML, one per operation,
+     * under {@code basePath} if given and otherwise under the path of the spec's server URL
+     */
+    @PostMapping(value = "/import/openapi", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/yaml",
+            "application/x-yaml", "text/yaml"})
+    public ImportResult importOpenApi(@RequestBody InputStreamResource body,
+                                      @RequestParam(defaultValue = "false") boolean replace,
+                                      @RequestParam(required = false) String basePath) throws IOException {
+        try (InputStream input = body.getInputStream()) {
+            return openApiImporter.importSpec(input, replace, basePath);
+        }
+    }
+
+    @GetMapping("/count")
+    public Map<String, Integer> count() {
+        return Map.of("count", mockService.getMocksList().size());
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        mockService.clearAllMocks();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> invalidImport(IllegalArgumentException e) {
+        return Map.of("error", e.getMessage());
+    }
+}
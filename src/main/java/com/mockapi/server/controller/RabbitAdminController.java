@@ -0,0 +1,140 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.BulkPublishJob;
+import com.mockapi.server.service.BulkPublishRequest;
+import com.mockapi.server.service.BulkPublishStats;
+import com.mockapi.server.service.LoadTestRequest;
+import com.mockapi.server.service.MockConsumer;
+import com.mockapi.server.service.MockConsumerRequest;
+import com.mockapi.server.service.MockConsumerStats;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.RabbitBulkPublisher;
+import com.mockapi.server.service.RabbitMQService;
+import com.mockapi.server.service.RabbitMockConsumers;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin API for RabbitMQ load runs, so message replays and load tests can be scripted. Bulk
+ * publishes and rate-controlled load runs share one list of jobs running in the background;
+ * poll a job's stats for live throughput and confirm latency. Mock consumers listen on
+ * queues until stopped, recording what arrives and answering RPC requests.
+ */
+@RestController
+@RequestMapping(MockService.ADMIN_PATH + "/rabbitmq")
+public class RabbitAdminController {
+
+    private final RabbitBulkPublisher bulkPublisher;
+    private final RabbitMockConsumers mockConsumers;
+
+    public RabbitAdminController(RabbitBulkPublisher bulkPublisher, RabbitMockConsumers mockConsumers) {
+        this.bulkPublisher = bulkPublisher;
+        this.mockConsumers = mockConsumers;
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BulkPublishStats startBulk(@RequestBody BulkPublishRequest request) throws IOException {
+        return bulkPublisher.start(request).getStats();
+    }
+
+    @PostMapping("/load")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BulkPublishStats startLoad(@RequestBody LoadTestRequest request) throws IOException {
+        return bulkPublisher.startLoad(request).getStats();
+    }
+
+    @GetMapping({"/bulk", "/load"})
+    public List<BulkPublishStats> bulkJobs() {
+        return bulkPublisher.getJobs().stream().map(BulkPublishJob::getStats).toList();
+    }
+
+    /**
+     * The job's confirm latency distribution in HdrHistogram's percentile format, in
+     * milliseconds, e.g. for the HdrHistogram plotter
+     */
+    @GetMapping(value = {"/bulk/{id}/histogram", "/load/{id}/histogram"}, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> latencyHistogram(@PathVariable long id) {
+        BulkPublishJob job = bulkPublisher.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        job.getLatencyHistogram().outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8), 1e6);
+        return ResponseEntity.ok(out.toString(StandardCharsets.UTF_8));
+    }
+
+    @GetMapping({"/bulk/{id}", "/load/{id}"})
+    public ResponseEntity<BulkPublishStats> bulkJob(@PathVariable long id) {
+        BulkPublishJob job = bulkPublisher.getJob(id);
+        return job != null ? ResponseEntity.ok(job.getStats()) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Stop a run; messages already published are still confirmed
+     */
+    @DeleteMapping({"/bulk/{id}", "/load/{id}"})
+    public ResponseEntity<BulkPublishStats> cancelBulk(@PathVariable long id) {
+        BulkPublishJob job = bulkPublisher.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        job.cancel();
+        return ResponseEntity.ok(job.getStats());
+    }
+
+    @PostMapping("/consumers")
+    @ResponseStatus(HttpStatus.CREATED)
+    public MockConsumerStats startConsumer(@RequestBody MockConsumerRequest request) {
+        return mockConsumers.start(request).getStats();
+    }
+
+    @GetMapping("/consumers")
+    public List<MockConsumerStats> consumers() {
+        return mockConsumers.getConsumers().stream().map(MockConsumer::getStats).toList();
+    }
+
+    /**
+     * Messages received by all mock consumers, newest first
+     */
+    @GetMapping("/consumers/messages")
+    public List<RabbitMQService.QueueMessage> receivedMessages(@RequestParam(defaultValue = "0") int offset,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        return mockConsumers.getReceivedMessages().page(Math.max(0, offset), Math.max(0, limit));
+    }
+
+    @DeleteMapping("/consumers/messages")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearReceivedMessages() {
+        mockConsumers.clearReceivedMessages();
+    }
+
+    @GetMapping("/consumers/{id}")
+    public ResponseEntity<MockConsumerStats> consumer(@PathVariable long id) {
+        MockConsumer consumer = mockConsumers.getConsumer(id);
+        return consumer != null ? ResponseEntity.ok(consumer.getStats()) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/consumers/{id}")
+    public ResponseEntity<MockConsumerStats> stopConsumer(@PathVariable long id) {
+        MockConsumer consumer = mockConsumers.stop(id);
+        return consumer != null ? ResponseEntity.ok(consumer.getStats()) : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IOException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> invalidRequest(Exception e) {
+        String error = e instanceof NoSuchFileException ? "Message file not found: " + e.getMessage() : e.getMessage();
+        return Map.of("error", String.valueOf(error));
+    }
+}
@@ -0,0 +1,233 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.ByteRange;
+import com.mockapi.server.service.ContentEncoding;
+import com.mockapi.server.service.EncodedBody;
+import com.mockapi.server.service.LatencyProfile;
+import com.mockapi.server.service.MockEndpoint;
+import com.mockapi.server.service.MockRequest;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.RequestJournal;
+import com.mockapi.server.service.ResourceStore;
+import com.mockapi.server.service.RouteMatch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reactive counterpart of {@link DynamicMockController}, serving the same
+ * {@link MockService} registry from Netty. Static bodies are handed to the socket as a
+ * wrapped direct buffer without copying; templated bodies are rendered straight into a
+ * buffer from Netty's pooled allocator; cached compressed variants are wrapped as they are.
+ * File-backed bodies are sent with Netty's zero-copy file transfer when the connection
+ * allows it, otherwise from their mapping. Resource endpoints answer from their stateful
+ * collection. Latency profiles are applied with Reactor timers. Every request is
+ * recorded in the request journal once its response is ready; its body is buffered for
+ * that only when the journal records bodies.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMockHandler {
+
+    /** Target spacing between slices of a throttled body */
+    private static final long SLICE_INTERVAL_MS = 50;
+
+    private static final RequestJournal.HeaderReader<ServerRequest> HEADERS = (request, sink) ->
+            request.headers().asHttpHeaders().forEach((name, values) -> values.forEach(value -> sink.header(name, value)));
+
+    private final MockService mockService;
+    private final RequestJournal journal;
+
+    public ReactiveMockHandler(MockService mockService, RequestJournal journal) {
+        this.mockService = mockService;
+        this.journal = journal;
+    }
+
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        long start = System.nanoTime();
+        RequestMethod method = RequestMethod.resolve(request.method().name());
+        String path = request.requestPath().pathWithinApplication().value();
+        if (mockService.readsBody(method, path) || journal.isRecordingBodies()) {
+            return request.bodyToMono(String.class)
+                    .flatMap(body -> respond(request, method, path, body, start))
+                    .switchIfEmpty(Mono.defer(() -> respond(request, method, path, null, start)));
+        }
+        return respond(request, method, path, null, start);
+    }
+
+    private Mono<ServerResponse> respond(ServerRequest request, RequestMethod method, String path, String body,
+                                         long start) {
+        Mono<ServerResponse> response = select(request, method, path, body);
+        if (!journal.isEnabled()) {
+            return response;
+        }
+        return response.doOnNext(served -> journal.record(request.method().name(), path, request.uri().getRawQuery(),
+                request, HEADERS, body, served.statusCode().value(), start));
+    }
+
+    private Mono<ServerResponse> select(ServerRequest request, RequestMethod method, String path, String body) {
+        MockRequest mockRequest = new ReactiveMockRequest(request, body);
+        RouteMatch match = mockService.match(method, path, mockRequest);
+        if (match == null) {
+            return ServerResponse.notFound().build();
+        }
+
+        MockEndpoint endpoint = match.getEndpoint();
+        Mono<ServerResponse> response;
+        if (endpoint.isResource()) {
+            ResourceStore.Result result = mockService.applyResource(method, match, mockRequest);
+            byte[] stored = result.body();
+            response = ok(result.statusCode(), endpoint, stored.length, headers -> { }, inserter(endpoint, stored.length,
+                    (factory, offset, length) -> factory.wrap(ByteBuffer.wrap(stored, offset, length).slice())));
+        } else if (endpoint.isDynamic()) {
+            LatencyProfile latency = endpoint.getLatency();
+            if (latency == null || !latency.isThrottled()) {
+                // Rendered at write time straight into a pooled buffer; Netty sets its length
+                response = ServerResponse.status(endpoint.getStatusCode())
+                        .header(HttpHeaders.CONTENT_TYPE, endpoint.getContentType())
+                        .body((message, context) -> message.writeWith(Mono.fromCallable(() ->
+                                render(endpoint, mockRequest, match.getPathVariables(), message.bufferFactory()))));
+            } else {
+                byte[] rendered = endpoint.renderBody(mockRequest, match.getPathVariables());
+                response = ok(endpoint.getStatusCode(), endpoint, rendered.length, headers -> { },
+                        inserter(endpoint, rendered.length,
+                                (factory, offset, length) -> factory.allocateBuffer(length).write(rendered, offset, length)));
+            }
+        } else {
+            boolean compressible = mockService.isCompressible(endpoint);
+            EncodedBody encoded = compressible ? mockService.getEncodedBody(endpoint,
+                    ContentEncoding.negotiate(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING))) : null;
+            String eTag = encoded != null ? encoded.getETag() : endpoint.getETag();
+            boolean rangeable = encoded == null && endpoint.getStatusCode() == HttpStatus.OK.value();
+            Consumer<HttpHeaders> headers = h -> {
+                h.set(HttpHeaders.ETAG, eTag);
+                if (compressible) {
+                    h.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                if (encoded != null) {
+                    h.set(HttpHeaders.CONTENT_ENCODING, encoded.getEncoding().getToken());
+                }
+                if (rangeable) {
+                    h.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+                }
+            };
+            int total = endpoint.getContentLength();
+            ByteRange range = rangeable && method == RequestMethod.GET
+                    ? ByteRange.resolve(request.headers().firstHeader(HttpHeaders.RANGE),
+                            request.headers().firstHeader(HttpHeaders.IF_RANGE), eTag, total)
+                    : null;
+            if (method == RequestMethod.GET && eTag.equals(request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response = ServerResponse.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            } else if (encoded != null) {
+                response = ok(endpoint.getStatusCode(), endpoint, encoded.getContentLength(), headers,
+                        inserter(endpoint, encoded.getContentLength(), (factory, offset, length) ->
+                                factory.wrap(encoded.asByteBuffer().position(offset).limit(offset + length).slice())));
+            } else if (range == ByteRange.UNSATISFIABLE) {
+                response = ServerResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(total))
+                        .headers(headers)
+                        .build();
+            } else {
+                int start = range != null ? range.getStart() : 0;
+                int length = range != null ? range.getLength() : total;
+                BodySlicer slicer = (factory, offset, sliceLength) -> factory.wrap(endpoint.getDirectBody()
+                        .position(start + offset).limit(start + offset + sliceLength).slice());
+                int status = range != null ? HttpStatus.PARTIAL_CONTENT.value() : endpoint.getStatusCode();
+                Consumer<HttpHeaders> bodyHeaders = range == null ? headers
+                        : headers.andThen(h -> h.set(HttpHeaders.CONTENT_RANGE, range.contentRange(total)));
+                response = ok(status, endpoint, length, bodyHeaders, bodyInserter(endpoint, start, length, slicer));
+            }
+        }
+
+        if (!endpoint.isDelayed()) {
+            return response;
+        }
+        long delay = endpoint.getLatency().sampleDelayMillis();
+        return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(response) : response;
+    }
+
+    private static DataBuffer render(MockEndpoint endpoint, MockRequest request, Map<String, String> pathVariables,
+                                     DataBufferFactory factory) throws IOException {
+        DataBuffer buffer = factory.allocateBuffer(endpoint.estimateRenderedSize());
+        try (OutputStream out = buffer.asOutputStream()) {
+            endpoint.renderBody(request, pathVariables, out);
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+        return buffer;
+    }
+
+    private static Mono<ServerResponse> ok(int status, MockEndpoint endpoint, int length, Consumer<HttpHeaders> headers,
+                                           BodyInserter<Void, ReactiveHttpOutputMessage> body) {
+        return ServerResponse.status(HttpStatusCode.valueOf(status))
+                .header(HttpHeaders.CONTENT_TYPE, endpoint.getContentType())
+                .contentLength(length)
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * Like {@link #inserter}, but file-backed bodies that are not throttled go through
+     * the server's zero-copy file transfer (sendfile on plain connections)
+     */
+    private static BodyInserter<Void, ReactiveHttpOutputMessage> bodyInserter(MockEndpoint endpoint, int offset,
+                                                                              int length, BodySlicer slicer) {
+        BodyInserter<Void, ReactiveHttpOutputMessage> mapped = inserter(endpoint, length, slicer);
+        LatencyProfile latency = endpoint.getLatency();
+        if (!endpoint.isFileBacked() || length == 0 || (latency != null && latency.isThrottled())) {
+            return mapped;
+        }
+        return (message, context) -> message instanceof ZeroCopyHttpOutputMessage zeroCopy
+                ? zeroCopy.writeWith(endpoint.getBodyFile(), offset, length)
+                : mapped.insert(message, context);
+    }
+
+    /**
+     * Write the body in one buffer, or trickled out in slices when the endpoint is throttled
+     */
+    private static BodyInserter<Void, ReactiveHttpOutputMessage> inserter(MockEndpoint endpoint, int length,
+                                                                          BodySlicer slicer) {
+        LatencyProfile latency = endpoint.getLatency();
+        if (latency == null || !latency.isThrottled() || length == 0) {
+            return (message, context) -> message.writeWith(
+                    Mono.fromSupplier(() -> slicer.slice(message.bufferFactory(), 0, length)));
+        }
+        long rate = latency.getBytesPerSecond();
+        int slice = (int) Math.min(length, Math.max(1, rate * SLICE_INTERVAL_MS / 1000));
+        int slices = (length + slice - 1) / slice;
+        Duration interval = Duration.ofMillis(Math.max(1, slice * 1000L / rate));
+        return (message, context) -> message.writeAndFlushWith(
+                Flux.interval(Duration.ZERO, interval)
+                        .take(slices)
+                        .map(i -> {
+                            int offset = (int) (i * slice);
+                            return Mono.just(slicer.slice(message.bufferFactory(), offset, Math.min(slice, length - offset)));
+                        }));
+    }
+
+    @FunctionalInterface
+    private interface BodySlicer {
+        DataBuffer slice(DataBufferFactory factory, int offset, int length);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.MockRequest;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+/**
+ * {@link MockRequest} over a WebFlux request. The body is only passed in when the route
+ * has body predicates; otherwise it is never buffered.
+ */
+class ReactiveMockRequest implements MockRequest {
+
+    private final ServerRequest request;
+    private final String body;
+    private Object jsonBody;
+    private boolean jsonParsed;
+
+    ReactiveMockRequest(ServerRequest request, String body) {
+        this.request = request;
+        this.body = body;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return request.headers().firstHeader(name);
+    }
+
+    @Override
+    public String getQueryParam(String name) {
+        return request.queryParams().getFirst(name);
+    }
+
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public Object getJsonBody() {
+        if (!jsonParsed) {
+            jsonParsed = true;
+            jsonBody = MockRequest.super.getJsonBody();
+        }
+        return jsonBody;
+    }
+}
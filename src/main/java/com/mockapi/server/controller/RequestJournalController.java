@@ -0,0 +1,74 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.JournalEntry;
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.RequestJournal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin API for verifying what clients sent: query, count and export the request
+ * journal. Works on both the servlet and the reactive engine.
+ */
+@RestController
+@RequestMapping(MockService.ADMIN_PATH + "/requests")
+public class RequestJournalController {
+
+    private final RequestJournal journal;
+
+    public RequestJournalController(RequestJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * The last {@code limit} requests passing the filters, newest first. {@code header}
+     * is either {@code Name:Value} for an exact value or {@code Name} for presence.
+     */
+    @GetMapping
+    public List<JournalEntry> find(@RequestParam(required = false) String method,
+                                   @RequestParam(required = false) String path,
+                                   @RequestParam(required = false) String header,
+                                   @RequestParam(defaultValue = "100") int limit) {
+        String[] headerFilter = headerFilter(header);
+        return journal.find(method, path, headerFilter[0], headerFilter[1], Math.max(0, limit));
+    }
+
+    @GetMapping("/count")
+    public Map<String, Object> count(@RequestParam(required = false) String method,
+                                     @RequestParam(required = false) String path,
+                                     @RequestParam(required = false) String header) {
+        String[] headerFilter = headerFilter(header);
+        return Map.of("count", journal.count(method, path, headerFilter[0], headerFilter[1]),
+                "recorded", journal.getRecordedCount(),
+                "capacity", journal.getCapacity());
+    }
+
+    /**
+     * Every retained request as JSON Lines, oldest first
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JournalEntry> export() {
+        return Flux.fromIterable(journal.getEntries());
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        journal.clear();
+    }
+
+    private static String[] headerFilter(String header) {
+        if (header == null || header.isEmpty()) {
+            return new String[2];
+        }
+        int colon = header.indexOf(':');
+        return colon < 0
+                ? new String[]{header.trim(), null}
+                : new String[]{header.substring(0, colon).trim(), header.substring(colon + 1).trim()};
+    }
+}
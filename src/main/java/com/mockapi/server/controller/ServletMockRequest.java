@@ -0,0 +1,90 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.MockRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link MockRequest} over a servlet request. The query string is parsed and the body
+ * read (and parsed as JSON) only on first use, so requests routed purely by path or
+ * headers never touch their body.
+ */
+class ServletMockRequest implements MockRequest {
+
+    private final HttpServletRequest request;
+    private Map<String, String> queryParams;
+    private String body;
+    private boolean bodyRead;
+    private Object jsonBody;
+    private boolean jsonParsed;
+
+    ServletMockRequest(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return request.getHeader(name);
+    }
+
+    @Override
+    public String getQueryParam(String name) {
+        if (queryParams == null) {
+            queryParams = parseQuery(request.getQueryString());
+        }
+        return queryParams.get(name);
+    }
+
+    @Override
+    public String getBody() {
+        if (!bodyRead) {
+            bodyRead = true;
+            String encoding = request.getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            try {
+                String content = StreamUtils.copyToString(request.getInputStream(), charset);
+                body = content.isEmpty() ? null : content;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read request body", e);
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public Object getJsonBody() {
+        if (!jsonParsed) {
+            jsonParsed = true;
+            jsonBody = MockRequest.super.getJsonBody();
+        }
+        return jsonBody;
+    }
+
+    /**
+     * Parse the raw query string ourselves; getParameter would also consume form bodies
+     */
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mockapi.server.controller;
+
+import com.mockapi.server.service.MockService;
+import com.mockapi.server.service.TemplateService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin API for the endpoint template library, so an edited template file can be picked
+ * up without restarting the server.
+ */
+@RestController
+@RequestMapping(MockService.ADMIN_PATH + "/templates")
+public class TemplateAdminController {
+
+    private final TemplateService templateService;
+
+    public TemplateAdminController(TemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    @GetMapping
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Path file = templateService.getTemplatesFile();
+        summary.put("source", file != null ? file.toString() : "classpath");
+        Path directory = templateService.getTemplatesDir();
+        if (directory != null) {
+            summary.put("directory", directory.toString());
+        }
+        summary.put("categories", templateService.getCategories().size());
+        summary.put("templates", templateService.getTemplateCount());
+        return summary;
+    }
+
+    /**
+     * Re-read the template library, optionally switching to another external file first,
+     * and rescan the watched template directory
+     */
+    @PostMapping("/reload")
+    public Map<String, Object> reload(@RequestParam(required = false) String file) throws IOException {
+        if (file != null && !file.isBlank()) {
+            templateService.reloadTemplates(Path.of(file));
+        } else {
+            templateService.reloadTemplates();
+        }
+        return summary();
+    }
+
+    @ExceptionHandler(IOException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> invalidTemplates(IOException e) {
+        String error = e instanceof NoSuchFileException ? "Template file not found: " + e.getMessage() : e.getMessage();
+        return Map.of("error", String.valueOf(error));
+    }
+}
@@ -0,0 +1,91 @@
+package com.mockapi.server.service;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link MockRequest} over a delivered AMQP message. Headers come from the message's
+ * header table, falling back to its standard properties under their AMQP names; the body
+ * is decoded (and parsed as JSON) only on first use.
+ */
+class AmqpMockRequest implements MockRequest {
+
+    private final Message message;
+    private String body;
+    private boolean bodyRead;
+    private Object jsonBody;
+    private boolean jsonParsed;
+
+    AmqpMockRequest(Message message) {
+        this.message = message;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        MessageProperties properties = message.getMessageProperties();
+        Object value = properties.getHeaders().get(name);
+        if (value == null) {
+            for (Map.Entry<String, Object> header : properties.getHeaders().entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    value = header.getValue();
+                    break;
+                }
+            }
+        }
+        if (value == null) {
+            value = switch (name.toLowerCase(Locale.ROOT)) {
+                case "correlation-id" -> properties.getCorrelationId();
+                case "reply-to" -> properties.getReplyTo();
+                case "message-id" -> properties.getMessageId();
+                case "content-type" -> properties.getContentType();
+                case "type" -> properties.getType();
+                case "app-id" -> properties.getAppId();
+                case "routing-key" -> properties.getReceivedRoutingKey();
+                default -> null;
+            };
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public String getQueryParam(String name) {
+        return null;
+    }
+
+    @Override
+    public String getBody() {
+        if (!bodyRead) {
+            bodyRead = true;
+            body = new String(message.getBody(), charset(message.getMessageProperties().getContentEncoding()));
+        }
+        return body;
+    }
+
+    private static Charset charset(String encoding) {
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            // Not a charset, e.g. a compression scheme; treat the body as UTF-8
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    @Override
+    public Object getJsonBody() {
+        if (!jsonParsed) {
+            jsonParsed = true;
+            jsonBody = MockRequest.super.getJsonBody();
+        }
+        return jsonBody;
+    }
+
+    boolean isJson() {
+        String contentType = message.getMessageProperties().getContentType();
+        return contentType != null && contentType.contains("json");
+    }
+}
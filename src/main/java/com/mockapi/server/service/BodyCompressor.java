@@ -0,0 +1,133 @@
+package com.mockapi.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds compressed variants of mock bodies on first use and caches them on the
+ * endpoint, so a large fixture is compressed once instead of on every request.
+ * <p>
+ * Only static in-memory bodies of a text-like content type and at least
+ * {@code min-size} bytes are considered; file-backed bodies stay off the heap. A variant
+ * is kept only if it is actually smaller. All cached variants together stay within
+ * {@code budget-mb}; once the budget is spent, further endpoints are served
+ * uncompressed. A variant's bytes are returned to the budget when its endpoint is no
+ * longer registered and has been garbage collected.
+ */
+@Component
+public class BodyCompressor {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /** Cached in place of a variant that is not worth serving */
+    private static final EncodedBody NOT_COMPRESSED = new EncodedBody(ContentEncoding.GZIP, new byte[0], null);
+
+    private final int minSize;
+    private final long budgetBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private volatile boolean budgetWarned;
+
+    public BodyCompressor(@Value("${mockapi.compression.min-size:1024}") int minSize,
+                          @Value("${mockapi.compression.budget-mb:256}") long budgetMb) {
+        this.minSize = minSize;
+        this.budgetBytes = budgetMb * 1024 * 1024;
+    }
+
+    /**
+     * Whether responses for this endpoint may be compressed, and so vary by Accept-Encoding
+     */
+    public boolean isCandidate(MockEndpoint endpoint) {
+        return minSize >= 0 && !endpoint.isDynamic() && !endpoint.isFileBacked()
+                && endpoint.getContentLength() >= minSize
+                && isCompressible(endpoint.getContentType());
+    }
+
+    /**
+     * The endpoint's body in the given coding, or null when it should be sent as-is
+     */
+    public EncodedBody encode(MockEndpoint endpoint, ContentEncoding encoding) {
+        if (encoding == null || !isCandidate(endpoint)) {
+            return null;
+        }
+        EncodedBody cached = endpoint.getEncodedBody(encoding);
+        if (cached == null) {
+            cached = build(endpoint, encoding);
+        }
+        return cached != NOT_COMPRESSED ? cached : null;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    private EncodedBody build(MockEndpoint endpoint, ContentEncoding encoding) {
+        byte[] compressed = compress(endpoint, encoding);
+        long size = compressed.length;
+        EncodedBody variant = NOT_COMPRESSED;
+        if (size < endpoint.getContentLength()) {
+            if (usedBytes.addAndGet(size) <= budgetBytes) {
+                variant = new EncodedBody(encoding, compressed, endpoint.getETag());
+            } else {
+                usedBytes.addAndGet(-size);
+                warnBudgetExhausted();
+            }
+        }
+
+        if (endpoint.cacheEncodedBody(encoding, variant)) {
+            if (variant != NOT_COMPRESSED) {
+                AtomicLong used = usedBytes;
+                CLEANER.register(endpoint, () -> used.addAndGet(-size));
+            }
+            return variant;
+        }
+        // Another request built it first
+        if (variant != NOT_COMPRESSED) {
+            usedBytes.addAndGet(-size);
+        }
+        return endpoint.getEncodedBody(encoding);
+    }
+
+    private static byte[] compress(MockEndpoint endpoint, ContentEncoding encoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, endpoint.getContentLength() / 4));
+        try (OutputStream out = encoding == ContentEncoding.GZIP
+                ? new GZIPOutputStream(buffer, 8192) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }
+                : new DeflaterOutputStream(buffer, new Deflater(Deflater.BEST_COMPRESSION), 8192, false)) {
+            endpoint.writeBody(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress body of " + endpoint.getPath(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("xml")
+                || type.contains("javascript") || type.contains("csv") || type.contains("yaml");
+    }
+
+    private void warnBudgetExhausted() {
+        if (!budgetWarned) {
+            budgetWarned = true;
+            System.out.println("⚠️ Compression budget of " + budgetBytes / (1024 * 1024)
+                    + " MB exhausted; further bodies are served uncompressed");
+        }
+    }
+}
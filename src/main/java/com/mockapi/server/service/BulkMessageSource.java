@@ -0,0 +1,159 @@
+package com.mockapi.server.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Message bodies for a bulk publish, produced one at a time so that a run of millions of
+ * messages is never held in memory. Sources are not thread-safe; publishers take turns.
+ */
+public interface BulkMessageSource extends Closeable {
+
+    /**
+     * Next message body, or null once the source is exhausted
+     */
+    byte[] next() throws IOException;
+
+    /**
+     * Number of messages, or -1 when it is only known after reading them all
+     */
+    long size();
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * The template rendered {@code count} times. Supported placeholders: {@code {{seq}}}
+     * (1-based message number), {@code {{uuid}}}, {@code {{now}}} and {@code {{now.millis}}}.
+     * A template without placeholders is encoded once and sent as-is.
+     */
+    static BulkMessageSource template(String template, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Message count must not be negative: " + count);
+        }
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf("{{", start)) >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                break;
+            }
+            String name = template.substring(open + 2, close).trim();
+            if (name.equals("seq") || name.equals("uuid") || name.equals("now") || name.equals("now.millis")) {
+                literal.append(template, start, open);
+                parts.add(literal.toString());
+                parts.add(name);
+                literal.setLength(0);
+            } else {
+                literal.append(template, start, close + 2);
+            }
+            start = close + 2;
+        }
+        literal.append(template, start, template.length());
+        parts.add(literal.toString());
+        String[] segments = parts.toArray(new String[0]);
+        byte[] fixed = segments.length == 1 ? segments[0].getBytes(StandardCharsets.UTF_8) : null;
+
+        return new BulkMessageSource() {
+            private long sent;
+
+            @Override
+            public byte[] next() {
+                if (sent == count) {
+                    return null;
+                }
+                sent++;
+                if (fixed != null) {
+                    return fixed;
+                }
+                // Even indexes are literal text, odd ones placeholder names
+                StringBuilder body = new StringBuilder(template.length() + 32);
+                for (int i = 0; i < segments.length; i++) {
+                    body.append(i % 2 == 0 ? segments[i] : render(segments[i], sent));
+                }
+                return body.toString().getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public long size() {
+                return count;
+            }
+        };
+    }
+
+    private static String render(String placeholder, long seq) {
+        return switch (placeholder) {
+            case "seq" -> Long.toString(seq);
+            case "uuid" -> ResponseTemplate.randomUuid();
+            case "now" -> Instant.now().toString();
+            default -> Long.toString(System.currentTimeMillis());
+        };
+    }
+
+    /**
+     * The content of a file sent {@code count} times, e.g. a captured production payload;
+     * placeholders are rendered as for {@link #template}
+     */
+    static BulkMessageSource repeat(Path file, long count) throws IOException {
+        return template(Files.readString(file), count);
+    }
+
+    /**
+     * One message per line of an NDJSON file, streamed as raw bytes. Line endings are
+     * stripped and blank lines skipped; lines are not parsed.
+     */
+    static BulkMessageSource ndjson(Path file) throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+        return new BulkMessageSource() {
+            private final ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+            private boolean exhausted;
+
+            @Override
+            public byte[] next() throws IOException {
+                while (!exhausted) {
+                    int b = input.read();
+                    if (b < 0) {
+                        exhausted = true;
+                    } else if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    byte[] message = line.toByteArray();
+                    line.reset();
+                    int length = message.length;
+                    while (length > 0 && (message[length - 1] == '\r' || message[length - 1] == ' '
+                            || message[length - 1] == '\t')) {
+                        length--;
+                    }
+                    if (length > 0) {
+                        return length == message.length ? message : Arrays.copyOf(message, length);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public long size() {
+                return -1;
+            }
+
+            @Override
+            public void close() throws IOException {
+                input.close();
+            }
+        };
+    }
+}
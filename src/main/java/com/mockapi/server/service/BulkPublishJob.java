@@ -0,0 +1,180 @@
+package com.mockapi.server.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A running or finished bulk publish or load run. Counters are updated by the publishing
+ * threads and the connection's confirm thread and can be read at any time through
+ * {@link #getStats()}. Confirm latencies go to an HdrHistogram recorder; for a load run
+ * they count from when each message was due rather than when it was sent.
+ */
+public class BulkPublishJob {
+
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long id;
+    private final String destination;
+    private final String virtualHost;
+    private final long total;
+    private final LoadTestRequest profile;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Recorder latencies = new Recorder(3);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile boolean cancelled;
+    private volatile String error;
+    private volatile State state = State.RUNNING;
+    private volatile long scheduleStartNanos;
+    private volatile long endNanos;
+
+    // Guarded by this: latencies recorded so far, the confirmed count at the start of the
+    // current rate window, and the load schedule's progress
+    private final Histogram latencyHistogram = new Histogram(3);
+    private Histogram interval;
+    private long windowStartNanos = startNanos;
+    private long windowStartCount;
+    private long currentRate;
+    private final LoadSchedule due;
+
+    BulkPublishJob(long id, String destination, String virtualHost, long total) {
+        this(id, destination, virtualHost, total, null);
+    }
+
+    BulkPublishJob(long id, String destination, String virtualHost, long total, LoadTestRequest profile) {
+        this.id = id;
+        this.destination = destination;
+        this.virtualHost = virtualHost;
+        this.total = total;
+        this.profile = profile;
+        this.due = profile != null ? new LoadSchedule(profile) : null;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Stop publishing; messages already sent are still confirmed before the job ends
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    public synchronized BulkPublishStats getStats() {
+        long now = isDone() ? endNanos : System.nanoTime();
+        long confirmedCount = confirmed.sum();
+        long failedCount = failed.sum();
+        // Read last: a message is counted as published before its confirm can arrive
+        long publishedCount = published.sum();
+        long elapsed = Math.max(1, now - startNanos);
+        Histogram latency = latencyHistogram();
+        long scheduleStart = scheduleStartNanos;
+        // The rate leaves out connecting to the broker
+        long publishing = Math.max(1, now - (scheduleStart != 0 ? scheduleStart : startNanos));
+
+        long targetRate = 0;
+        long backlog = 0;
+        if (profile != null && isDone()) {
+            targetRate = Math.round(total / profile.getDurationSeconds());
+        } else if (profile != null && scheduleStart != 0) {
+            long runNanos = Math.max(0, now - scheduleStart);
+            targetRate = Math.round(profile.rateAt(runNanos / 1e9));
+            backlog = Math.max(0, (long) due.dueBy(runNanos) - publishedCount);
+        }
+        return new BulkPublishStats(id, destination, virtualHost, state, total, publishedCount, confirmedCount,
+                failedCount, TimeUnit.NANOSECONDS.toMillis(elapsed), confirmedCount * 1_000_000_000L / publishing,
+                currentRate(now, confirmedCount), targetRate, backlog,
+                Math.round(latency.getMean() / 1000), micros(latency, 50), micros(latency, 99),
+                micros(latency, 99.9), latency.getMaxValue() / 1000, error);
+    }
+
+    /**
+     * Confirm latencies in nanoseconds recorded so far, as a copy
+     */
+    public synchronized Histogram getLatencyHistogram() {
+        return latencyHistogram().copy();
+    }
+
+    private Histogram latencyHistogram() {
+        interval = latencies.getIntervalHistogram(interval);
+        latencyHistogram.add(interval);
+        return latencyHistogram;
+    }
+
+    private static long micros(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000;
+    }
+
+    private long currentRate(long now, long confirmedCount) {
+        if (now - windowStartNanos >= RATE_WINDOW_NANOS) {
+            currentRate = (confirmedCount - windowStartCount) * 1_000_000_000L / (now - windowStartNanos);
+            windowStartNanos = now;
+            windowStartCount = confirmedCount;
+        } else if (windowStartNanos == startNanos) {
+            // Still in the first window
+            currentRate = confirmedCount * 1_000_000_000L / Math.max(1, now - startNanos);
+        }
+        return currentRate;
+    }
+
+    boolean isStopping() {
+        return cancelled || error != null;
+    }
+
+    boolean hasFailed() {
+        return error != null;
+    }
+
+    void published() {
+        published.increment();
+    }
+
+    /**
+     * Publishing, and a load run's schedule, started at the given time
+     */
+    void scheduleStarted(long nanos) {
+        scheduleStartNanos = nanos;
+    }
+
+    void confirmed(long publishedAtNanos, long nowNanos) {
+        latencies.recordValue(Math.max(0, nowNanos - publishedAtNanos));
+        confirmed.increment();
+    }
+
+    void failed(int count) {
+        failed.add(count);
+    }
+
+    void fail(Throwable cause) {
+        if (error == null) {
+            error = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        }
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+        state = error != null ? State.FAILED : cancelled ? State.CANCELLED : State.COMPLETED;
+        done.countDown();
+    }
+}
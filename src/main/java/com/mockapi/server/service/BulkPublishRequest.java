@@ -0,0 +1,82 @@
+package com.mockapi.server.service;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where and what to publish in bulk. The destination is a queue, sent through the default
+ * exchange, or an exchange with a routing key. Messages come from {@code file}, one per
+ * line with {@code ndjson} or otherwise the whole file {@code count} times, or else from
+ * {@code template} rendered {@code count} times (see {@link BulkMessageSource#template}).
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class BulkPublishRequest {
+    private String virtualHost;
+    private String queue;
+    private String exchange;
+    private String routingKey;
+    private boolean json = true;
+    private String template;
+    private String file;
+    private boolean ndjson;
+    private long count;
+    /**
+     * Channels publishing in parallel; 0 uses the configured default
+     */
+    private int channels;
+    /**
+     * Published messages allowed to await a confirm at once; 0 uses the configured default
+     */
+    private int maxInFlight;
+
+    /**
+     * Queue name or {@code exchange (Routing: key)}, as shown in the sent message history
+     */
+    public String destination() {
+        return hasExchange() ? exchange + " (Routing: " + (routingKey != null ? routingKey : "") + ")" : queue;
+    }
+
+    boolean hasExchange() {
+        return exchange != null && !exchange.isBlank();
+    }
+
+    void validate() {
+        validateDestination();
+        if ((!hasFile() || !ndjson) && count <= 0) {
+            throw new IllegalArgumentException("Message count must be positive: " + count);
+        }
+    }
+
+    void validateDestination() {
+        if (!hasExchange() && (queue == null || queue.isBlank())) {
+            throw new IllegalArgumentException("Queue name or exchange must be provided");
+        }
+        if (!hasFile() && template == null) {
+            throw new IllegalArgumentException("A message template or file must be provided");
+        }
+        if (channels < 0 || maxInFlight < 0) {
+            throw new IllegalArgumentException("Channels and max in-flight must not be negative");
+        }
+    }
+
+    private boolean hasFile() {
+        return file != null && !file.isBlank();
+    }
+
+    BulkMessageSource openSource() throws IOException {
+        return openSource(count);
+    }
+
+    BulkMessageSource openSource(long count) throws IOException {
+        if (hasFile()) {
+            return ndjson ? BulkMessageSource.ndjson(Path.of(file)) : BulkMessageSource.repeat(Path.of(file), count);
+        }
+        return BulkMessageSource.template(template, count);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress of a bulk publish or load run at one moment
+ */
+@Getter
+@AllArgsConstructor
+public class BulkPublishStats {
+    private final long id;
+    private final String destination;
+    private final String virtualHost;
+    private final BulkPublishJob.State state;
+    /**
+     * Messages in the source, or -1 when not known up front
+     */
+    private final long total;
+    private final long published;
+    private final long confirmed;
+    /**
+     * Messages the broker rejected or that were lost with a closed channel
+     */
+    private final long failed;
+    private final long elapsedMillis;
+    /**
+     * Confirmed messages per second since publishing started
+     */
+    private final long messagesPerSecond;
+    /**
+     * Confirmed messages per second over roughly the last second
+     */
+    private final long currentRate;
+    /**
+     * Messages per second a load run's schedule asks for right now, or on average once the
+     * run is over; 0 for a bulk publish
+     */
+    private final long targetRate;
+    /**
+     * Messages of a load run that are due but not yet published
+     */
+    private final long backlog;
+    private final long avgConfirmMicros;
+    private final long p50ConfirmMicros;
+    private final long p99ConfirmMicros;
+    private final long p999ConfirmMicros;
+    private final long maxConfirmMicros;
+    private final String error;
+
+    public long getInFlight() {
+        return published - confirmed - failed;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mockapi.server.service;
+
+/**
+ * A single satisfiable byte range of a response body, resolved from a Range header.
+ * Only one range per request is honoured; multi-range requests get the whole body,
+ * which RFC 9110 allows.
+ */
+public final class ByteRange {
+
+    /** Returned when the requested range lies entirely outside the body */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(0, 0);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final int start;
+    private final int length;
+
+    private ByteRange(int start, int length) {
+        this.start = start;
+        this.length = length;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Value of the Content-Range header for a 206 reply
+     */
+    public String contentRange(int contentLength) {
+        return "bytes " + start + "-" + (start + length - 1) + "/" + contentLength;
+    }
+
+    /**
+     * Value of the Content-Range header for a 416 reply
+     */
+    public static String unsatisfiedContentRange(int contentLength) {
+        return "bytes */" + contentLength;
+    }
+
+    /**
+     * Resolve the Range header of a GET against a body of the given length. Returns null
+     * when the whole body should be sent: no header, a malformed or multi-range header,
+     * or an If-Range validator that no longer matches the ETag.
+     */
+    public static ByteRange resolve(String range, String ifRange, String eTag, int contentLength) {
+        if (range == null || !range.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())
+                || range.indexOf(',') >= 0) {
+            return null;
+        }
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+        String spec = range.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long first;
+            long last;
+            if (dash == 0) {
+                // Suffix range: the final N bytes
+                long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix <= 0) {
+                    return suffix == 0 ? UNSATISFIABLE : null;
+                }
+                first = Math.max(0, contentLength - suffix);
+                last = contentLength - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash).trim());
+                String end = spec.substring(dash + 1).trim();
+                last = end.isEmpty() ? Long.MAX_VALUE : Long.parseLong(end);
+                if (last < first) {
+                    return null;
+                }
+                last = Math.min(last, contentLength - 1);
+            }
+            if (first >= contentLength) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange((int) first, (int) (last - first + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
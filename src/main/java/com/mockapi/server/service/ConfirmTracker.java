@@ -0,0 +1,61 @@
+package com.mockapi.server.service;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Publish sequence numbers of one confirm-mode channel still awaiting a broker confirm,
+ * with their publish times. Confirms arrive on the connection's thread, possibly covering
+ * every number up to a delivery tag at once, while the publisher keeps adding.
+ */
+final class ConfirmTracker {
+
+    private final ConcurrentSkipListMap<Long, Long> pending = new ConcurrentSkipListMap<>();
+
+    /**
+     * Record a publish; called before the message is sent so its confirm cannot arrive first
+     */
+    void published(long sequence, long nanos) {
+        pending.put(sequence, nanos);
+    }
+
+    /**
+     * Settle the confirmed sequence numbers, passing the publish time of each to the
+     * consumer, and return how many were settled
+     */
+    int confirm(long deliveryTag, boolean multiple, LongConsumer publishedAt) {
+        if (!multiple) {
+            return settle(deliveryTag, publishedAt);
+        }
+        int settled = 0;
+        for (Long sequence : pending.headMap(deliveryTag, true).keySet()) {
+            settled += settle(sequence, publishedAt);
+        }
+        return settled;
+    }
+
+    /**
+     * Give up on everything outstanding, e.g. once the channel has closed
+     */
+    int clear() {
+        int cleared = 0;
+        while (pending.pollFirstEntry() != null) {
+            cleared++;
+        }
+        return cleared;
+    }
+
+    int outstanding() {
+        return pending.size();
+    }
+
+    private int settle(long sequence, LongConsumer publishedAt) {
+        // Removal decides who settles an entry when a confirm races with clear()
+        Long nanos = pending.remove(sequence);
+        if (nanos == null) {
+            return 0;
+        }
+        publishedAt.accept(nanos);
+        return 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mockapi.server.service;
+
+import java.util.Arrays;
+
+/**
+ * Content codings served from cached, pre-compressed body variants. Brotli is not
+ * offered as the JDK ships no encoder for it.
+ */
+public enum ContentEncoding {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final ContentEncoding[] VALUES = values();
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Pick the preferred coding from an Accept-Encoding header by q-value, gzip winning
+     * ties; returns null when the client only accepts the identity coding
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        ContentEncoding best = null;
+        double bestQuality = 0;
+        double wildcard = -1;
+        double[] explicit = new double[VALUES.length];
+        Arrays.fill(explicit, -1);
+
+        int start = 0;
+        int length = acceptEncoding.length();
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int semicolon = acceptEncoding.indexOf(';', start);
+            int nameEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+            String name = acceptEncoding.substring(start, nameEnd).trim();
+            double quality = nameEnd < end ? parseQuality(acceptEncoding.substring(nameEnd + 1, end)) : 1;
+            if ("*".equals(name)) {
+                wildcard = quality;
+            } else {
+                for (ContentEncoding encoding : VALUES) {
+                    if (encoding.token.equalsIgnoreCase(name)) {
+                        explicit[encoding.ordinal()] = quality;
+                    }
+                }
+            }
+            start = end + 1;
+        }
+
+        for (ContentEncoding encoding : VALUES) {
+            double quality = explicit[encoding.ordinal()] >= 0 ? explicit[encoding.ordinal()] : wildcard;
+            if (quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double parseQuality(String parameters) {
+        String value = parameters.trim();
+        if (!value.regionMatches(true, 0, "q=", 0, 2)) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mockapi.server.service;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A compressed variant of a mock body, built once and served as-is. Carries its own
+ * strong ETag since the bytes differ from the identity body.
+ */
+@Getter
+public final class EncodedBody {
+
+    private final ContentEncoding encoding;
+    @Getter(lombok.AccessLevel.NONE)
+    private final byte[] bytes;
+    private final String eTag;
+
+    EncodedBody(ContentEncoding encoding, byte[] bytes, String identityETag) {
+        this.encoding = encoding;
+        this.bytes = bytes;
+        this.eTag = identityETag != null
+                ? identityETag.substring(0, identityETag.length() - 1) + "-" + encoding.getToken() + "\""
+                : null;
+    }
+
+    public int getContentLength() {
+        return bytes.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * Read-only view for non-blocking writers
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * The bytes themselves, for writers that take a heap array (never modify them)
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+}
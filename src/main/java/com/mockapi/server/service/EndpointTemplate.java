@@ -21,5 +21,23 @@ public class EndpointTemplate {
     private int statusCode;
     private String response;
     private String contentType;
+    private List<MatchCondition> conditions;
+    private LatencyProfile latency;
+    /**
+     * Path of a fixture file to serve instead of {@code response}, for large downloads
+     */
+    private String bodyFile;
+    /**
+     * Scenario state the endpoint requires and moves to, for stateful sequences
+     */
+    private ScenarioRule scenario;
+    /**
+     * Resource collection to store POST/PUT bodies in and serve back on GET
+     */
+    private String resource;
+
+    public EndpointTemplate(String name, String path, String method, int statusCode, String response, String contentType) {
+        this(name, path, method, statusCode, response, contentType, null, null, null, null, null);
+    }
 }
 
@@ -0,0 +1,20 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk mock import
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResult {
+    private final int imported;
+    /**
+     * Mocks registered once the batch was applied
+     */
+    private final int total;
+    private final boolean replaced;
+    private final long elapsedMillis;
+    private final long mocksPerSecond;
+}
@@ -0,0 +1,53 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request as recorded in the {@link RequestJournal}, decoded for queries and export
+ */
+@Getter
+@AllArgsConstructor
+public class JournalEntry {
+    private final long sequence;
+    private final Instant timestamp;
+    private final long durationMicros;
+    private final String method;
+    private final String path;
+    private final String query;
+    /**
+     * Header values in arrival order; repeated headers are joined with ", "
+     */
+    private final Map<String, String> headers;
+    private final String body;
+    private final int status;
+    /**
+     * Whether headers or body were cut to fit the journal's slot size
+     */
+    private final boolean truncated;
+
+    /**
+     * Header value by case-insensitive name, or null
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the entry passes every given filter; null filters match anything
+     */
+    public boolean matches(String method, String path, String headerName, String headerValue) {
+        return (method == null || method.equalsIgnoreCase(this.method))
+                && (path == null || path.equals(this.path))
+                && (headerName == null || (headerValue != null
+                        ? headerValue.equals(getHeader(headerName)) : getHeader(headerName) != null));
+    }
+}
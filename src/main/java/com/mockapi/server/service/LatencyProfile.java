@@ -0,0 +1,99 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated latency and bandwidth for a mock response.
+ * <ul>
+ *     <li>FIXED - always {@code fixedMs}</li>
+ *     <li>UNIFORM - uniformly distributed between {@code minMs} and {@code maxMs}</li>
+ *     <li>PERCENTILE - log-normal shaped so that the median is {@code p50Ms} and the
+ *     99th percentile is {@code p99Ms}, optionally capped at {@code maxMs}</li>
+ * </ul>
+ * A positive {@code bytesPerSecond} additionally trickles the body out at that rate.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyProfile {
+
+    public enum Type {
+        FIXED,
+        UNIFORM,
+        PERCENTILE
+    }
+
+    /** z-score of the 99th percentile of a standard normal distribution */
+    private static final double Z_99 = 2.3263;
+
+    private Type type;
+    private long fixedMs;
+    private long minMs;
+    private long maxMs;
+    private long p50Ms;
+    private long p99Ms;
+    private long bytesPerSecond;
+
+    public static LatencyProfile fixed(long millis) {
+        return new LatencyProfile(Type.FIXED, millis, 0, 0, 0, 0, 0);
+    }
+
+    public static LatencyProfile uniform(long minMs, long maxMs) {
+        return new LatencyProfile(Type.UNIFORM, 0, minMs, maxMs, 0, 0, 0);
+    }
+
+    public static LatencyProfile percentiles(long p50Ms, long p99Ms) {
+        return new LatencyProfile(Type.PERCENTILE, 0, 0, 0, p50Ms, p99Ms, 0);
+    }
+
+    public LatencyProfile withBytesPerSecond(long bytesPerSecond) {
+        return new LatencyProfile(type, fixedMs, minMs, maxMs, p50Ms, p99Ms, bytesPerSecond);
+    }
+
+    /**
+     * Draw the delay for one response
+     */
+    public long sampleDelayMillis() {
+        if (type == null) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (type) {
+            case FIXED:
+                return Math.max(0, fixedMs);
+            case UNIFORM:
+                return maxMs > minMs ? random.nextLong(minMs, maxMs + 1) : Math.max(0, minMs);
+            case PERCENTILE: {
+                if (p50Ms <= 0) {
+                    return 0;
+                }
+                double mu = Math.log(p50Ms);
+                double sigma = p99Ms > p50Ms ? (Math.log(p99Ms) - mu) / Z_99 : 0;
+                long delay = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+                return maxMs > 0 ? Math.min(delay, maxMs) : delay;
+            }
+            default:
+                return 0;
+        }
+    }
+
+    public boolean isThrottled() {
+        return bytesPerSecond > 0;
+    }
+
+    @Override
+    public String toString() {
+        String delay = type == null ? "none" : switch (type) {
+            case FIXED -> fixedMs + "ms";
+            case UNIFORM -> minMs + "-" + maxMs + "ms";
+            case PERCENTILE -> "p50=" + p50Ms + "ms p99=" + p99Ms + "ms";
+        };
+        return isThrottled() ? delay + " @" + bytesPerSecond + "B/s" : delay;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mockapi.server.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When each message of a load run is due, found by integrating the run's rate profile over
+ * 1 ms ticks. The schedule is fixed up front and never waits for the broker: a publisher
+ * that falls behind sends late messages at once and their latency counts from the time
+ * they were due, so slow confirms cannot hide by slowing the load down.
+ * <p>
+ * A schedule is a cursor that only moves forward; each publisher thread walks its own.
+ */
+final class LoadSchedule {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Rounding slack in the summed message counts, so that the run's total is exact
+    private static final double EPSILON = 1e-3;
+
+    private final LoadTestRequest profile;
+    private final long ticks;
+    private long tick = -1;
+    // Messages due before the current tick and within it
+    private double before;
+    private double during;
+
+    LoadSchedule(LoadTestRequest profile) {
+        this.profile = profile;
+        this.ticks = (long) Math.ceil(profile.getDurationSeconds() * 1000);
+    }
+
+    /**
+     * Messages the whole run publishes
+     */
+    static long totalMessages(LoadTestRequest profile) {
+        LoadSchedule schedule = new LoadSchedule(profile);
+        return (long) Math.ceil(schedule.dueBy(schedule.ticks * TICK_NANOS) - EPSILON);
+    }
+
+    /**
+     * Offset from the start of the run at which message {@code n} (0-based) is due, or -1
+     * if the run is over by then
+     */
+    long dueNanos(long n) {
+        while (tick < 0 || n + EPSILON >= before + during) {
+            if (!advance()) {
+                return -1;
+            }
+        }
+        return tick * TICK_NANOS + (long) (Math.max(0, n - before) / during * TICK_NANOS);
+    }
+
+    /**
+     * Messages due in the first {@code nanos} of the run, fractions included
+     */
+    double dueBy(long nanos) {
+        long target = Math.min(nanos / TICK_NANOS, ticks);
+        while (tick < target) {
+            if (!advance()) {
+                break;
+            }
+        }
+        if (tick < 0 || tick >= ticks) {
+            return Math.max(0, before + during);
+        }
+        return before + during * Math.min(1.0, (double) (nanos - tick * TICK_NANOS) / TICK_NANOS);
+    }
+
+    private boolean advance() {
+        if (tick + 1 >= ticks) {
+            if (tick < ticks) {
+                before += during;
+                during = 0;
+                tick = ticks;
+            }
+            return false;
+        }
+        before += during;
+        tick++;
+        // The profile is linear within a tick, so its midpoint gives the exact integral
+        during = profile.rateAt((tick + 0.5) / 1000.0) / 1000.0;
+        return true;
+    }
+}
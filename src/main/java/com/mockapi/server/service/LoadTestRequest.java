@@ -0,0 +1,57 @@
+package com.mockapi.server.service;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.IOException;
+
+/**
+ * A load run: messages published at {@code rate} per second for {@code durationSeconds},
+ * optionally ramping up linearly from zero over {@code rampUpSeconds} and rising to
+ * {@code burstRate} for {@code burstSeconds} out of every {@code burstEverySeconds}.
+ * Destination and messages are given as for a bulk publish, without a count; an NDJSON
+ * file that runs out ends the run early.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class LoadTestRequest extends BulkPublishRequest {
+    private double rate;
+    private double durationSeconds;
+    private double rampUpSeconds;
+    private double burstRate;
+    private double burstSeconds;
+    private double burstEverySeconds;
+
+    /**
+     * Target messages per second at the given offset into the run
+     */
+    public double rateAt(double seconds) {
+        double base = burstRate > 0 && seconds % burstEverySeconds < burstSeconds ? burstRate : rate;
+        return rampUpSeconds > 0 && seconds < rampUpSeconds ? base * seconds / rampUpSeconds : base;
+    }
+
+    @Override
+    void validate() {
+        validateDestination();
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Rate and duration must be positive");
+        }
+        if (rampUpSeconds < 0 || rampUpSeconds > durationSeconds) {
+            throw new IllegalArgumentException("Ramp-up must be between 0 and the duration: " + rampUpSeconds);
+        }
+        if (burstRate < 0) {
+            throw new IllegalArgumentException("Burst rate must not be negative: " + burstRate);
+        }
+        if (burstRate > 0 && (burstSeconds <= 0 || burstEverySeconds <= burstSeconds)) {
+            throw new IllegalArgumentException("Bursts need a length shorter than their interval");
+        }
+    }
+
+    @Override
+    BulkMessageSource openSource() throws IOException {
+        // The schedule decides when the run ends
+        return openSource(Long.MAX_VALUE);
+    }
+}
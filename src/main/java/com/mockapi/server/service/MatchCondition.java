@@ -0,0 +1,52 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Condition a request must satisfy for a mock variant to be selected
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchCondition {
+
+    public enum Type {
+        /** Header {@code name} equals {@code value} */
+        HEADER,
+        /** Query parameter {@code name} equals {@code value} */
+        QUERY,
+        /** JSONPath expression {@code name} evaluated on the body equals {@code value} */
+        JSON_PATH,
+        /** Body matches the regular expression in {@code value} */
+        BODY_REGEX
+    }
+
+    private Type type;
+    private String name;
+    private String value;
+
+    public static MatchCondition header(String name, String value) {
+        return new MatchCondition(Type.HEADER, name, value);
+    }
+
+    public static MatchCondition query(String name, String value) {
+        return new MatchCondition(Type.QUERY, name, value);
+    }
+
+    public static MatchCondition jsonPath(String expression, String value) {
+        return new MatchCondition(Type.JSON_PATH, expression, value);
+    }
+
+    public static MatchCondition bodyRegex(String regex) {
+        return new MatchCondition(Type.BODY_REGEX, null, regex);
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + (name != null ? name + "=" : "") + value + ")";
+    }
+}
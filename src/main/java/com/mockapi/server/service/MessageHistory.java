@@ -0,0 +1,215 @@
+package com.mockapi.server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent messages sent by the publishers or received by the mock consumers, in
+ * a fixed-size ring that concurrent writers add to without locking: each claims the next
+ * sequence number and stores its message in that number's slot, never replacing a newer
+ * one. Older messages are overwritten once the ring is full.
+ * <p>
+ * Content longer than {@code maxContentLength} characters is cut down to that length or,
+ * with a spill directory, written to a spill file and read back on demand.
+ * <p>
+ * Readers take a {@link View}: the sequence range at that moment, paged newest first
+ * without copying the rest. A view never shows messages added after it was taken; those it
+ * covered that have since been overwritten are left out.
+ */
+@Component
+public class MessageHistory implements AutoCloseable {
+
+    private static final int SPINS_BEFORE_YIELD = 100;
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int capacity;
+    private final int maxContentLength;
+    private final SpillFile spill;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong clearedBefore = new AtomicLong();
+
+    public MessageHistory(int capacity) {
+        this(capacity, 0, null);
+    }
+
+    MessageHistory(int capacity, int maxContentLength, SpillFile spill) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.capacity = capacity;
+        this.maxContentLength = Math.max(0, maxContentLength);
+        this.spill = spill;
+    }
+
+    @Autowired
+    public MessageHistory(@Value("${mockapi.rabbitmq.history.capacity:1000}") int capacity,
+                          @Value("${mockapi.rabbitmq.history.max-content-length:0}") int maxContentLength,
+                          @Value("${mockapi.rabbitmq.history.spill-dir:}") String spillDir,
+                          @Value("${mockapi.rabbitmq.history.spill-max-mb:256}") long spillMaxMb) throws IOException {
+        this(capacity, maxContentLength, spillDir, spillMaxMb, "sent-messages");
+    }
+
+    /**
+     * A history with the given content limits; with a spill directory, long content goes
+     * to a spill file of its own whose name starts with {@code spillName}
+     */
+    MessageHistory(int capacity, int maxContentLength, String spillDir, long spillMaxMb, String spillName)
+            throws IOException {
+        this(capacity, maxContentLength, spillDir == null || spillDir.isBlank() || maxContentLength <= 0 ? null
+                : new SpillFile(Path.of(spillDir), spillName, spillMaxMb * 1024 * 1024));
+    }
+
+    public void add(String destination, String virtualHost, String content, boolean isJson) {
+        add(message(destination, virtualHost, content, isJson));
+    }
+
+    private RabbitMQService.QueueMessage message(String destination, String virtualHost, String content,
+                                                 boolean isJson) {
+        if (maxContentLength == 0 || content.length() <= maxContentLength) {
+            return new RabbitMQService.QueueMessage(destination, virtualHost, content, isJson);
+        }
+        String kept = content.substring(0, maxContentLength);
+        if (spill != null) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            if (spill.fits(bytes.length)) {
+                return new RabbitMQService.QueueMessage(destination, virtualHost, kept, isJson, content.length(),
+                        spill, spill.write(bytes), bytes.length);
+            }
+        }
+        return new RabbitMQService.QueueMessage(destination, virtualHost, kept, isJson, content.length(), null, 0, 0);
+    }
+
+    void add(RabbitMQService.QueueMessage message) {
+        long sequence = next.getAndIncrement();
+        Slot slot = new Slot(sequence, message);
+        int index = index(sequence);
+        while (true) {
+            Slot current = slots.get(index);
+            // A writer a whole lap ahead may already have filled the slot
+            if (current != null && current.sequence > sequence) {
+                return;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Messages currently held
+     */
+    public int size() {
+        long end = next.get();
+        return (int) (end - start(end));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public View snapshot() {
+        long end = next.get();
+        return new View(start(end), end);
+    }
+
+    /**
+     * Forget every message added so far; views taken earlier no longer show them
+     */
+    public void clear() {
+        long end = next.get();
+        clearedBefore.accumulateAndGet(end, Math::max);
+        for (int i = 0; i < capacity; i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.sequence < end) {
+                slots.compareAndSet(i, slot, null);
+            }
+        }
+    }
+
+    private long start(long end) {
+        return Math.max(clearedBefore.get(), end - capacity);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * The message with the sequence number, or null if it was overwritten or cleared
+     */
+    private RabbitMQService.QueueMessage read(long sequence) {
+        int index = index(sequence);
+        for (int spins = 0; ; spins++) {
+            if (sequence < clearedBefore.get()) {
+                return null;
+            }
+            Slot slot = slots.get(index);
+            if (slot != null && slot.sequence >= sequence) {
+                return slot.sequence == sequence ? slot.message : null;
+            }
+            // Claimed, but the writer has not stored it yet
+            if (spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+        }
+    }
+
+    private record Slot(long sequence, RabbitMQService.QueueMessage message) {
+    }
+
+    /**
+     * Snapshot of the history's sequence range, read a page at a time
+     */
+    public final class View {
+        private final long start;
+        private final long end;
+
+        private View(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Messages in the snapshot, including any overwritten since
+         */
+        public int size() {
+            return (int) (end - start);
+        }
+
+        /**
+         * Up to {@code limit} messages, newest first, after skipping the {@code offset}
+         * newest. Stops early at messages overwritten since the snapshot was taken.
+         */
+        public List<RabbitMQService.QueueMessage> page(int offset, int limit) {
+            List<RabbitMQService.QueueMessage> page = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+            for (long sequence = end - 1 - offset; sequence >= start && page.size() < limit; sequence--) {
+                RabbitMQService.QueueMessage message = read(sequence);
+                if (message == null) {
+                    // Older messages are gone as well
+                    break;
+                }
+                page.add(message);
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.mockapi.server.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.core.Address;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A queue listener standing in for a downstream service: it records every delivery and
+ * answers RPC requests on their {@code reply-to} address, with the request's correlation
+ * id, using the most specific matching {@link MockReply}. Requests without a reply-to, or
+ * that no reply matches, are only recorded.
+ * <p>
+ * Replies are published on the channel the request arrived on. Delayed replies are sent
+ * from the shared {@link TimerWheel}, so a slow mock never holds up its consumers.
+ */
+public class MockConsumer implements ChannelAwareMessageListener {
+
+    private final long id;
+    private final String queue;
+    private final String virtualHost;
+    private final int concurrency;
+    private final int prefetch;
+    private final int ackBatchSize;
+    private final boolean record;
+    private final Variant[] variants;
+    private final MessageHistory received;
+    private final TimerWheel timerWheel;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder receivedCount = new LongAdder();
+    private final LongAdder replied = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile String error;
+    private volatile SimpleMessageListenerContainer container;
+    private volatile CachingConnectionFactory connectionFactory;
+    private volatile long stoppedNanos;
+
+    MockConsumer(long id, MockConsumerRequest request, int concurrency, int prefetch, int ackBatchSize,
+                 MessageHistory received, TimerWheel timerWheel) {
+        this.id = id;
+        this.queue = request.getQueue();
+        this.virtualHost = request.getVirtualHost();
+        this.concurrency = concurrency;
+        this.prefetch = prefetch;
+        this.ackBatchSize = ackBatchSize;
+        this.record = request.isRecord();
+        List<MockReply> replies = request.getReplies() != null ? request.getReplies() : List.of();
+        // Most specific first, as for HTTP variants
+        this.variants = replies.stream()
+                .map(Variant::new)
+                .sorted(Comparator.comparingInt((Variant variant) -> variant.conditions.length).reversed())
+                .toArray(Variant[]::new);
+        this.received = received;
+        this.timerWheel = timerWheel;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getQueue() {
+        return queue;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public int getAckBatchSize() {
+        return ackBatchSize;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) {
+        receivedCount.increment();
+        AmqpMockRequest request = new AmqpMockRequest(message);
+        if (record) {
+            received.add(queue, virtualHost, request.getBody(), request.isJson());
+        }
+        Address replyTo = message.getMessageProperties().getReplyToAddress();
+        Variant variant = replyTo != null ? select(request) : null;
+        if (variant == null) {
+            return;
+        }
+        // Never throw: the container would reject the delivery and the broker redeliver it
+        try {
+            byte[] body = variant.render(request);
+            AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                    .contentType(variant.contentType)
+                    .contentEncoding("UTF-8")
+                    .correlationId(message.getMessageProperties().getCorrelationId())
+                    .build();
+            long delay = variant.latency != null ? variant.latency.sampleDelayMillis() : 0;
+            if (delay > 0) {
+                timerWheel.schedule(() -> reply(channel, replyTo, properties, body), delay, TimeUnit.MILLISECONDS);
+            } else {
+                reply(channel, replyTo, properties, body);
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private Variant select(MockRequest request) {
+        for (Variant variant : variants) {
+            if (variant.matches(request)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    private void reply(Channel channel, Address replyTo, AMQP.BasicProperties properties, byte[] body) {
+        try {
+            // The client serializes frames per channel, so the timer may publish alongside the consumer
+            channel.basicPublish(replyTo.getExchangeName(), replyTo.getRoutingKey(), properties, body);
+            replied.increment();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Exception e) {
+        failed.increment();
+        error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    void failed(String reason) {
+        error = reason;
+    }
+
+    void attach(SimpleMessageListenerContainer container, CachingConnectionFactory connectionFactory) {
+        this.container = container;
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Stop consuming and close the consumer's connection; deliveries not yet acknowledged
+     * go back to the queue
+     */
+    void stop() {
+        if (stoppedNanos == 0) {
+            stoppedNanos = System.nanoTime();
+        }
+        if (container != null) {
+            container.stop();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    public boolean isRunning() {
+        return stoppedNanos == 0 && container != null && container.isRunning();
+    }
+
+    public MockConsumerStats getStats() {
+        long end = stoppedNanos != 0 ? stoppedNanos : System.nanoTime();
+        long elapsedNanos = Math.max(1, end - startNanos);
+        long count = receivedCount.sum();
+        return new MockConsumerStats(id, queue, virtualHost, isRunning(),
+                container != null && stoppedNanos == 0 ? container.getActiveConsumerCount() : 0,
+                concurrency, prefetch, ackBatchSize, count, replied.sum(), failed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), count * 1_000_000_000L / elapsedNanos, error);
+    }
+
+    /**
+     * A reply compiled once: its conditions, and its body as bytes or as a template
+     */
+    private static final class Variant {
+        private final RequestCondition[] conditions;
+        private final byte[] body;
+        private final ResponseTemplate template;
+        private final String contentType;
+        private final LatencyProfile latency;
+
+        Variant(MockReply reply) {
+            this.conditions = reply.getConditions() == null ? new RequestCondition[0]
+                    : reply.getConditions().stream().map(RequestCondition::new).toArray(RequestCondition[]::new);
+            this.body = reply.getResponse().getBytes(StandardCharsets.UTF_8);
+            this.template = ResponseTemplate.compile(reply.getResponse(), false);
+            this.contentType = reply.getContentType() != null ? reply.getContentType() : "application/json";
+            this.latency = reply.getLatency();
+        }
+
+        boolean matches(MockRequest request) {
+            for (RequestCondition condition : conditions) {
+                if (!condition.test(request)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        byte[] render(MockRequest request) throws IOException {
+            if (template == null) {
+                return body;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(template.estimateSize());
+            template.render(request, Map.of(), out);
+            return out.toByteArray();
+        }
+    }
+}
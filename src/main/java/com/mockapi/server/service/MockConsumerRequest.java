@@ -0,0 +1,46 @@
+package com.mockapi.server.service;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Queue a mock consumer listens on and how it answers. Every delivery is recorded; one
+ * carrying a {@code reply-to} is answered with the most specific matching reply, if any.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class MockConsumerRequest {
+    private String virtualHost;
+    private String queue;
+    private List<MockReply> replies;
+    /**
+     * Concurrent consumers, each on its own channel; 0 uses the configured default
+     */
+    private int concurrency;
+    /**
+     * Unacknowledged deliveries the broker may push to each consumer; 0 uses the configured
+     * default. Raised to the ack batch size if lower.
+     */
+    private int prefetch;
+    /**
+     * Deliveries acknowledged together with one multiple ack; 0 uses the configured default
+     */
+    private int ackBatchSize;
+    private boolean record = true;
+
+    void validate() {
+        if (queue == null || queue.isBlank()) {
+            throw new IllegalArgumentException("Queue name must be provided");
+        }
+        if (concurrency < 0 || prefetch < 0 || ackBatchSize < 0) {
+            throw new IllegalArgumentException("Concurrency, prefetch and ack batch size must not be negative");
+        }
+        if (replies != null && replies.stream().anyMatch(reply -> reply == null || reply.getResponse() == null)) {
+            throw new IllegalArgumentException("Every reply needs a response");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Activity of a mock consumer at one moment
+ */
+@Getter
+@AllArgsConstructor
+public class MockConsumerStats {
+    private final long id;
+    private final String queue;
+    private final String virtualHost;
+    private final boolean running;
+    /**
+     * Consumers currently attached to the queue; 0 while the broker is unreachable
+     */
+    private final int activeConsumers;
+    private final int concurrency;
+    private final int prefetch;
+    private final int ackBatchSize;
+    private final long received;
+    private final long replied;
+    /**
+     * Replies that could not be rendered or published
+     */
+    private final long failed;
+    private final long elapsedMillis;
+    /**
+     * Received messages per second since the consumer started
+     */
+    private final long messagesPerSecond;
+    /**
+     * Latest failure to consume or reply, e.g. an unreachable broker, reported once the
+     * container retries
+     */
+    private final String error;
+}
@@ -1,26 +1,417 @@
 package com.mockapi.server.service;
 
 import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
 
 @Getter
 public class MockEndpoint {
+
+    private static final int FILE_CHUNK_SIZE = 64 * 1024;
+    private static final RequestCondition[] NO_CONDITIONS = new RequestCondition[0];
+
     private final String path;
     private final String method;
     private final int statusCode;
     private final String response;
     private final String contentType;
+    private final List<MatchCondition> conditions;
+    /**
+     * Simulated delay and bandwidth, or null to reply immediately
+     */
+    private final LatencyProfile latency;
+    /**
+     * Fixture file the body is served from, or null when the body is held in memory
+     */
+    private final Path bodyFile;
+    /**
+     * Scenario state this variant requires and moves to, or null when it is stateless
+     */
+    private final ScenarioRule scenario;
+    /**
+     * Name of the stateful resource collection this endpoint reads and writes, or null
+     * when it serves its own body
+     */
+    private final String resource;
+
+    /**
+     * Scenario instance resolved by {@link MockService} before the endpoint is published
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private Scenario boundScenario;
+    @Getter(lombok.AccessLevel.NONE)
+    private int requiredStateId = Scenario.ANY_STATE;
+    @Getter(lombok.AccessLevel.NONE)
+    private int newStateId = Scenario.ANY_STATE;
+
+    /**
+     * Conditions compiled at registration, header/query checks ordered before body checks
+     */
+    @Getter(lombok.AccessLevel.PACKAGE)
+    private final RequestCondition[] requestConditions;
+    @Getter(lombok.AccessLevel.NONE)
+    private final String conditionKey;
+
+    /**
+     * Response body encoded once at registration; never exposed so it stays immutable.
+     * Empty for file-backed endpoints, whose body lives in {@code directBody}.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final byte[] body;
+    private final int contentLength;
+    /**
+     * Strong validator; for in-memory bodies the digest is taken on first use, so
+     * registering or restoring many endpoints doesn't hash every body up front
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile String eTag;
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile ByteBuffer directBody;
+
+    /**
+     * Compressed variants, filled in on first use by {@link BodyCompressor}
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicReferenceArray<EncodedBody> encodedBodies =
+            new AtomicReferenceArray<>(ContentEncoding.values().length);
+
+    /**
+     * Body compiled into literal and placeholder segments, or null when the body is static
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final ResponseTemplate template;
 
     public MockEndpoint(String path, String method, int statusCode, String response) {
         this(path, method, statusCode, response, "application/json");
     }
 
     public MockEndpoint(String path, String method, int statusCode, String response, String contentType) {
+        this(path, method, statusCode, response, contentType, null);
+    }
+
+    public MockEndpoint(String path, String method, int statusCode, String response, String contentType,
+                        List<MatchCondition> conditions) {
+        this(path, method, statusCode, response, contentType, conditions, null);
+    }
+
+    public MockEndpoint(String path, String method, int statusCode, String response, String contentType,
+                        List<MatchCondition> conditions, LatencyProfile latency) {
+        this(path, method, statusCode, response, contentType, conditions, latency, null);
+    }
+
+    /**
+     * Endpoint whose body is the given file rather than {@code response}. The file is
+     * memory-mapped once, so its size does not count against the heap, and is served
+     * without copying; it must not be modified while the endpoint is registered.
+     */
+    public MockEndpoint(String path, String method, int statusCode, String response, String contentType,
+                        List<MatchCondition> conditions, LatencyProfile latency, Path bodyFile) {
+        this(path, method, statusCode, response, contentType, conditions, latency, bodyFile, null, null);
+    }
+
+    /**
+     * Endpoint described by a template, including its scenario rule and resource binding
+     */
+    public MockEndpoint(EndpointTemplate template) {
+        this(template.getPath(), template.getMethod(), template.getStatusCode(), template.getResponse(),
+                template.getContentType(), template.getConditions(), template.getLatency(),
+                template.getBodyFile() != null ? Path.of(template.getBodyFile()) : null,
+                template.getScenario(), template.getResource());
+    }
+
+    private MockEndpoint(String path, String method, int statusCode, String response, String contentType,
+                         List<MatchCondition> conditions, LatencyProfile latency, Path bodyFile,
+                         ScenarioRule scenario, String resource) {
+        if (scenario != null && (scenario.getName() == null || scenario.getName().isBlank())) {
+            throw new IllegalArgumentException("Scenario rule needs a scenario name");
+        }
         this.path = path;
         this.method = method;
         this.statusCode = statusCode;
         this.response = response;
         this.contentType = contentType != null ? contentType : "application/json";
+        this.conditions = conditions != null ? List.copyOf(conditions) : List.of();
+        this.latency = latency;
+        this.bodyFile = bodyFile != null ? bodyFile.toAbsolutePath() : null;
+        this.scenario = scenario;
+        this.resource = resource;
+        this.requestConditions = this.conditions.isEmpty() ? NO_CONDITIONS : this.conditions.stream()
+                .map(RequestCondition::new)
+                .sorted(Comparator.comparing(RequestCondition::readsBody))
+                .toArray(RequestCondition[]::new);
+        String key = requestConditions.length == 0 ? "" : Arrays.stream(requestConditions)
+                .map(RequestCondition::key)
+                .sorted()
+                .collect(Collectors.joining("&"));
+        this.conditionKey = scenario != null
+                ? key + "&SCENARIO:" + scenario.getName() + "@" + scenario.getRequiredState() : key;
+        if (this.bodyFile != null) {
+            this.body = new byte[0];
+            this.directBody = map(this.bodyFile);
+            this.contentLength = directBody.capacity();
+            this.eTag = fileETag(this.bodyFile, contentLength);
+        } else {
+            this.body = response != null ? response.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            this.contentLength = body.length;
+        }
+        this.template = this.bodyFile == null ? ResponseTemplate.compile(response, RouteTrie.isTemplate(path)) : null;
     }
 
-}
+    public String getETag() {
+        String tag = eTag;
+        if (tag == null) {
+            // Racing threads compute the same value
+            tag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+            eTag = tag;
+        }
+        return tag;
+    }
+
+    /**
+     * Whether this variant only applies to requests satisfying match conditions or
+     * while its scenario is in a given state
+     */
+    public boolean isConditional() {
+        return requestConditions.length > 0 || scenario != null;
+    }
+
+    /**
+     * Number of conditions, the scenario state counting as one; the most specific
+     * matching variant of a route wins
+     */
+    public int getSpecificity() {
+        return requestConditions.length + (scenario != null ? 1 : 0);
+    }
+
+    /**
+     * Evaluate the scenario state and match conditions; the body is only consulted by
+     * body predicates
+     */
+    public boolean matches(MockRequest request) {
+        if (scenario != null && (boundScenario == null || !boundScenario.isIn(requiredStateId))) {
+            return false;
+        }
+        for (RequestCondition condition : requestConditions) {
+            if (!condition.test(request)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether this endpoint and the other one are the same variant of the same route
+     */
+    public boolean isSameVariant(MockEndpoint other) {
+        return path.equals(other.path) && method.equals(other.method) && conditionKey.equals(other.conditionKey);
+    }
+
+    /**
+     * Key identifying the variant; equal for exactly the endpoints {@link #isSameVariant} treats as the same
+     */
+    String variantKey() {
+        return method + ' ' + path + ' ' + conditionKey;
+    }
+
+    /**
+     * Resolve the scenario rule against the scenario instance it refers to; called once
+     * by {@link MockService} before the endpoint becomes visible to requests
+     */
+    void bindScenario(Scenario instance) {
+        this.boundScenario = instance;
+        this.requiredStateId = scenario.getRequiredState() != null
+                ? instance.intern(scenario.getRequiredState()) : Scenario.ANY_STATE;
+        this.newStateId = scenario.getNewState() != null ? instance.intern(scenario.getNewState()) : Scenario.ANY_STATE;
+    }
+
+    /**
+     * Record that this variant served a request, applying its scenario transition.
+     * Returns false when the scenario moved on concurrently and the variant no longer applies.
+     */
+    boolean advanceScenario() {
+        return boundScenario == null
+                || boundScenario.advance(requiredStateId, newStateId, Math.max(1, scenario.getTimes()));
+    }
 
+    /**
+     * Whether the response comes from a stateful resource collection rather than the body
+     */
+    public boolean isResource() {
+        return resource != null;
+    }
+
+    /**
+     * Whether the body has placeholders (path variables, headers, query parameters, body
+     * fields, generated values) and must be rendered per request
+     */
+    public boolean isDynamic() {
+        return template != null;
+    }
+
+    /**
+     * Whether selecting or rendering this variant, or storing it as a resource, reads
+     * the request body
+     */
+    boolean readsBody() {
+        for (RequestCondition condition : requestConditions) {
+            if (condition.readsBody()) {
+                return true;
+            }
+        }
+        if (resource != null && !"GET".equalsIgnoreCase(method) && !"DELETE".equalsIgnoreCase(method)) {
+            return true;
+        }
+        return template != null && template.readsBody();
+    }
+
+    /**
+     * Whether the body is served from a memory-mapped file
+     */
+    public boolean isFileBacked() {
+        return bodyFile != null;
+    }
+
+    /**
+     * Write the pre-encoded response body straight to the given stream
+     */
+    public void writeBody(OutputStream out) throws IOException {
+        if (contentLength > 0) {
+            writeBody(out, 0, contentLength);
+        }
+    }
+
+    /**
+     * Write a slice of the pre-encoded body, used for range requests and when trickling
+     * it out at a capped rate. File-backed bodies are copied out of the mapping through a
+     * small chunk buffer, so heap use does not grow with the file.
+     */
+    public void writeBody(OutputStream out, int offset, int length) throws IOException {
+        if (bodyFile == null) {
+            out.write(body, offset, length);
+            return;
+        }
+        ByteBuffer source = getDirectBody().position(offset).limit(offset + length);
+        byte[] chunk = new byte[Math.min(length, FILE_CHUNK_SIZE)];
+        while (source.hasRemaining()) {
+            int n = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    /**
+     * Read-only view of the body in a direct buffer, allocated on first use, that a
+     * non-blocking server can hand to the socket without copying it
+     */
+    public ByteBuffer getDirectBody() {
+        ByteBuffer buffer = directBody;
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(contentLength).put(body).flip().asReadOnlyBuffer();
+            directBody = buffer;
+        }
+        return buffer.duplicate();
+    }
+
+    EncodedBody getEncodedBody(ContentEncoding encoding) {
+        return encodedBodies.get(encoding.ordinal());
+    }
+
+    /**
+     * Cache a variant unless one was cached concurrently; returns whether this one was stored
+     */
+    boolean cacheEncodedBody(ContentEncoding encoding, EncodedBody body) {
+        return encodedBodies.compareAndSet(encoding.ordinal(), null, body);
+    }
+
+    /**
+     * Whether responses are delayed or throttled by a latency profile
+     */
+    public boolean isDelayed() {
+        return latency != null;
+    }
+
+    /**
+     * Render the body with only captured path variables available
+     */
+    public byte[] renderBody(Map<String, String> pathVariables) {
+        return renderBody(MockRequest.EMPTY, pathVariables);
+    }
+
+    /**
+     * Render the body for a request into a new array sized exactly to the result
+     */
+    public byte[] renderBody(MockRequest request, Map<String, String> pathVariables) {
+        if (template == null) {
+            return body.clone();
+        }
+        RenderBuffer buffer = RenderBuffer.acquire();
+        try {
+            template.render(request, pathVariables, buffer);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            // The buffer itself never throws; only a failing request accessor could
+            throw new UncheckedIOException("Failed to render body of " + path, e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Render the body for a request straight into the given stream, segment by segment
+     */
+    public void renderBody(MockRequest request, Map<String, String> pathVariables, OutputStream out)
+            throws IOException {
+        if (template == null) {
+            writeBody(out);
+            return;
+        }
+        template.render(request, pathVariables, out);
+    }
+
+    /**
+     * Expected size of a rendered body, for sizing output buffers
+     */
+    public int estimateRenderedSize() {
+        return template != null ? template.estimateSize() : contentLength;
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Body file larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map body file " + file, e);
+        }
+    }
+
+    /**
+     * Strong validator from size and modification time, so huge files are not hashed
+     */
+    private static String fileETag(Path file, int size) {
+        try {
+            return "\"f" + Integer.toHexString(size) + "-"
+                    + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read body file " + file, e);
+        }
+    }
+
+}
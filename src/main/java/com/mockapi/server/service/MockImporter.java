@@ -0,0 +1,93 @@
+package com.mockapi.server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk registration of mocks from a JSON array or newline-delimited JSON of endpoint
+ * definitions ({@link EndpointTemplate} fields). The input is parsed as a stream, one
+ * definition at a time, and the whole batch is applied in a single atomic swap: requests
+ * see the registry before or after the import, never halfway, and an invalid definition
+ * rejects the batch without changing anything.
+ */
+@Service
+public class MockImporter {
+
+    private static final ObjectReader READER = new ObjectMapper().readerFor(EndpointTemplate.class);
+
+    private final MockService mockService;
+
+    public MockImporter(MockService mockService) {
+        this.mockService = mockService;
+    }
+
+    /**
+     * Import every definition in the stream, replacing the whole registry if
+     * {@code replace} is set and adding to it otherwise. Throws IllegalArgumentException
+     * naming the offending definition if any is malformed or invalid.
+     */
+    public ImportResult importMocks(InputStream input, boolean replace) throws IOException {
+        long start = System.nanoTime();
+        List<MockEndpoint> endpoints = new ArrayList<>();
+        // Root-level values (NDJSON) and the elements of a root-level array read alike
+        try (MappingIterator<EndpointTemplate> templates = READER.readValues(input)) {
+            while (true) {
+                EndpointTemplate template;
+                try {
+                    if (!templates.hasNextValue()) {
+                        break;
+                    }
+                    template = templates.nextValue();
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Mock #" + (endpoints.size() + 1) + ": "
+                            + e.getOriginalMessage() + " at line " + e.getLocation().getLineNr(), e);
+                }
+                endpoints.add(toEndpoint(template, "Mock #" + (endpoints.size() + 1)));
+            }
+        }
+
+        if (replace) {
+            mockService.replaceAllMocks(endpoints);
+        } else {
+            mockService.addMocks(endpoints);
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        System.out.println("📥 Imported " + endpoints.size() + " mocks in " + elapsedNanos / 1_000_000 + " ms");
+        return new ImportResult(endpoints.size(), mockService.getMocksList().size(), replace,
+                elapsedNanos / 1_000_000, endpoints.size() * 1_000_000_000L / elapsedNanos);
+    }
+
+    /**
+     * Validate a definition and build its endpoint; errors start with the given label
+     */
+    static MockEndpoint toEndpoint(EndpointTemplate template, String label) {
+        String path = template.getPath();
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException(label + ": path must start with '/'");
+        }
+        if (MockService.isAdminPath(path)) {
+            throw new IllegalArgumentException(label + ": " + MockService.ADMIN_PATH
+                    + " is reserved for the admin API");
+        }
+        if (RouteTable.resolveMethod(template.getMethod()) == null) {
+            throw new IllegalArgumentException(label + ": unsupported method " + template.getMethod());
+        }
+        if (template.getStatusCode() == 0) {
+            template.setStatusCode(200);
+        }
+        try {
+            return new MockEndpoint(template);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            throw new IllegalArgumentException(label + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Reply a mock consumer sends to RPC requests matching its conditions, the AMQP
+ * counterpart of a mock endpoint variant. Conditions and response placeholders see AMQP
+ * headers and properties ({@code correlation-id}, {@code reply-to}, {@code message-id},
+ * {@code content-type}, {@code type}, {@code app-id}, {@code routing-key}) as request
+ * headers; there are no query parameters. The latency's bandwidth limit does not apply.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MockReply {
+    private List<MatchCondition> conditions;
+    private String response;
+    private String contentType = "application/json";
+    /**
+     * Delay before replying, or null to reply at once
+     */
+    private LatencyProfile latency;
+
+    public MockReply(String response) {
+        this(null, response, "application/json", null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mockapi.server.service;
+
+/**
+ * Read-only view of an incoming request used to select between mock variants.
+ * Implementations should resolve each part lazily, so a request whose candidates
+ * only test headers never has its body read or parsed.
+ */
+public interface MockRequest {
+
+    /**
+     * Request without headers, query parameters or body; only unconditional mocks match it
+     */
+    MockRequest EMPTY = new MockRequest() {
+        @Override
+        public String getHeader(String name) {
+            return null;
+        }
+
+        @Override
+        public String getQueryParam(String name) {
+            return null;
+        }
+
+        @Override
+        public String getBody() {
+            return null;
+        }
+    };
+
+    String getHeader(String name);
+
+    String getQueryParam(String name);
+
+    String getBody();
+
+    /**
+     * Body parsed for JSONPath evaluation, or null when it is missing or not JSON.
+     * Implementations may cache the parsed document for the lifetime of the request.
+     */
+    default Object getJsonBody() {
+        return RequestCondition.parseJson(getBody());
+    }
+}
@@ -1,16 +1,61 @@
 package com.mockapi.server.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestMethod;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of mock endpoints. Changes are serialized and, when persistence is enabled,
+ * recorded in the {@link MockStore} in the order they were applied; the registry is
+ * restored from it on startup. Mocks registered as not persistent, e.g. those built from a
+ * watched template directory, are served but never written to the store.
+ */
 @Service
 public class MockService {
 
-    private final Map<String, MockEndpoint> mockEndpoints = new ConcurrentHashMap<>();
+    /** Path prefix reserved for the admin API; never served from the mock registry */
+    public static final String ADMIN_PATH = "/__admin";
+
+    private final RouteTable routeTable = new RouteTable();
+    private final Map<String, Scenario> scenarios = new ConcurrentHashMap<>();
+    private final ResourceStore resourceStore = new ResourceStore();
+    private final BodyCompressor compressor;
+    private final MockStore store;
+    // Guarded by this; identity matters, as a stored mock may be an equal variant
+    private final Set<MockEndpoint> unpersisted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public MockService() {
+        this(new BodyCompressor(1024, 256));
+    }
+
+    public MockService(BodyCompressor compressor) {
+        this(compressor, MockStore.disabled());
+    }
+
+    @Autowired
+    public MockService(BodyCompressor compressor, MockStore store) {
+        this.compressor = compressor;
+        this.store = store;
+        List<MockEndpoint> recovered = store.recover();
+        recovered.forEach(this::bindScenario);
+        routeTable.replaceAll(recovered);
+    }
+
+    /**
+     * Whether the path lies under {@link #ADMIN_PATH}; such paths can't be registered
+     */
+    public static boolean isAdminPath(String path) {
+        return path != null && (path.equals(ADMIN_PATH) || path.startsWith(ADMIN_PATH + "/"));
+    }
 
     public void addMock(String path, String method, String response) {
         addMock(path, method, 200, response, "application/json");
@@ -21,30 +66,229 @@ public class MockService {
     }
 
     public void addMock(String path, String method, int statusCode, String response, String contentType) {
-        mockEndpoints.put(path + "_" + method, new MockEndpoint(path, method, statusCode, response, contentType));
+        addMock(new MockEndpoint(path, method, statusCode, response, contentType));
+    }
+
+    /**
+     * Register an endpoint; it replaces any variant of the same route with identical conditions.
+     * Throws IllegalArgumentException for an unsupported method or a path under {@link #ADMIN_PATH}.
+     */
+    public synchronized void addMock(MockEndpoint endpoint) {
+        bindScenario(endpoint);
+        routeTable.put(endpoint);
+        store.added(List.of(endpoint));
+        snapshotIfDue();
+    }
+
+    /**
+     * Register an endpoint that serves the given file, memory-mapped, as its body
+     */
+    public void addFileMock(String path, String method, int statusCode, Path bodyFile, String contentType) {
+        addMock(new MockEndpoint(path, method, statusCode, null, contentType, null, null, bodyFile));
+    }
+
+    /**
+     * Register the endpoint described by a template, including its match conditions,
+     * latency profile, body file, scenario rule and resource binding
+     */
+    public void addMock(EndpointTemplate template) {
+        addMock(new MockEndpoint(template));
     }
 
     public String getMockResponse(String path, String method) {
-        MockEndpoint mock = mockEndpoints.get(path + "_" + method);
+        MockEndpoint mock = getMockEndpoint(path, method);
         return mock != null ? mock.getResponse() : null;
     }
 
     public MockEndpoint getMockEndpoint(String path, String method) {
-        return mockEndpoints.get(path + "_" + method);
+        return routeTable.get(RouteTable.resolveMethod(method), path);
+    }
+
+    /**
+     * Allocation-free lookup of a route's unconditional endpoint
+     */
+    public MockEndpoint getMockEndpoint(RequestMethod method, String path) {
+        return routeTable.get(method, path);
+    }
+
+    /**
+     * Resolve a request path against exact routes first, then path templates
+     * ({@code /users/{id}}, {@code /files/**}), capturing any path variables
+     */
+    public RouteMatch match(RequestMethod method, String path) {
+        return match(method, path, MockRequest.EMPTY);
+    }
+
+    /**
+     * Resolve the route and pick the most specific variant whose match conditions
+     * (headers, query parameters, body predicates) the request satisfies and whose
+     * scenario is in the required state, then apply the variant's scenario transition
+     */
+    public RouteMatch match(RequestMethod method, String path, MockRequest request) {
+        while (true) {
+            RouteMatch match = routeTable.match(method, path, request);
+            // A variant whose scenario moved on before its transition applied is re-selected
+            if (match == null || match.getEndpoint().advanceScenario()) {
+                return match;
+            }
+        }
+    }
+
+    /**
+     * Answer a request for a resource endpoint from its stateful collection
+     */
+    public ResourceStore.Result applyResource(RequestMethod method, RouteMatch match, MockRequest request) {
+        return resourceStore.apply(match.getEndpoint(), method, match.getPathVariables(), request);
+    }
+
+    /**
+     * Current state of every scenario referenced by a registered mock
+     */
+    public List<Scenario> getScenarios() {
+        return List.copyOf(scenarios.values());
+    }
+
+    /**
+     * The named scenario, or null if no mock has referenced it
+     */
+    public Scenario getScenario(String name) {
+        return scenarios.get(name);
+    }
+
+    /**
+     * Put every scenario back in its {@link Scenario#STARTED} state and empty the resource collections
+     */
+    public void resetScenarios() {
+        scenarios.values().forEach(Scenario::reset);
+        resourceStore.clear();
+    }
+
+    /**
+     * Whether any variant of the route has a body predicate or renders body fields, so
+     * non-blocking callers only buffer request bodies that will actually be read
+     */
+    public boolean readsBody(RequestMethod method, String path) {
+        return routeTable.readsBody(method, path);
+    }
+
+    /**
+     * Whether the endpoint's responses may be compressed and so vary by Accept-Encoding
+     */
+    public boolean isCompressible(MockEndpoint endpoint) {
+        return compressor.isCandidate(endpoint);
+    }
+
+    /**
+     * The endpoint's body in the given coding, compressed once on first use and cached;
+     * null when it is better sent uncompressed
+     */
+    public EncodedBody getEncodedBody(MockEndpoint endpoint, ContentEncoding encoding) {
+        return compressor.encode(endpoint, encoding);
     }
 
     public List<MockEndpoint> getMocksList() {
-        return new ArrayList<>(mockEndpoints.values());
+        return routeTable.values();
     }
 
-    public boolean removeMock(String path, String method) {
-        String key = path + "_" + method;
-        MockEndpoint removed = mockEndpoints.remove(key);
-        return removed != null;
+    /**
+     * Remove the route together with all of its variants
+     */
+    public synchronized boolean removeMock(String path, String method) {
+        boolean removed = routeTable.remove(RouteTable.resolveMethod(method), path);
+        if (removed) {
+            store.removedRoute(method, path);
+            snapshotIfDue();
+        }
+        return removed;
     }
 
-    public void clearAllMocks() {
-        mockEndpoints.clear();
+    /**
+     * Remove a single variant of a route
+     */
+    public synchronized boolean removeMock(MockEndpoint endpoint) {
+        boolean removed = routeTable.remove(endpoint);
+        if (removed) {
+            store.removedVariant(endpoint);
+            snapshotIfDue();
+        }
+        return removed;
     }
-}
 
+    /**
+     * Replace the whole registry with the given endpoints in one atomic swap; requests
+     * see either the old set or the new one, never a partially loaded table. Throws
+     * IllegalArgumentException, leaving the registry untouched, if any endpoint is invalid.
+     */
+    public synchronized void replaceAllMocks(Collection<MockEndpoint> endpoints) {
+        endpoints.forEach(this::bindScenario);
+        routeTable.replaceAll(endpoints);
+        unpersisted.clear();
+        store.snapshot(endpoints);
+    }
+
+    /**
+     * Add a batch of endpoints in one atomic swap; a batch endpoint replaces any existing
+     * variant of the same route with identical conditions. Throws IllegalArgumentException,
+     * leaving the registry untouched, if any endpoint is invalid.
+     */
+    public synchronized void addMocks(Collection<MockEndpoint> endpoints) {
+        endpoints.forEach(this::bindScenario);
+        routeTable.putAll(endpoints);
+        store.added(endpoints);
+        snapshotIfDue();
+    }
+
+    /**
+     * Remove and add individual variants in one atomic swap, e.g. the difference between
+     * two versions of a template file; only the affected methods' routes are rebuilt. Throws
+     * IllegalArgumentException, leaving the registry untouched, if an added endpoint is invalid.
+     */
+    public void updateMocks(Collection<MockEndpoint> removed, Collection<MockEndpoint> added) {
+        updateMocks(removed, added, true);
+    }
+
+    /**
+     * As {@link #updateMocks(Collection, Collection)}; mocks that are not persistent are
+     * left out of the store, so mocks owned by another source of truth, such as a template
+     * directory, are rebuilt from it on startup instead of restored stale
+     */
+    public synchronized void updateMocks(Collection<MockEndpoint> removed, Collection<MockEndpoint> added,
+                                         boolean persistent) {
+        added.forEach(this::bindScenario);
+        routeTable.update(removed, added);
+        if (persistent) {
+            removed.forEach(store::removedVariant);
+            store.added(added);
+            snapshotIfDue();
+        } else {
+            removed.forEach(unpersisted::remove);
+            unpersisted.addAll(added);
+        }
+    }
+
+    public synchronized void clearAllMocks() {
+        routeTable.clear();
+        scenarios.clear();
+        resourceStore.clear();
+        unpersisted.clear();
+        store.snapshot(List.of());
+    }
+
+    /**
+     * Compact the store's log into a snapshot of the current registry once it has grown
+     */
+    private void snapshotIfDue() {
+        if (store.isSnapshotDue()) {
+            List<MockEndpoint> endpoints = routeTable.values();
+            endpoints.removeIf(unpersisted::contains);
+            store.snapshot(endpoints);
+        }
+    }
+
+    private void bindScenario(MockEndpoint endpoint) {
+        ScenarioRule rule = endpoint.getScenario();
+        if (rule != null) {
+            endpoint.bindScenario(scenarios.computeIfAbsent(rule.getName(), Scenario::new));
+        }
+    }
+}
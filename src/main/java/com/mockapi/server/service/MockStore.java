@@ -0,0 +1,508 @@
+package com.mockapi.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable copy of the mock registry: a compact binary snapshot plus an append-only log
+ * of the registrations and removals made since. Every {@code snapshot-every} log
+ * records, and whenever the whole registry is replaced or cleared, a new snapshot is
+ * written and the log starts over, so recovery only replays a short tail.
+ * <p>
+ * Files of one generation N are {@code snapshot-N.bin} and {@code wal-N.log}. A snapshot
+ * is written to a temporary file and renamed into place, so it is either complete or
+ * absent. Log records carry a CRC; a record torn by a crash ends the replay and is cut
+ * off. Startup memory-maps the latest snapshot and decodes it straight from the mapping.
+ * <p>
+ * Scenario states and resource collections are runtime state and are not persisted.
+ */
+@Component
+public class MockStore implements AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x4D4B5331;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String LOG_PREFIX = "wal-";
+    private static final String LOG_SUFFIX = ".log";
+
+    // Log record types
+    private static final byte ADD = 1;
+    private static final byte REMOVE_ROUTE = 2;
+    private static final byte REMOVE_VARIANT = 3;
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final boolean fsync;
+    private long generation;
+    private FileChannel log;
+    private int loggedRecords;
+
+    public MockStore(@Value("${mockapi.persistence.dir:}") String directory,
+                     @Value("${mockapi.persistence.snapshot-every:10000}") int snapshotEvery,
+                     @Value("${mockapi.persistence.fsync:false}") boolean fsync) {
+        this.directory = directory != null && !directory.isBlank() ? Path.of(directory) : null;
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+        this.fsync = fsync;
+    }
+
+    /**
+     * A store that persists nothing
+     */
+    public static MockStore disabled() {
+        return new MockStore(null, 0, false);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Load the latest snapshot and replay the log written after it, then open the log
+     * for appending. Returns the recovered endpoints in registration order. Throws
+     * IllegalStateException if the snapshot is corrupt rather than start empty and
+     * overwrite it.
+     */
+    public synchronized List<MockEndpoint> recover() {
+        if (directory == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            generation = latestGeneration();
+            Map<String, List<MockEndpoint>> routes = new LinkedHashMap<>();
+            Path snapshot = file(SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX);
+            int restored = Files.exists(snapshot) ? readSnapshot(snapshot, routes) : 0;
+            log = FileChannel.open(file(LOG_PREFIX, generation, LOG_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loggedRecords = replay(routes);
+            deleteOtherGenerations();
+
+            List<MockEndpoint> endpoints = new ArrayList<>();
+            routes.values().forEach(endpoints::addAll);
+            System.out.println("💾 Restored " + endpoints.size() + " mocks (snapshot " + restored + ", log "
+                    + loggedRecords + " records) in " + (System.nanoTime() - start) / 1_000_000 + " ms from "
+                    + directory);
+            return endpoints;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover mock registry from " + directory, e);
+        }
+    }
+
+    public synchronized void added(Collection<MockEndpoint> endpoints) {
+        if (log == null || endpoints.isEmpty()) {
+            return;
+        }
+        Encoder record = new Encoder();
+        record.writeByte(ADD);
+        record.writeInt(endpoints.size());
+        for (MockEndpoint endpoint : endpoints) {
+            record.endpoint(endpoint);
+        }
+        append(record);
+    }
+
+    public synchronized void removedRoute(String method, String path) {
+        if (log == null) {
+            return;
+        }
+        Encoder record = new Encoder();
+        record.writeByte(REMOVE_ROUTE);
+        record.string(method);
+        record.string(path);
+        append(record);
+    }
+
+    public synchronized void removedVariant(MockEndpoint endpoint) {
+        if (log == null) {
+            return;
+        }
+        Encoder record = new Encoder();
+        record.writeByte(REMOVE_VARIANT);
+        record.endpoint(endpoint);
+        append(record);
+    }
+
+    /**
+     * Whether enough has been logged since the last snapshot to compact
+     */
+    public synchronized boolean isSnapshotDue() {
+        return log != null && loggedRecords >= snapshotEvery;
+    }
+
+    /**
+     * Write the given registry contents as the next generation's snapshot and start an
+     * empty log for it
+     */
+    public synchronized void snapshot(Collection<MockEndpoint> endpoints) {
+        if (log == null) {
+            return;
+        }
+        long next = generation + 1;
+        Path target = file(SNAPSHOT_PREFIX, next, SNAPSHOT_SUFFIX);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            writeSnapshot(temporary, next, endpoints);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel nextLog = FileChannel.open(file(LOG_PREFIX, next, LOG_SUFFIX), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            log.close();
+            log = nextLog;
+            generation = next;
+            loggedRecords = 0;
+            deleteOtherGenerations();
+        } catch (IOException e) {
+            System.out.println("❌ Failed to write mock registry snapshot: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private void append(Encoder record) {
+        byte[] payload = record.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        try {
+            while (frame.hasRemaining()) {
+                log.write(frame);
+            }
+            if (fsync) {
+                log.force(false);
+            }
+            loggedRecords++;
+        } catch (IOException e) {
+            System.out.println("❌ Failed to persist mock change: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(Path file, long snapshotGeneration, Collection<MockEndpoint> endpoints)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshotGeneration);
+            out.writeInt(endpoints.size());
+            Encoder record = new Encoder();
+            for (MockEndpoint endpoint : endpoints) {
+                record.reset();
+                record.endpoint(endpoint);
+                record.writeTo(out);
+            }
+            // The checksum covers everything written before it
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private int readSnapshot(Path file, Map<String, List<MockEndpoint>> routes) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 28 || buffer.getInt(0) != SNAPSHOT_MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a mock registry snapshot: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, buffer.capacity() - 8));
+        if (crc.getValue() != buffer.getLong(buffer.capacity() - 8)) {
+            throw new IllegalStateException("Corrupt mock registry snapshot: " + file);
+        }
+        buffer.position(16);
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            add(routes, Decoder.endpoint(buffer));
+        }
+        return count;
+    }
+
+    /**
+     * Apply the log's intact records and cut off a torn one at the end; returns the
+     * number of records applied
+     */
+    private int replay(Map<String, List<MockEndpoint>> routes) throws IOException {
+        long size = log.size();
+        if (size == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int records = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 8) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            apply(routes, payload);
+            buffer.position(buffer.position() + length);
+            records++;
+        }
+        if (buffer.position() < size) {
+            System.out.println("⚠️ Dropping " + (size - buffer.position()) + " bytes of incomplete mock log");
+            log.truncate(buffer.position());
+        }
+        log.position(buffer.position());
+        return records;
+    }
+
+    private static void apply(Map<String, List<MockEndpoint>> routes, ByteBuffer record) {
+        byte type = record.get();
+        switch (type) {
+            case ADD -> {
+                int count = record.getInt();
+                for (int i = 0; i < count; i++) {
+                    add(routes, Decoder.endpoint(record));
+                }
+            }
+            case REMOVE_ROUTE -> {
+                String method = Decoder.string(record);
+                routes.remove(routeKey(method, Decoder.string(record)));
+            }
+            case REMOVE_VARIANT -> {
+                MockEndpoint endpoint = Decoder.endpoint(record);
+                List<MockEndpoint> variants = endpoint != null
+                        ? routes.get(routeKey(endpoint.getMethod(), endpoint.getPath())) : null;
+                if (variants != null) {
+                    variants.removeIf(endpoint::isSameVariant);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown mock log record type " + type);
+        }
+    }
+
+    private static void add(Map<String, List<MockEndpoint>> routes, MockEndpoint endpoint) {
+        if (endpoint == null) {
+            return;
+        }
+        List<MockEndpoint> variants = routes.computeIfAbsent(routeKey(endpoint.getMethod(), endpoint.getPath()),
+                key -> new ArrayList<>(1));
+        variants.removeIf(endpoint::isSameVariant);
+        variants.add(endpoint);
+    }
+
+    private static String routeKey(String method, String path) {
+        return method.toUpperCase(Locale.ROOT) + ' ' + path;
+    }
+
+    private long latestGeneration() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> generationOf(file.getFileName().toString(), SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX))
+                    .filter(found -> found >= 0)
+                    .max(Long::compare)
+                    .orElse(0L);
+        }
+    }
+
+    /**
+     * Remove files of every generation but the current one, and leftover temporary files
+     */
+    private void deleteOtherGenerations() throws IOException {
+        List<Path> stale;
+        try (Stream<Path> files = Files.list(directory)) {
+            stale = files.filter(file -> {
+                String name = file.getFileName().toString();
+                long found = Math.max(generationOf(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX),
+                        generationOf(name, LOG_PREFIX, LOG_SUFFIX));
+                return name.endsWith(".tmp") || (found >= 0 && found != generation);
+            }).toList();
+        }
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long generationOf(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Path file(String prefix, long fileGeneration, String suffix) {
+        return directory.resolve(prefix + fileGeneration + suffix);
+    }
+
+    /**
+     * Binary form of an endpoint definition: strings are a length (-1 for null) and UTF-8
+     * bytes, optional parts are preceded by a presence byte
+     */
+    private static final class Encoder extends ByteArrayOutputStream {
+
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        void endpoint(MockEndpoint endpoint) {
+            string(endpoint.getPath());
+            string(endpoint.getMethod());
+            writeInt(endpoint.getStatusCode());
+            string(endpoint.getResponse());
+            string(endpoint.getContentType());
+            writeInt(endpoint.getConditions().size());
+            for (MatchCondition condition : endpoint.getConditions()) {
+                writeByte(condition.getType() != null ? condition.getType().ordinal() : -1);
+                string(condition.getName());
+                string(condition.getValue());
+            }
+            LatencyProfile latency = endpoint.getLatency();
+            writeByte(latency != null ? 1 : 0);
+            if (latency != null) {
+                writeByte(latency.getType() != null ? latency.getType().ordinal() : -1);
+                writeLong(latency.getFixedMs());
+                writeLong(latency.getMinMs());
+                writeLong(latency.getMaxMs());
+                writeLong(latency.getP50Ms());
+                writeLong(latency.getP99Ms());
+                writeLong(latency.getBytesPerSecond());
+            }
+            string(endpoint.getBodyFile() != null ? endpoint.getBodyFile().toString() : null);
+            ScenarioRule scenario = endpoint.getScenario();
+            writeByte(scenario != null ? 1 : 0);
+            if (scenario != null) {
+                string(scenario.getName());
+                string(scenario.getRequiredState());
+                string(scenario.getNewState());
+                writeInt(scenario.getTimes());
+            }
+            string(endpoint.getResource());
+        }
+
+        void string(String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        void writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Decoder {
+
+        private static final MatchCondition.Type[] CONDITION_TYPES = MatchCondition.Type.values();
+        private static final LatencyProfile.Type[] LATENCY_TYPES = LatencyProfile.Type.values();
+
+        /**
+         * Decode one endpoint definition; returns null, after consuming it, for a
+         * definition that no longer registers (e.g. its body file is gone, or its path is
+         * now reserved), so one stale record never stops startup
+         */
+        static MockEndpoint endpoint(ByteBuffer in) {
+            EndpointTemplate template = new EndpointTemplate();
+            template.setPath(string(in));
+            template.setMethod(string(in));
+            template.setStatusCode(in.getInt());
+            template.setResponse(string(in));
+            template.setContentType(string(in));
+            int conditionCount = in.getInt();
+            List<MatchCondition> conditions = new ArrayList<>(conditionCount);
+            for (int i = 0; i < conditionCount; i++) {
+                byte type = in.get();
+                conditions.add(new MatchCondition(type >= 0 ? CONDITION_TYPES[type] : null, string(in), string(in)));
+            }
+            template.setConditions(conditions);
+            if (in.get() != 0) {
+                byte type = in.get();
+                template.setLatency(new LatencyProfile(type >= 0 ? LATENCY_TYPES[type] : null, in.getLong(),
+                        in.getLong(), in.getLong(), in.getLong(), in.getLong(), in.getLong()));
+            }
+            template.setBodyFile(string(in));
+            if (in.get() != 0) {
+                template.setScenario(new ScenarioRule(string(in), string(in), string(in), in.getInt()));
+            }
+            template.setResource(string(in));
+            try {
+                MockEndpoint endpoint = new MockEndpoint(template);
+                RouteTable.validate(endpoint);
+                return endpoint;
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                System.out.println("⚠️ Skipping stored mock " + template.getMethod() + " " + template.getPath()
+                        + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        static String string(ByteBuffer in) {
+            int length = in.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.mockapi.server.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates mocks and templates from OpenAPI 3 (and Swagger 2) documents in JSON or YAML.
+ * The document is read as a token stream: each operation under {@code paths} is captured
+ * as its own small tree and only the sections needed to resolve {@code $ref}s are kept, so
+ * the whole document is never bound at once. Once it has been read, operations are turned
+ * into endpoints in parallel and registered in one atomic batch.
+ * <p>
+ * Each operation answers with its lowest 2xx response (or {@code default}). The body is the
+ * response's example when it has one and is otherwise generated from its schema. Path
+ * parameters become route templates, and the generated templates are added to the template
+ * library under the operation's first tag.
+ */
+@Service
+public class OpenApiImporter {
+
+    private static final Set<String> METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+    /** Top-level sections kept for server URLs, naming and $ref lookups */
+    private static final Set<String> KEPT_SECTIONS = Set.of("openapi", "swagger", "info", "servers", "basePath",
+            "components", "definitions", "parameters", "responses");
+    private static final int MAX_DEPTH = 10;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectWriter PRETTY_WRITER = OBJECT_MAPPER.writerWithDefaultPrettyPrinter();
+    private static final JsonFactory YAML_FACTORY = YAMLFactory.builder().loaderOptions(largeDocuments()).build();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final MockService mockService;
+    private final TemplateService templateService;
+
+    public OpenApiImporter(MockService mockService, TemplateService templateService) {
+        this.mockService = mockService;
+        this.templateService = templateService;
+    }
+
+    private static LoaderOptions largeDocuments() {
+        LoaderOptions options = new LoaderOptions();
+        // SnakeYAML stops at 3 MB by default
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        return options;
+    }
+
+    /**
+     * Import every operation in the spec, replacing the whole registry if {@code replace}
+     * is set and adding to it otherwise. Paths are prefixed with {@code basePath} when given,
+     * or else with the path of the spec's first server URL. Throws IllegalArgumentException
+     * if the document is malformed or an operation cannot be served.
+     */
+    public ImportResult importSpec(InputStream input, boolean replace, String basePath) throws IOException {
+        long start = System.nanoTime();
+        Spec spec = read(input);
+        String prefix = basePath != null ? trimPath(basePath) : spec.serverPath();
+
+        List<Generated> generated = spec.operations.parallelStream()
+                .map(operation -> generate(spec, operation, prefix))
+                .toList();
+
+        List<MockEndpoint> endpoints = new ArrayList<>(generated.size());
+        Map<String, TemplateCategory> categories = new LinkedHashMap<>();
+        for (Generated operation : generated) {
+            endpoints.add(operation.endpoint);
+            categories.computeIfAbsent(operation.category, name -> new TemplateCategory(name, new ArrayList<>()))
+                    .getEndpoints().add(operation.template);
+        }
+        if (replace) {
+            mockService.replaceAllMocks(endpoints);
+        } else {
+            mockService.addMocks(endpoints);
+        }
+        templateService.putTemplates("openapi:" + spec.title(), List.copyOf(categories.values()));
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        System.out.println("📥 Imported " + endpoints.size() + " operations from " + spec.title() + " in "
+                + elapsedNanos / 1_000_000 + " ms");
+        return new ImportResult(endpoints.size(), mockService.getMocksList().size(), replace,
+                elapsedNanos / 1_000_000, endpoints.size() * 1_000_000_000L / elapsedNanos);
+    }
+
+    private static Spec read(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        JsonFactory factory = startsWithBrace(buffered) ? OBJECT_MAPPER.getFactory() : YAML_FACTORY;
+        Spec spec = new Spec();
+        try (JsonParser parser = factory.createParser(buffered)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("OpenAPI document must be an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("paths".equals(field) && value == JsonToken.START_OBJECT) {
+                    readPaths(parser, spec.operations);
+                } else if (KEPT_SECTIONS.contains(field)) {
+                    spec.root.set(field, OBJECT_MAPPER.readTree(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid OpenAPI document: " + e.getOriginalMessage()
+                    + (e.getLocation() != null ? " at line " + e.getLocation().getLineNr() : ""), e);
+        }
+        if (!spec.root.has("openapi") && !spec.root.has("swagger")) {
+            throw new IllegalArgumentException("Not an OpenAPI document: no 'openapi' or 'swagger' version field");
+        }
+        return spec;
+    }
+
+    /**
+     * JSON specs are read with the much faster JSON parser; anything else is parsed as YAML
+     */
+    private static boolean startsWithBrace(BufferedInputStream input) throws IOException {
+        input.mark(4096);
+        try {
+            for (int i = 0, b; i < 4096 && (b = input.read()) >= 0; i++) {
+                if (!Character.isWhitespace(b) && b != 0xEF && b != 0xBB && b != 0xBF) {
+                    return b == '{';
+                }
+            }
+            return false;
+        } finally {
+            input.reset();
+        }
+    }
+
+    private static void readPaths(JsonParser parser, List<Operation> operations) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String method = parser.currentName().toLowerCase(Locale.ROOT);
+                parser.nextToken();
+                if (METHODS.contains(method)) {
+                    operations.add(new Operation(path, method.toUpperCase(Locale.ROOT), OBJECT_MAPPER.readTree(parser)));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static Generated generate(Spec spec, Operation operation, String prefix) {
+        String name = operation.method + " " + operation.path;
+        JsonNode node = operation.node;
+        int statusCode = 200;
+        String contentType = null;
+        String body = "";
+
+        Map.Entry<String, JsonNode> response = pickResponse(node.path("responses"));
+        if (response != null) {
+            statusCode = statusCode(response.getKey());
+            JsonNode resolved = spec.resolve(response.getValue());
+            Map.Entry<String, JsonNode> media = pickMedia(spec, resolved, node);
+            if (media != null) {
+                contentType = media.getKey();
+                JsonNode example = example(spec, media.getValue());
+                if (example != null) {
+                    body = example.isTextual() && !contentType.contains("json") ? example.asText() : write(example);
+                }
+            }
+        }
+
+        EndpointTemplate template = new EndpointTemplate(templateName(node, name), prefix + routePath(operation.path),
+                operation.method, statusCode, body, contentType);
+        JsonNode tags = node.path("tags");
+        String category = tags.isArray() && !tags.isEmpty() ? tags.get(0).asText() : spec.title();
+        return new Generated(category, template, MockImporter.toEndpoint(template, name));
+    }
+
+    private static String templateName(JsonNode operation, String fallback) {
+        String operationId = operation.path("operationId").asText("");
+        if (!operationId.isEmpty()) {
+            return operationId;
+        }
+        String summary = operation.path("summary").asText("");
+        return summary.isEmpty() ? fallback : summary;
+    }
+
+    /**
+     * OpenAPI {@code {param}} segments are already route templates; a parameter that covers
+     * only part of a segment ({@code {name}.json}) turns the segment into a wildcard
+     */
+    static String routePath(String path) {
+        if (path.indexOf('{') < 0) {
+            return path;
+        }
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean whole = segment.startsWith("{") && segment.endsWith("}") && segment.indexOf('{', 1) < 0;
+            if (!whole && segment.indexOf('{') >= 0) {
+                segments[i] = "*";
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private static Map.Entry<String, JsonNode> pickResponse(JsonNode responses) {
+        Map.Entry<String, JsonNode> best = null;
+        Map.Entry<String, JsonNode> fallback = null;
+        for (Iterator<Map.Entry<String, JsonNode>> it = responses.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            String code = entry.getKey();
+            if (code.startsWith("2") && (best == null || code.compareTo(best.getKey()) < 0)) {
+                best = entry;
+            } else if (fallback == null || "default".equals(code)) {
+                fallback = entry;
+            }
+        }
+        return best != null ? best : fallback;
+    }
+
+    private static int statusCode(String code) {
+        try {
+            return Integer.parseInt(code);
+        } catch (NumberFormatException e) {
+            // default, 2XX
+            return code.startsWith("2") || "default".equals(code) ? 200 : Integer.parseInt(code.charAt(0) + "00");
+        }
+    }
+
+    /**
+     * Preferred media type of the response: JSON if offered, else the first. Swagger 2
+     * responses carry their schema and examples directly.
+     */
+    private static Map.Entry<String, JsonNode> pickMedia(Spec spec, JsonNode response, JsonNode operation) {
+        JsonNode content = response.path("content");
+        if (content.isObject() && !content.isEmpty()) {
+            Map.Entry<String, JsonNode> first = null;
+            for (Iterator<Map.Entry<String, JsonNode>> it = content.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                if (entry.getKey().contains("json")) {
+                    return entry;
+                }
+                if (first == null) {
+                    first = entry;
+                }
+            }
+            return first;
+        }
+        if (response.has("schema") || response.has("examples")) {
+            JsonNode produces = operation.path("produces");
+            String type = produces.isArray() && !produces.isEmpty() ? produces.get(0).asText() : "application/json";
+            ObjectNode media = NODES.objectNode();
+            if (response.has("schema")) {
+                media.set("schema", response.get("schema"));
+            }
+            JsonNode example = response.path("examples").get(type);
+            if (example != null) {
+                media.set("example", example);
+            }
+            return Map.entry(type, media);
+        }
+        return null;
+    }
+
+    private static JsonNode example(Spec spec, JsonNode media) {
+        if (media.has("example")) {
+            return media.get("example");
+        }
+        JsonNode examples = media.path("examples");
+        if (examples.isObject() && !examples.isEmpty()) {
+            JsonNode first = spec.resolve(examples.elements().next());
+            if (first.has("value")) {
+                return first.get("value");
+            }
+        }
+        JsonNode schema = media.get("schema");
+        return schema != null && !schema.isMissingNode() ? sample(spec, schema, 0, new HashSet<>()) : null;
+    }
+
+    /**
+     * Sample value for a schema: its example, default or first enum value if it has one,
+     * otherwise built from its type. Recursive references are cut off after one expansion.
+     */
+    static JsonNode sample(Spec spec, JsonNode schema, int depth, Set<String> expanding) {
+        String ref = schema.path("$ref").asText(null);
+        if (ref != null) {
+            if (depth >= MAX_DEPTH || !expanding.add(ref)) {
+                return NODES.nullNode();
+            }
+            try {
+                return sample(spec, spec.resolve(schema), depth + 1, expanding);
+            } finally {
+                expanding.remove(ref);
+            }
+        }
+        if (schema.has("example")) {
+            return schema.get("example");
+        }
+        JsonNode examples = schema.path("examples");
+        if (examples.isArray() && !examples.isEmpty()) {
+            return examples.get(0);
+        }
+        if (schema.has("default")) {
+            return schema.get("default");
+        }
+        if (schema.path("enum").isArray() && !schema.path("enum").isEmpty()) {
+            return schema.get("enum").get(0);
+        }
+        if (schema.has("const")) {
+            return schema.get("const");
+        }
+        for (String choice : new String[]{"oneOf", "anyOf"}) {
+            JsonNode options = schema.path(choice);
+            if (options.isArray() && !options.isEmpty()) {
+                return sample(spec, options.get(0), depth + 1, expanding);
+            }
+        }
+        JsonNode allOf = schema.path("allOf");
+        if (allOf.isArray() && !allOf.isEmpty()) {
+            ObjectNode merged = NODES.objectNode();
+            for (JsonNode part : allOf) {
+                JsonNode value = sample(spec, part, depth + 1, expanding);
+                if (value.isObject()) {
+                    merged.setAll((ObjectNode) value);
+                }
+            }
+            if (schema.has("properties")) {
+                merged.setAll((ObjectNode) object(spec, schema, depth, expanding));
+            }
+            return merged;
+        }
+
+        JsonNode typeNode = schema.path("type");
+        // OpenAPI 3.1 allows a list of types
+        String type = typeNode.isArray() ? firstNonNull(typeNode) : typeNode.asText("");
+        if (type.isEmpty()) {
+            type = schema.has("properties") || schema.has("additionalProperties") ? "object"
+                    : schema.has("items") ? "array" : "";
+        }
+        String format = schema.path("format").asText("");
+        return switch (type) {
+            case "object" -> object(spec, schema, depth, expanding);
+            case "array" -> {
+                ArrayNode array = NODES.arrayNode();
+                JsonNode items = schema.get("items");
+                if (items != null && depth < MAX_DEPTH) {
+                    array.add(sample(spec, items, depth + 1, expanding));
+                }
+                yield array;
+            }
+            case "integer" -> NODES.numberNode(schema.path("minimum").asLong(0));
+            case "number" -> NODES.numberNode(schema.path("minimum").asDouble(0.0));
+            case "boolean" -> NODES.booleanNode(true);
+            case "string" -> NODES.textNode(sampleString(format));
+            default -> NODES.nullNode();
+        };
+    }
+
+    private static JsonNode object(Spec spec, JsonNode schema, int depth, Set<String> expanding) {
+        ObjectNode object = NODES.objectNode();
+        if (depth >= MAX_DEPTH) {
+            return object;
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = schema.path("properties").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> property = it.next();
+            object.set(property.getKey(), sample(spec, property.getValue(), depth + 1, expanding));
+        }
+        return object;
+    }
+
+    private static String firstNonNull(JsonNode types) {
+        for (JsonNode type : types) {
+            if (!"null".equals(type.asText())) {
+                return type.asText();
+            }
+        }
+        return "";
+    }
+
+    private static String sampleString(String format) {
+        return switch (format) {
+            case "date-time" -> "2024-01-01T00:00:00Z";
+            case "date" -> "2024-01-01";
+            case "time" -> "00:00:00";
+            case "uuid" -> "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+            case "email" -> "user@example.com";
+            case "uri", "url" -> "https://example.com";
+            case "ipv4" -> "192.168.0.1";
+            case "byte" -> "c3RyaW5n";
+            default -> "string";
+        };
+    }
+
+    private static String write(JsonNode value) {
+        try {
+            return PRETTY_WRITER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String trimPath(String path) {
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.isEmpty() || trimmed.startsWith("/") ? trimmed : "/" + trimmed;
+    }
+
+    /**
+     * The document as read: operations in order, and the top-level sections refs point into
+     */
+    static final class Spec {
+        private final ObjectNode root = NODES.objectNode();
+        private final List<Operation> operations = new ArrayList<>();
+
+        private String title() {
+            String title = root.path("info").path("title").asText("");
+            return title.isEmpty() ? "OpenAPI" : title;
+        }
+
+        /**
+         * Path of the first server URL (OpenAPI 3) or the base path (Swagger 2); empty when
+         * it is templated or absent
+         */
+        private String serverPath() {
+            String url = root.path("servers").path(0).path("url").asText(root.path("basePath").asText(""));
+            if (url.isEmpty() || url.indexOf('{') >= 0) {
+                return "";
+            }
+            try {
+                String path = url.startsWith("/") ? url : URI.create(url).getPath();
+                return path != null ? trimPath(path) : "";
+            } catch (IllegalArgumentException e) {
+                return "";
+            }
+        }
+
+        /**
+         * Follow local {@code $ref}s ({@code #/components/...}) until a concrete node is reached
+         */
+        JsonNode resolve(JsonNode node) {
+            for (int hops = 0; hops < MAX_DEPTH && node.has("$ref"); hops++) {
+                String ref = node.get("$ref").asText();
+                if (!ref.startsWith("#/")) {
+                    return NODES.objectNode();
+                }
+                node = root.at(ref.substring(1));
+            }
+            return node;
+        }
+    }
+
+    private record Operation(String path, String method, JsonNode node) {
+    }
+
+    private record Generated(String category, EndpointTemplate template, MockEndpoint endpoint) {
+    }
+}
@@ -0,0 +1,306 @@
+package com.mockapi.server.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes large message runs, e.g. to replay production traffic in load tests. Each run
+ * opens its own connection with several confirm-mode channels, one publishing thread each,
+ * that keep sending without waiting for individual confirms; the broker acknowledges in
+ * batches and a shared permit pool caps how many messages may await a confirm at once.
+ * <p>
+ * A bulk publish sends as fast as confirms allow. A load run instead paces the threads to
+ * a {@link LoadSchedule}, taking every n-th message of it in turn.
+ * <p>
+ * Runs are started asynchronously and report progress while they go.
+ */
+@Service
+public class RabbitBulkPublisher implements AutoCloseable {
+
+    private static final long CONFIRM_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long POLL_MILLIS = 100;
+    // Sleeping is too coarse for the last stretch before a message is due
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int KEPT_FINISHED_JOBS = 20;
+
+    private final RabbitVirtualHosts virtualHosts;
+    private final int defaultChannels;
+    private final int defaultMaxInFlight;
+    private final AtomicLong ids = new AtomicLong();
+    private final NavigableMap<Long, BulkPublishJob> jobs = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public RabbitBulkPublisher(RabbitVirtualHosts virtualHosts,
+                               @Value("${mockapi.rabbitmq.bulk.channels:4}") int channels,
+                               @Value("${mockapi.rabbitmq.bulk.max-in-flight:10000}") int maxInFlight) {
+        this.virtualHosts = virtualHosts;
+        this.defaultChannels = Math.max(1, channels);
+        this.defaultMaxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Validate the request, open its message source and start publishing in the background
+     */
+    public BulkPublishJob start(BulkPublishRequest request) throws IOException {
+        request.validate();
+        return start(request, request.openSource(), virtualHosts.connectionFactory(request.getVirtualHost()));
+    }
+
+    /**
+     * Validate the request and start publishing at its rate profile in the background
+     */
+    public BulkPublishJob startLoad(LoadTestRequest request) throws IOException {
+        return start(request);
+    }
+
+    BulkPublishJob start(BulkPublishRequest request, BulkMessageSource source, ConnectionFactory factory) {
+        BulkPublishJob job = request instanceof LoadTestRequest load
+                ? new BulkPublishJob(ids.incrementAndGet(), request.destination(), request.getVirtualHost(),
+                        LoadSchedule.totalMessages(load), load)
+                : new BulkPublishJob(ids.incrementAndGet(), request.destination(), request.getVirtualHost(),
+                        source.size());
+        jobs.put(job.getId(), job);
+        pruneFinishedJobs();
+        Thread.ofPlatform().daemon().name("rabbit-bulk-" + job.getId())
+                .start(() -> run(job, request, source, factory));
+        return job;
+    }
+
+    public BulkPublishJob getJob(long id) {
+        return jobs.get(id);
+    }
+
+    public List<BulkPublishJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    private void pruneFinishedJobs() {
+        long finished = jobs.values().stream().filter(BulkPublishJob::isDone).count();
+        for (BulkPublishJob job : jobs.values()) {
+            if (finished <= KEPT_FINISHED_JOBS) {
+                break;
+            }
+            if (job.isDone() && jobs.remove(job.getId()) != null) {
+                finished--;
+            }
+        }
+    }
+
+    private void run(BulkPublishJob job, BulkPublishRequest request, BulkMessageSource source, ConnectionFactory factory) {
+        int channelCount = request.getChannels() > 0 ? request.getChannels() : defaultChannels;
+        int maxInFlight = request.getMaxInFlight() > 0 ? request.getMaxInFlight() : defaultMaxInFlight;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        String exchange = request.hasExchange() ? request.getExchange() : "";
+        String routingKey = request.hasExchange()
+                ? (request.getRoutingKey() != null ? request.getRoutingKey() : "") : request.getQueue();
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(request.isJson() ? "application/json" : "text/plain")
+                .contentEncoding("UTF-8")
+                .deliveryMode(2)
+                .build();
+        LoadTestRequest load = request instanceof LoadTestRequest loadTest ? loadTest : null;
+        System.out.println("🐇 " + (load != null ? "Load run #" : "Bulk publish #") + job.getId() + " to "
+                + request.destination() + " started on " + channelCount + " channels, " + maxInFlight + " in flight"
+                + (load != null ? ", " + load.getRate() + " msg/s for " + load.getDurationSeconds() + " s" : ""));
+
+        try (source; Connection connection = factory.newConnection("mockapi-bulk-" + job.getId())) {
+            List<Channel> channels = new ArrayList<>();
+            List<ConfirmTracker> trackers = new ArrayList<>();
+            for (int i = 0; i < channelCount; i++) {
+                ConfirmTracker tracker = new ConfirmTracker();
+                channels.add(openChannel(connection, job, tracker, inFlight));
+                trackers.add(tracker);
+            }
+            long start = System.nanoTime();
+            job.scheduleStarted(start);
+            List<Thread> publishers = new ArrayList<>();
+            for (int i = 0; i < channelCount; i++) {
+                Publisher publisher = new Publisher(job, source, channels.get(i), trackers.get(i), inFlight,
+                        exchange, routingKey, properties);
+                if (load != null) {
+                    publisher.pace(new LoadSchedule(load), start, i, channelCount);
+                }
+                publishers.add(Thread.ofPlatform().daemon().name("rabbit-bulk-" + job.getId() + "-" + i)
+                        .start(publisher));
+            }
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+            awaitConfirms(job, inFlight, maxInFlight);
+        } catch (Exception e) {
+            job.fail(e);
+        } finally {
+            job.finish();
+            BulkPublishStats stats = job.getStats();
+            System.out.println((stats.getState() == BulkPublishJob.State.FAILED ? "❌" : "✅")
+                    + (load != null ? " Load run #" : " Bulk publish #") + job.getId() + " "
+                    + stats.getState().name().toLowerCase(Locale.ROOT) + ": " + stats.getConfirmed() + " confirmed, "
+                    + stats.getFailed() + " failed in " + stats.getElapsedMillis() + " ms ("
+                    + stats.getMessagesPerSecond() + " msg/s" + (load != null ? " of " + stats.getTargetRate() : "")
+                    + ", p99 confirm " + stats.getP99ConfirmMicros() + " µs)"
+                    + (stats.getError() != null ? " - " + stats.getError() : ""));
+        }
+    }
+
+    /**
+     * A confirm-mode channel whose confirms settle the tracker and hand their permits back;
+     * if the channel closes under the publisher, e.g. for a missing exchange, everything
+     * still outstanding on it is counted as failed
+     */
+    private static Channel openChannel(Connection connection, BulkPublishJob job, ConfirmTracker tracker,
+                                       Semaphore inFlight) throws IOException {
+        Channel channel = connection.createChannel();
+        channel.confirmSelect();
+        channel.addConfirmListener((deliveryTag, multiple) -> {
+            long now = System.nanoTime();
+            inFlight.release(tracker.confirm(deliveryTag, multiple, publishedAt -> job.confirmed(publishedAt, now)));
+        }, (deliveryTag, multiple) -> {
+            int rejected = tracker.confirm(deliveryTag, multiple, publishedAt -> { });
+            job.failed(rejected);
+            inFlight.release(rejected);
+        });
+        channel.addShutdownListener(cause -> {
+            if (!cause.isInitiatedByApplication()) {
+                job.fail(cause);
+            }
+            int lost = tracker.clear();
+            job.failed(lost);
+            inFlight.release(lost);
+        });
+        return channel;
+    }
+
+    /**
+     * Publishing loop of one channel: take a permit, then the next message, and send it
+     */
+    private static final class Publisher implements Runnable {
+        private final BulkPublishJob job;
+        private final BulkMessageSource source;
+        private final Channel channel;
+        private final ConfirmTracker tracker;
+        private final Semaphore inFlight;
+        private final String exchange;
+        private final String routingKey;
+        private final AMQP.BasicProperties properties;
+        private LoadSchedule schedule;
+        private long start;
+        private long next;
+        private int stride;
+
+        private Publisher(BulkPublishJob job, BulkMessageSource source, Channel channel, ConfirmTracker tracker,
+                          Semaphore inFlight, String exchange, String routingKey, AMQP.BasicProperties properties) {
+            this.job = job;
+            this.source = source;
+            this.channel = channel;
+            this.tracker = tracker;
+            this.inFlight = inFlight;
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.properties = properties;
+        }
+
+        /**
+         * Send message {@code first} of the schedule and every {@code stride}-th after it,
+         * each when it is due
+         */
+        private void pace(LoadSchedule schedule, long start, int first, int stride) {
+            this.schedule = schedule;
+            this.start = start;
+            this.next = first;
+            this.stride = stride;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!job.isStopping()) {
+                    long due = 0;
+                    if (schedule != null) {
+                        long offset = schedule.dueNanos(next);
+                        if (offset < 0) {
+                            return;
+                        }
+                        next += stride;
+                        due = start + offset;
+                        awaitDue(due);
+                    }
+                    // A message held up here is sent late, not skipped, and its latency shows it
+                    while (!inFlight.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (job.isStopping()) {
+                            return;
+                        }
+                    }
+                    byte[] body;
+                    synchronized (source) {
+                        body = source.next();
+                    }
+                    if (body == null) {
+                        inFlight.release();
+                        return;
+                    }
+                    tracker.published(channel.getNextPublishSeqNo(), schedule != null ? due : System.nanoTime());
+                    job.published();
+                    channel.basicPublish(exchange, routingKey, properties, body);
+                }
+            } catch (Exception e) {
+                job.fail(e);
+            }
+        }
+
+        private void awaitDue(long due) {
+            long remaining;
+            while ((remaining = due - System.nanoTime()) > 0 && !job.isStopping()) {
+                if (remaining > SPIN_NANOS) {
+                    LockSupport.parkNanos(Math.min(remaining - SPIN_NANOS, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)));
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait until every permit is back, i.e. each published message was confirmed or failed.
+     * After an error the rest is settled as failed when the connection closes.
+     */
+    private static void awaitConfirms(BulkPublishJob job, Semaphore inFlight, int maxInFlight)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + CONFIRM_TIMEOUT_NANOS;
+        while (!inFlight.tryAcquire(maxInFlight, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (job.hasFailed()) {
+                return;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                job.fail(new IllegalStateException("Timed out waiting for publisher confirms"));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cancel running jobs and give them a moment to settle their confirms
+     */
+    @Override
+    public void close() throws InterruptedException {
+        jobs.values().forEach(BulkPublishJob::cancel);
+        for (BulkPublishJob job : jobs.values()) {
+            job.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -2,35 +2,26 @@ package com.mockapi.server.service;
 
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Service
 public class RabbitMQService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final CachingConnectionFactory connectionFactory;
-    private final List<QueueMessage> sentMessages = new ArrayList<>();
-
-    @Value("${spring.rabbitmq.host}")
-    private String host;
-
-    @Value("${spring.rabbitmq.port}")
-    private int port;
-
-    @Value("${spring.rabbitmq.username}")
-    private String username;
-
-    @Value("${spring.rabbitmq.password}")
-    private String password;
-
-    public RabbitMQService(RabbitTemplate rabbitTemplate, CachingConnectionFactory connectionFactory) {
-        this.rabbitTemplate = rabbitTemplate;
-        this.connectionFactory = connectionFactory;
+    private final RabbitVirtualHosts virtualHosts;
+    private final RabbitBulkPublisher bulkPublisher;
+    private final MessageHistory sentMessages;
+    private final RabbitMockConsumers mockConsumers;
+
+    public RabbitMQService(RabbitVirtualHosts virtualHosts, RabbitBulkPublisher bulkPublisher,
+                           MessageHistory sentMessages, RabbitMockConsumers mockConsumers) {
+        this.virtualHosts = virtualHosts;
+        this.bulkPublisher = bulkPublisher;
+        this.sentMessages = sentMessages;
+        this.mockConsumers = mockConsumers;
     }
 
     public void sendMessageToQueue(String queueName, String message, String virtualHost) {
@@ -39,24 +30,19 @@ public class RabbitMQService {
 
     public void sendMessageToQueue(String queueName, String messageContent, String virtualHost, boolean asJson) {
         try {
-            if (virtualHost != null && !virtualHost.isEmpty()) {
-                setVirtualHost(virtualHost);
-            }
-
-            if (asJson) {
-                // Send as JSON with proper content-type
-                MessageProperties properties = new MessageProperties();
-                properties.setContentType("application/json");
-                properties.setContentEncoding("UTF-8");
-                Message message = new Message(messageContent.getBytes("UTF-8"), properties);
-                rabbitTemplate.send(queueName, message);
-            } else {
-                // Send as plain text
-                rabbitTemplate.convertAndSend(queueName, messageContent);
-            }
+            virtualHosts.execute(virtualHost, rabbitTemplate -> {
+                if (asJson) {
+                    // Send as JSON with proper content-type
+                    rabbitTemplate.send(queueName, jsonMessage(messageContent));
+                } else {
+                    // Send as plain text
+                    rabbitTemplate.convertAndSend(queueName, messageContent);
+                }
+                return null;
+            });
 
             // Track sent message
-            sentMessages.add(new QueueMessage(queueName, virtualHost, messageContent, asJson));
+            sentMessages.add(queueName, virtualHost, messageContent, asJson);
         } catch (Exception e) {
             throw new RuntimeException("Failed to send message to queue: " + queueName, e);
         }
@@ -68,36 +54,81 @@ public class RabbitMQService {
 
     public void sendMessageToExchange(String exchange, String routingKey, String messageContent, String virtualHost, boolean asJson) {
         try {
-            if (virtualHost != null && !virtualHost.isEmpty()) {
-                setVirtualHost(virtualHost);
-            }
-
-            if (asJson) {
-                // Send as JSON with proper content-type
-                MessageProperties properties = new MessageProperties();
-                properties.setContentType("application/json");
-                properties.setContentEncoding("UTF-8");
-                Message message = new Message(messageContent.getBytes("UTF-8"), properties);
-                rabbitTemplate.send(exchange, routingKey, message);
-            } else {
-                // Send as plain text
-                rabbitTemplate.convertAndSend(exchange, routingKey, messageContent);
-            }
+            virtualHosts.execute(virtualHost, rabbitTemplate -> {
+                if (asJson) {
+                    // Send as JSON with proper content-type
+                    rabbitTemplate.send(exchange, routingKey, jsonMessage(messageContent));
+                } else {
+                    // Send as plain text
+                    rabbitTemplate.convertAndSend(exchange, routingKey, messageContent);
+                }
+                return null;
+            });
 
             // Track sent message
-            sentMessages.add(new QueueMessage(exchange + " (Routing: " + routingKey + ")", virtualHost, messageContent, asJson));
+            sentMessages.add(exchange + " (Routing: " + routingKey + ")", virtualHost, messageContent, asJson);
         } catch (Exception e) {
             throw new RuntimeException("Failed to send message to exchange: " + exchange, e);
         }
     }
 
-    private void setVirtualHost(String virtualHost) {
-        connectionFactory.setVirtualHost(virtualHost);
-        connectionFactory.resetConnection();
+    /**
+     * Start publishing a message run in the background; individual messages are not added
+     * to the sent message history
+     */
+    public BulkPublishJob publishBulk(BulkPublishRequest request) throws IOException {
+        return bulkPublisher.start(request);
+    }
+
+    /**
+     * Start a load run that publishes at the request's target rate profile in the background
+     */
+    public BulkPublishJob startLoadTest(LoadTestRequest request) throws IOException {
+        return bulkPublisher.startLoad(request);
+    }
+
+    /**
+     * Start a mock consumer that records what arrives on the request's queue and answers
+     * RPC requests, until stopped
+     */
+    public MockConsumer startConsumer(MockConsumerRequest request) {
+        return mockConsumers.start(request);
+    }
+
+    public void stopConsumer(long id) {
+        mockConsumers.stop(id);
     }
 
-    public List<QueueMessage> getSentMessages() {
-        return new ArrayList<>(sentMessages);
+    /**
+     * Snapshot of the messages received by mock consumers, to be read a page at a time
+     */
+    public MessageHistory.View getReceivedMessages() {
+        return mockConsumers.getReceivedMessages();
+    }
+
+    private static Message jsonMessage(String content) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType("application/json");
+        properties.setContentEncoding("UTF-8");
+        return new Message(content.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    /**
+     * Snapshot of the sent message history, to be read a page at a time
+     */
+    public MessageHistory.View getSentMessages() {
+        return sentMessages.snapshot();
+    }
+
+    /**
+     * Up to {@code limit} sent messages, newest first, after skipping the {@code offset} newest
+     */
+    public List<QueueMessage> getSentMessages(int offset, int limit) {
+        return sentMessages.snapshot().page(offset, limit);
+    }
+
+    public int getSentMessageCount() {
+        return sentMessages.size();
     }
 
     public void clearSentMessages() {
@@ -111,13 +142,27 @@ public class RabbitMQService {
         private final String content;
         private final boolean isJson;
         private final long timestamp;
+        private final int contentLength;
+        // Where the full content went when it was too long to keep in memory
+        private final SpillFile spill;
+        private final long spillPosition;
+        private final int spillLength;
 
         public QueueMessage(String destination, String virtualHost, String content, boolean isJson) {
+            this(destination, virtualHost, content, isJson, content.length(), null, 0, 0);
+        }
+
+        QueueMessage(String destination, String virtualHost, String content, boolean isJson, int contentLength,
+                     SpillFile spill, long spillPosition, int spillLength) {
             this.destination = destination;
             this.virtualHost = virtualHost;
             this.content = content;
             this.isJson = isJson;
             this.timestamp = System.currentTimeMillis();
+            this.contentLength = contentLength;
+            this.spill = spill;
+            this.spillPosition = spillPosition;
+            this.spillLength = spillLength;
         }
 
         public String getDestination() {
@@ -128,10 +173,41 @@ public class RabbitMQService {
             return virtualHost;
         }
 
+        /**
+         * The content as sent, read back from the spill file if it was written there, or
+         * only its beginning if it was cut down (see {@link #isTruncated()})
+         */
         public String getContent() {
+            if (spill != null) {
+                String spilled = spill.read(spillPosition, spillLength);
+                if (spilled != null) {
+                    return spilled;
+                }
+            }
             return content;
         }
 
+        /**
+         * A preview of up to {@code length} characters, without reading spilled content
+         */
+        public String getPreview(int length) {
+            return content.length() > length ? content.substring(0, length) : content;
+        }
+
+        /**
+         * Length of the content as sent, in characters
+         */
+        public int getContentLength() {
+            return contentLength;
+        }
+
+        /**
+         * Whether {@link #getContent()} returns only the beginning of the content
+         */
+        public boolean isTruncated() {
+            return contentLength > content.length() && (spill == null || !spill.holds(spillPosition));
+        }
+
         public boolean isJson() {
             return isJson;
         }
@@ -141,4 +217,3 @@ public class RabbitMQService {
         }
     }
 }
-
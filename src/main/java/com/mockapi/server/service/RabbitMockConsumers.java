@@ -0,0 +1,154 @@
+package com.mockapi.server.service;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.ListenerContainerConsumerFailedEvent;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mock consumers that let the tool act as the downstream service on the AMQP side. Each
+ * consumer gets its own connection, so heavy consuming never shares flow control with the
+ * publishers, and a listener container with several concurrent consumers. The broker
+ * pushes up to the prefetch count to each consumer; deliveries are handed to the listener
+ * one by one and acknowledged in batches with a single multiple ack, once the batch is
+ * full or no further delivery arrives within the batch timeout.
+ * <p>
+ * Received messages of all consumers go into one bounded history, with the content limits
+ * of the sent message history and a spill file of its own.
+ */
+@Service
+public class RabbitMockConsumers implements AutoCloseable {
+
+    private final RabbitVirtualHosts virtualHosts;
+    private final TimerWheel timerWheel;
+    private final int defaultConcurrency;
+    private final int defaultPrefetch;
+    private final int defaultAckBatchSize;
+    private final long batchTimeoutMillis;
+    private final MessageHistory received;
+    private final AtomicLong ids = new AtomicLong();
+    private final NavigableMap<Long, MockConsumer> consumers = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public RabbitMockConsumers(RabbitVirtualHosts virtualHosts, TimerWheel timerWheel,
+                               @Value("${mockapi.rabbitmq.consumers.concurrency:4}") int concurrency,
+                               @Value("${mockapi.rabbitmq.consumers.prefetch:250}") int prefetch,
+                               @Value("${mockapi.rabbitmq.consumers.ack-batch-size:50}") int ackBatchSize,
+                               @Value("${mockapi.rabbitmq.consumers.ack-batch-timeout-ms:20}") long batchTimeoutMillis,
+                               @Value("${mockapi.rabbitmq.consumers.history-capacity:1000}") int historyCapacity,
+                               @Value("${mockapi.rabbitmq.history.max-content-length:0}") int maxContentLength,
+                               @Value("${mockapi.rabbitmq.history.spill-dir:}") String spillDir,
+                               @Value("${mockapi.rabbitmq.history.spill-max-mb:256}") long spillMaxMb)
+            throws IOException {
+        this.virtualHosts = virtualHosts;
+        this.timerWheel = timerWheel;
+        this.defaultConcurrency = Math.max(1, concurrency);
+        this.defaultPrefetch = Math.max(1, prefetch);
+        this.defaultAckBatchSize = Math.max(1, ackBatchSize);
+        this.batchTimeoutMillis = Math.max(1, batchTimeoutMillis);
+        this.received = new MessageHistory(historyCapacity, maxContentLength, spillDir, spillMaxMb,
+                "received-messages");
+    }
+
+    /**
+     * Validate the request and start consuming its queue in the background; a broker that
+     * cannot be reached is retried and reported in the consumer's stats
+     */
+    public MockConsumer start(MockConsumerRequest request) {
+        MockConsumer consumer = create(request);
+        CachingConnectionFactory factory = new CachingConnectionFactory(
+                virtualHosts.connectionFactory(request.getVirtualHost()));
+        factory.setConnectionNameStrategy(connectionFactory -> "mockapi-consumer-" + consumer.getId());
+        SimpleMessageListenerContainer container = container(factory, consumer);
+        consumer.attach(container, factory);
+        consumers.put(consumer.getId(), consumer);
+        container.start();
+        System.out.println("🐇 Mock consumer #" + consumer.getId() + " listening on " + consumer.getQueue()
+                + " with " + consumer.getConcurrency() + " consumers, prefetch " + consumer.getPrefetch()
+                + ", acks every " + consumer.getAckBatchSize());
+        return consumer;
+    }
+
+    MockConsumer create(MockConsumerRequest request) {
+        request.validate();
+        int ackBatchSize = request.getAckBatchSize() > 0 ? request.getAckBatchSize() : defaultAckBatchSize;
+        // A batch can't fill if the broker stops pushing before it is complete
+        int prefetch = Math.max(request.getPrefetch() > 0 ? request.getPrefetch() : defaultPrefetch, ackBatchSize);
+        int concurrency = request.getConcurrency() > 0 ? request.getConcurrency() : defaultConcurrency;
+        return new MockConsumer(ids.incrementAndGet(), request, concurrency, prefetch, ackBatchSize, received,
+                timerWheel);
+    }
+
+    SimpleMessageListenerContainer container(CachingConnectionFactory factory, MockConsumer consumer) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(factory);
+        container.setQueueNames(consumer.getQueue());
+        container.setConcurrentConsumers(consumer.getConcurrency());
+        container.setPrefetchCount(consumer.getPrefetch());
+        // Acked by the container after each batch, never by the broker on delivery
+        container.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        container.setBatchSize(consumer.getAckBatchSize());
+        container.setReceiveTimeout(batchTimeoutMillis);
+        container.setDefaultRequeueRejected(false);
+        container.setMissingQueuesFatal(false);
+        container.setMessageListener(consumer);
+        container.setApplicationEventPublisher(event -> {
+            if (event instanceof ListenerContainerConsumerFailedEvent failure) {
+                Throwable cause = failure.getThrowable();
+                consumer.failed(cause != null && cause.getMessage() != null ? cause.getMessage() : failure.getReason());
+            }
+        });
+        container.setBeanName("mockapi-consumer-" + consumer.getId());
+        container.afterPropertiesSet();
+        return container;
+    }
+
+    public MockConsumer getConsumer(long id) {
+        return consumers.get(id);
+    }
+
+    public List<MockConsumer> getConsumers() {
+        return new ArrayList<>(consumers.values());
+    }
+
+    /**
+     * Stop the consumer and forget it; returns null if there is no such consumer
+     */
+    public MockConsumer stop(long id) {
+        MockConsumer consumer = consumers.remove(id);
+        if (consumer != null) {
+            consumer.stop();
+            MockConsumerStats stats = consumer.getStats();
+            System.out.println("🐇 Mock consumer #" + id + " stopped: " + stats.getReceived() + " received, "
+                    + stats.getReplied() + " replied");
+        }
+        return consumer;
+    }
+
+    /**
+     * Messages received by all consumers, to be read a page at a time
+     */
+    public MessageHistory.View getReceivedMessages() {
+        return received.snapshot();
+    }
+
+    public void clearReceivedMessages() {
+        received.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        consumers.values().forEach(MockConsumer::stop);
+        consumers.clear();
+        received.close();
+    }
+}
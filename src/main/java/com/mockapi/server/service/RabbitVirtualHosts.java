@@ -0,0 +1,153 @@
+package com.mockapi.server.service;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * One cached connection factory and RabbitTemplate per virtual host, created on first use
+ * with the connection settings of the application's factory and closed again after sitting
+ * idle. Senders to different virtual hosts use separate connections and run in parallel on
+ * warm channels; nothing is reconnected when the target virtual host changes.
+ * <p>
+ * A template in use is never evicted: callers borrow it through {@link #execute}, which
+ * holds a use count that the evictor checks before closing a factory.
+ */
+@Component
+public class RabbitVirtualHosts implements AutoCloseable {
+
+    private final RabbitTemplate defaultTemplate;
+    private final CachingConnectionFactory defaultFactory;
+    private final long idleNanos;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    @Autowired
+    public RabbitVirtualHosts(RabbitTemplate defaultTemplate, CachingConnectionFactory defaultFactory,
+                              @Value("${mockapi.rabbitmq.vhost-idle-seconds:300}") long idleSeconds) {
+        this.defaultTemplate = defaultTemplate;
+        this.defaultFactory = defaultFactory;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().daemon().name("rabbit-vhost-evictor").unstarted(task));
+        long period = Math.max(1, idleSeconds / 2);
+        evictor.scheduleWithFixedDelay(() -> evictIdle(System.nanoTime()), period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run the action with the template for the virtual host; null or blank means the
+     * application's configured virtual host
+     */
+    public <T> T execute(String virtualHost, Function<RabbitTemplate, T> action) {
+        if (isDefault(virtualHost)) {
+            return action.apply(defaultTemplate);
+        }
+        while (true) {
+            Host host = hosts.computeIfAbsent(virtualHost, this::open);
+            host.users.incrementAndGet();
+            try {
+                if (!host.closed) {
+                    return action.apply(host.template);
+                }
+            } finally {
+                host.lastUsed = System.nanoTime();
+                host.users.decrementAndGet();
+            }
+            // Being evicted: it is either dropped from the map or kept open, so look again
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * A client connection factory for the virtual host with the application's connection
+     * settings, for callers that manage a dedicated connection of their own
+     */
+    public com.rabbitmq.client.ConnectionFactory connectionFactory(String virtualHost) {
+        com.rabbitmq.client.ConnectionFactory rabbit = defaultFactory.getRabbitConnectionFactory().clone();
+        if (!isDefault(virtualHost)) {
+            rabbit.setVirtualHost(virtualHost);
+        }
+        return rabbit;
+    }
+
+    public int getOpenHosts() {
+        return hosts.size();
+    }
+
+    private boolean isDefault(String virtualHost) {
+        return virtualHost == null || virtualHost.isBlank() || virtualHost.equals(defaultFactory.getVirtualHost());
+    }
+
+    private Host open(String virtualHost) {
+        com.rabbitmq.client.ConnectionFactory rabbit = defaultFactory.getRabbitConnectionFactory().clone();
+        rabbit.setVirtualHost(virtualHost);
+        CachingConnectionFactory factory = new CachingConnectionFactory(rabbit);
+        factory.setChannelCacheSize(defaultFactory.getChannelCacheSize());
+        factory.setPublisherReturns(defaultFactory.isPublisherReturns());
+        if (defaultFactory.isPublisherConfirms()) {
+            factory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        } else if (defaultFactory.isSimplePublisherConfirms()) {
+            factory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        }
+        factory.setConnectionNameStrategy(connectionFactory -> "mockapi-" + virtualHost);
+        RabbitTemplate template = new RabbitTemplate(factory);
+        template.setMessageConverter(defaultTemplate.getMessageConverter());
+        System.out.println("🐇 Opened connection factory for virtual host " + virtualHost);
+        return new Host(factory, template);
+    }
+
+    /**
+     * Close factories unused for longer than the idle timeout. A host is marked closed
+     * before its use count is checked and senders check the mark after raising the count,
+     * so a sender either sees the mark and retries or keeps the host open.
+     */
+    void evictIdle(long now) {
+        for (Map.Entry<String, Host> entry : hosts.entrySet()) {
+            Host host = entry.getValue();
+            if (now - host.lastUsed < idleNanos || host.users.get() > 0) {
+                continue;
+            }
+            host.closed = true;
+            if (host.users.get() > 0) {
+                host.closed = false;
+                continue;
+            }
+            hosts.remove(entry.getKey(), host);
+            host.factory.destroy();
+            System.out.println("🐇 Closed idle connection factory for virtual host " + entry.getKey());
+        }
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        hosts.values().forEach(host -> {
+            host.closed = true;
+            host.factory.destroy();
+        });
+        hosts.clear();
+    }
+
+    private static final class Host {
+        private final CachingConnectionFactory factory;
+        private final RabbitTemplate template;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile boolean closed;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Host(CachingConnectionFactory factory, RabbitTemplate template) {
+            this.factory = factory;
+            this.template = template;
+        }
+    }
+}
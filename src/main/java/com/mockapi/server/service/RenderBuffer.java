@@ -0,0 +1,97 @@
+package com.mockapi.server.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Growable, unsynchronized byte buffer that templated bodies are rendered into, kept
+ * in a small lock-free pool so steady traffic renders without allocating a new buffer
+ * per request. Pooled by slot rather than per thread, since every request may run on a
+ * fresh virtual thread.
+ */
+public final class RenderBuffer extends OutputStream {
+
+    private static final int POOL_SLOTS = 64;
+    private static final int INITIAL_CAPACITY = 4096;
+    /** Buffers grown beyond this are dropped on release rather than pinned in the pool */
+    private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+
+    private static final AtomicReferenceArray<RenderBuffer> POOL = new AtomicReferenceArray<>(POOL_SLOTS);
+
+    private byte[] bytes;
+    private int size;
+
+    private RenderBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    /**
+     * Take an empty buffer from the pool, or a new one; hand it back with {@link #release()}
+     */
+    public static RenderBuffer acquire() {
+        int slot = (int) Thread.currentThread().threadId() & (POOL_SLOTS - 1);
+        for (int i = 0; i < 2; i++) {
+            RenderBuffer buffer = POOL.getAndSet((slot + i) & (POOL_SLOTS - 1), null);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new RenderBuffer(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Return the buffer to the pool; it must not be used afterwards
+     */
+    public void release() {
+        if (bytes.length > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        size = 0;
+        int slot = (int) Thread.currentThread().threadId() & (POOL_SLOTS - 1);
+        for (int i = 0; i < 2; i++) {
+            if (POOL.compareAndSet((slot + i) & (POOL_SLOTS - 1), null, this)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Backing array; only the first {@link #size()} bytes are valid
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
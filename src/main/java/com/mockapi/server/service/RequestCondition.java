@@ -0,0 +1,97 @@
+package com.mockapi.server.service;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.JsonPathException;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@link MatchCondition} compiled once at registration (regex and JSONPath pre-parsed)
+ */
+final class RequestCondition {
+
+    static final Configuration JSON_CONFIGURATION = Configuration.defaultConfiguration();
+
+    private final MatchCondition.Type type;
+    private final String name;
+    private final String value;
+    private final Pattern pattern;
+    private final JsonPath jsonPath;
+
+    RequestCondition(MatchCondition condition) {
+        if (condition.getType() == null) {
+            throw new IllegalArgumentException("Match condition type is required");
+        }
+        this.type = condition.getType();
+        this.name = condition.getName();
+        this.value = condition.getValue();
+        this.pattern = type == MatchCondition.Type.BODY_REGEX ? Pattern.compile(value, Pattern.DOTALL) : null;
+        this.jsonPath = type == MatchCondition.Type.JSON_PATH ? JsonPath.compile(name) : null;
+        if ((type == MatchCondition.Type.HEADER || type == MatchCondition.Type.QUERY) && (name == null || value == null)) {
+            throw new IllegalArgumentException(type + " condition needs a name and a value");
+        }
+    }
+
+    MatchCondition.Type getType() {
+        return type;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    boolean readsBody() {
+        return type == MatchCondition.Type.JSON_PATH || type == MatchCondition.Type.BODY_REGEX;
+    }
+
+    boolean test(MockRequest request) {
+        switch (type) {
+            case HEADER:
+                return value.equals(request.getHeader(name));
+            case QUERY:
+                return value.equals(request.getQueryParam(name));
+            case BODY_REGEX: {
+                String body = request.getBody();
+                return body != null && pattern.matcher(body).find();
+            }
+            case JSON_PATH: {
+                Object document = request.getJsonBody();
+                if (document == null) {
+                    return false;
+                }
+                try {
+                    Object result = jsonPath.read(document, JSON_CONFIGURATION);
+                    return value == null ? result != null : value.equals(String.valueOf(result));
+                } catch (JsonPathException e) {
+                    return false;
+                }
+            }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Canonical form used to tell variants of the same route apart
+     */
+    String key() {
+        return type + ":" + name + "=" + value;
+    }
+
+    static Object parseJson(String body) {
+        if (body == null || body.isBlank()) {
+            return null;
+        }
+        try {
+            return JSON_CONFIGURATION.jsonProvider().parse(body);
+        } catch (InvalidJsonException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.mockapi.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded journal of served requests, kept off-heap in a ring of fixed-size slots so
+ * that recording neither grows the heap nor creates garbage per request.
+ * <p>
+ * A writer takes the next sequence number with a single atomic increment and marks its
+ * slot as being written with a compare-and-set, so it owns the slot even if the ring
+ * wraps around mid-write: it encodes method, path, query, headers and body straight
+ * into the slot and publishes the slot's sequence number last. Readers copy a slot and
+ * check the sequence before and after (a seqlock), so they never block writers and
+ * skip slots overwritten while being read. Fields that don't fit the slot are cut and the entry marked truncated;
+ * once the ring is full the oldest requests are overwritten.
+ */
+@Component
+public class RequestJournal {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Slot layout; the sequence holds sequence + 1 once published, -(sequence + 1) while
+    // being written and 0 while empty
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int DURATION = 16;
+    private static final int STATUS = 24;
+    private static final int FLAGS = 28;
+    private static final int FIELDS = 32;
+    private static final int MIN_SLOT_SIZE = 256;
+    private static final int TRUNCATED = 1;
+
+    /**
+     * Reads headers from an engine-specific request into the journal
+     */
+    @FunctionalInterface
+    public interface HeaderReader<T> {
+        void read(T source, HeaderSink sink);
+    }
+
+    public interface HeaderSink {
+        void header(String name, String value);
+    }
+
+    private final ByteBuffer slots;
+    private final int slotCount;
+    private final int slotSize;
+    private final boolean recordBodies;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long clearedBefore;
+
+    public RequestJournal(@Value("${mockapi.journal.slots:16384}") int slotCount,
+                          @Value("${mockapi.journal.slot-size:2048}") int slotSize,
+                          @Value("${mockapi.journal.record-bodies:false}") boolean recordBodies) {
+        this.slotCount = Math.max(0, slotCount);
+        // Keep slots 8-byte aligned for the atomic sequence field
+        this.slotSize = (Math.max(MIN_SLOT_SIZE, slotSize) + 7) & ~7;
+        this.recordBodies = recordBodies;
+        this.slots = this.slotCount > 0
+                ? ByteBuffer.allocateDirect(Math.multiplyExact(this.slotCount, this.slotSize))
+                        .order(ByteOrder.nativeOrder())
+                : null;
+        if (slots != null) {
+            System.out.println("📒 Request journal: " + this.slotCount + " slots of " + this.slotSize + " bytes ("
+                    + (long) this.slotCount * this.slotSize / (1024 * 1024) + " MB off-heap)");
+        }
+    }
+
+    public boolean isEnabled() {
+        return slots != null;
+    }
+
+    /**
+     * Whether request bodies are journaled, so servers must read them even when no mock
+     * needs them; off by default to keep body reads lazy
+     */
+    public boolean isRecordingBodies() {
+        return slots != null && recordBodies;
+    }
+
+    /**
+     * Record a served request; {@code startNanos} is the {@link System#nanoTime()} it arrived at
+     */
+    public <T> void record(String method, String path, String query, T headerSource, HeaderReader<T> headers,
+                           String body, int status, long startNanos) {
+        if (slots == null) {
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        int base = (int) (sequence % slotCount) * slotSize;
+        if (!claim(base, sequence)) {
+            return;
+        }
+
+        slots.putLong(base + TIMESTAMP, System.currentTimeMillis());
+        slots.putLong(base + DURATION, System.nanoTime() - startNanos);
+        slots.putInt(base + STATUS, status);
+        SlotWriter writer = new SlotWriter(base + FIELDS, base + slotSize);
+        writer.string(method, 16);
+        writer.string(path, 12);
+        writer.string(query, 8);
+        int headerCount = writer.position;
+        writer.position += 4;
+        if (headerSource != null) {
+            headers.read(headerSource, writer);
+        }
+        slots.putInt(headerCount, writer.headers);
+        writer.string(recordBodies ? body : null, 0);
+        slots.putInt(base + FLAGS, writer.truncated ? TRUNCATED : 0);
+
+        LONGS.setRelease(slots, base + SEQUENCE, sequence + 1);
+    }
+
+    /**
+     * Mark a slot as being written. Returns false if a newer request already took it,
+     * which only happens when the ring wraps around during one write; the entry would
+     * be overwritten straight away, so it is dropped.
+     */
+    private boolean claim(int base, long sequence) {
+        while (true) {
+            long current = (long) LONGS.getVolatile(slots, base + SEQUENCE);
+            if (Math.abs(current) - 1 >= sequence) {
+                return false;
+            }
+            if (current < 0) {
+                // An older request is still writing this slot; it finishes within microseconds
+                Thread.onSpinWait();
+            } else if (LONGS.compareAndSet(slots, base + SEQUENCE, current, -(sequence + 1))) {
+                // Keep the field writes that follow from moving ahead of the claim
+                VarHandle.releaseFence();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * All retained entries, oldest first
+     */
+    public List<JournalEntry> getEntries() {
+        List<JournalEntry> entries = find(null, null, null, null, Integer.MAX_VALUE);
+        return entries.reversed();
+    }
+
+    /**
+     * Up to {@code limit} entries passing the filters, newest first; null filters match anything
+     */
+    public List<JournalEntry> find(String method, String path, String headerName, String headerValue, int limit) {
+        List<JournalEntry> entries = new ArrayList<>();
+        if (slots == null) {
+            return entries;
+        }
+        byte[] copy = new byte[slotSize];
+        long end = nextSequence.get();
+        long start = Math.max(clearedBefore, end - slotCount);
+        for (long sequence = end - 1; sequence >= start && entries.size() < limit; sequence--) {
+            JournalEntry entry = read(sequence, copy);
+            if (entry != null && entry.matches(method, path, headerName, headerValue)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Number of retained entries passing the filters
+     */
+    public int count(String method, String path, String headerName, String headerValue) {
+        return find(method, path, headerName, headerValue, Integer.MAX_VALUE).size();
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public void clear() {
+        clearedBefore = nextSequence.get();
+    }
+
+    /**
+     * Total requests recorded since startup, including those since overwritten
+     */
+    public long getRecordedCount() {
+        return nextSequence.get();
+    }
+
+    public int getCapacity() {
+        return slotCount;
+    }
+
+    private JournalEntry read(long sequence, byte[] copy) {
+        int base = (int) (sequence % slotCount) * slotSize;
+        long published = (long) LONGS.getAcquire(slots, base + SEQUENCE);
+        if (published != sequence + 1) {
+            return null;
+        }
+        slots.get(base, copy);
+        // Keep the copy above from moving past the re-check below
+        VarHandle.acquireFence();
+        if ((long) LONGS.getAcquire(slots, base + SEQUENCE) != published) {
+            return null;
+        }
+        return decode(sequence, ByteBuffer.wrap(copy).order(ByteOrder.nativeOrder()));
+    }
+
+    private static JournalEntry decode(long sequence, ByteBuffer slot) {
+        slot.position(FIELDS);
+        String method = readString(slot);
+        String path = readString(slot);
+        String query = readString(slot);
+        int headerCount = slot.getInt();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(slot);
+            String value = readString(slot);
+            headers.merge(name, value != null ? value : "", (first, next) -> first + ", " + next);
+        }
+        String body = readString(slot);
+        return new JournalEntry(sequence, Instant.ofEpochMilli(slot.getLong(TIMESTAMP)),
+                slot.getLong(DURATION) / 1000, method, path, query, headers, body, slot.getInt(STATUS),
+                (slot.getInt(FLAGS) & TRUNCATED) != 0);
+    }
+
+    private static String readString(ByteBuffer slot) {
+        int length = slot.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(slot.array(), slot.position(), length, StandardCharsets.UTF_8);
+        slot.position(slot.position() + length);
+        return value;
+    }
+
+    /**
+     * Encodes fields into one claimed slot, cutting them short rather than overflowing it
+     */
+    private final class SlotWriter implements HeaderSink {
+
+        private final int end;
+        private int position;
+        private int headers;
+        private boolean truncated;
+
+        SlotWriter(int position, int end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public void header(String name, String value) {
+            // Room for both lengths plus the body length that follows the headers
+            if (truncated || end - position < 12) {
+                truncated = true;
+                return;
+            }
+            string(name, 8);
+            string(value, 4);
+            headers++;
+        }
+
+        /**
+         * Write a length-prefixed UTF-8 string, leaving {@code reserve} bytes for the fields after it
+         */
+        void string(String value, int reserve) {
+            int lengthAt = position;
+            position += 4;
+            if (value == null) {
+                slots.putInt(lengthAt, -1);
+                return;
+            }
+            int limit = end - reserve;
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                boolean pair = Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1));
+                if (Character.isSurrogate(c) && !pair) {
+                    c = '?';
+                }
+                if (c < 0x80) {
+                    if (position + 1 > limit) {
+                        truncated = true;
+                        break;
+                    }
+                    slots.put(position++, (byte) c);
+                } else if (c < 0x800) {
+                    if (position + 2 > limit) {
+                        truncated = true;
+                        break;
+                    }
+                    slots.put(position++, (byte) (0xC0 | (c >> 6)));
+                    slots.put(position++, (byte) (0x80 | (c & 0x3F)));
+                } else if (pair) {
+                    if (position + 4 > limit) {
+                        truncated = true;
+                        break;
+                    }
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    slots.put(position++, (byte) (0xF0 | (codePoint >> 18)));
+                    slots.put(position++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    slots.put(position++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    slots.put(position++, (byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    if (position + 3 > limit) {
+                        truncated = true;
+                        break;
+                    }
+                    slots.put(position++, (byte) (0xE0 | (c >> 12)));
+                    slots.put(position++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                    slots.put(position++, (byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            slots.putInt(lengthAt, position - lengthAt - 4);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mockapi.server.service;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory collections behind CRUD-style mocks: a POST stores the request body and a
+ * later GET returns it. Each collection is a concurrent map, so independent clients
+ * never serialize on a shared lock.
+ * <p>
+ * The item id is the {@code id} path variable; a route without one addresses the whole
+ * collection, so other variables such as {@code /users/{userId}/orders} never become an
+ * item id. A POST without one takes the body's {@code id} field, or generates a
+ * sequential id and adds it to a JSON object body.
+ */
+public class ResourceStore {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Map<String, ItemCollection> collections = new ConcurrentHashMap<>();
+
+    /**
+     * Status and body produced by a resource endpoint
+     */
+    public record Result(int statusCode, byte[] body) {
+    }
+
+    /**
+     * Apply a request to the endpoint's collection. Successful calls answer with the
+     * endpoint's status code; missing items give 404.
+     */
+    public Result apply(MockEndpoint endpoint, RequestMethod method, Map<String, String> pathVariables,
+                        MockRequest request) {
+        ItemCollection collection = collections.computeIfAbsent(endpoint.getResource(), name -> new ItemCollection());
+        String id = pathVariables.get("id");
+        switch (method) {
+            case POST: {
+                byte[] body = bytes(request.getBody());
+                if (id == null) {
+                    Object document = request.getJsonBody();
+                    Object bodyId = document != null && jsonProvider().isMap(document)
+                            ? jsonProvider().getMapValue(document, "id") : null;
+                    if (bodyId != null && bodyId != JsonProvider.UNDEFINED) {
+                        id = String.valueOf(bodyId);
+                    } else {
+                        id = Long.toString(collection.nextId.incrementAndGet());
+                        body = withId(document, id, body);
+                    }
+                }
+                collection.put(id, body);
+                return new Result(endpoint.getStatusCode(), body);
+            }
+            case PUT:
+            case PATCH: {
+                if (id == null) {
+                    return notFound();
+                }
+                byte[] body = bytes(request.getBody());
+                collection.put(id, body);
+                return new Result(endpoint.getStatusCode(), body);
+            }
+            case DELETE: {
+                return id != null && collection.items.remove(id) != null
+                        ? new Result(endpoint.getStatusCode(), EMPTY) : notFound();
+            }
+            default: {
+                if (id == null) {
+                    return new Result(endpoint.getStatusCode(), collection.toJsonArray());
+                }
+                Item item = collection.items.get(id);
+                return item != null ? new Result(endpoint.getStatusCode(), item.body) : notFound();
+            }
+        }
+    }
+
+    /**
+     * Number of items stored in a collection
+     */
+    public int size(String resource) {
+        ItemCollection collection = collections.get(resource);
+        return collection != null ? collection.items.size() : 0;
+    }
+
+    public void clear() {
+        collections.clear();
+    }
+
+    private static byte[] withId(Object document, String id, byte[] body) {
+        if (document == null || !jsonProvider().isMap(document)) {
+            return body;
+        }
+        jsonProvider().setProperty(document, "id", id);
+        return jsonProvider().toJson(document).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonProvider jsonProvider() {
+        return RequestCondition.JSON_CONFIGURATION.jsonProvider();
+    }
+
+    private static byte[] bytes(String body) {
+        return body != null ? body.getBytes(StandardCharsets.UTF_8) : EMPTY;
+    }
+
+    private static Result notFound() {
+        return new Result(404, EMPTY);
+    }
+
+    private record Item(long sequence, byte[] body) {
+    }
+
+    private static final class ItemCollection {
+
+        private final Map<String, Item> items = new ConcurrentHashMap<>();
+        private final AtomicLong nextId = new AtomicLong();
+        private final AtomicLong sequence = new AtomicLong();
+
+        /**
+         * Store an item; a replaced item keeps its place in the listing
+         */
+        void put(String id, byte[] body) {
+            items.compute(id, (key, old) -> new Item(old != null ? old.sequence : sequence.incrementAndGet(), body));
+        }
+
+        /**
+         * All items as a JSON array, oldest first; assumes each stored body is JSON
+         */
+        byte[] toJsonArray() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write('[');
+            items.values().stream()
+                    .sorted(Comparator.comparingLong(Item::sequence))
+                    .forEach(item -> {
+                        if (out.size() > 1) {
+                            out.write(',');
+                        }
+                        out.writeBytes(item.body.length > 0 ? item.body : "null".getBytes(StandardCharsets.UTF_8));
+                    });
+            out.write(']');
+            return out.toByteArray();
+        }
+    }
+}
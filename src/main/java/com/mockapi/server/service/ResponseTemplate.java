@@ -0,0 +1,197 @@
+package com.mockapi.server.service;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.JsonPathException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response body compiled once at registration into a list of segments: literal bytes,
+ * pre-encoded, and placeholders resolved per request. Supported placeholders:
+ * <ul>
+ *     <li>{@code {{path.name}}} - captured path variable (template routes only)</li>
+ *     <li>{@code {{query.name}}} - query parameter</li>
+ *     <li>{@code {{header.Name}}} - request header</li>
+ *     <li>{@code {{body.$.user.id}}} - JSONPath into the request body ({@code $.} optional)</li>
+ *     <li>{@code {{uuid}}} - random UUID</li>
+ *     <li>{@code {{now}}} / {@code {{now.millis}}} - current time as ISO-8601 UTC / epoch millis</li>
+ * </ul>
+ * Values are inserted as-is; missing values render as nothing. Anything else between
+ * double braces is kept as literal text.
+ */
+final class ResponseTemplate {
+
+    private static final String PLACEHOLDER_START = "{{";
+    private static final String PLACEHOLDER_END = "}}";
+
+    private final Segment[] segments;
+    private final int literalLength;
+    private final boolean readsBody;
+
+    private ResponseTemplate(Segment[] segments, int literalLength, boolean readsBody) {
+        this.segments = segments;
+        this.literalLength = literalLength;
+        this.readsBody = readsBody;
+    }
+
+    /**
+     * Compile the body, or return null when it has no placeholders and can be served as-is.
+     * {@code {{path.*}}} placeholders only count when the route can capture variables.
+     */
+    static ResponseTemplate compile(String body, boolean pathVariables) {
+        if (body == null || !body.contains(PLACEHOLDER_START)) {
+            return null;
+        }
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        boolean readsBody = false;
+        int start = 0;
+        int open;
+        while ((open = body.indexOf(PLACEHOLDER_START, start)) >= 0) {
+            int close = body.indexOf(PLACEHOLDER_END, open + PLACEHOLDER_START.length());
+            if (close < 0) {
+                break;
+            }
+            Segment placeholder = placeholder(body.substring(open + PLACEHOLDER_START.length(), close).trim(),
+                    pathVariables);
+            literal.append(body, start, placeholder != null ? open : close + PLACEHOLDER_END.length());
+            start = close + PLACEHOLDER_END.length();
+            if (placeholder == null) {
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                byte[] bytes = literal.toString().getBytes(StandardCharsets.UTF_8);
+                segments.add((request, variables, out) -> out.write(bytes));
+                literalLength += bytes.length;
+                literal.setLength(0);
+            }
+            segments.add(placeholder);
+            readsBody |= placeholder instanceof BodyValue;
+        }
+        if (segments.isEmpty()) {
+            return null;
+        }
+        literal.append(body, start, body.length());
+        if (!literal.isEmpty()) {
+            byte[] bytes = literal.toString().getBytes(StandardCharsets.UTF_8);
+            segments.add((request, variables, out) -> out.write(bytes));
+            literalLength += bytes.length;
+        }
+        return new ResponseTemplate(segments.toArray(new Segment[0]), literalLength, readsBody);
+    }
+
+    /**
+     * Whether rendering reads the request body, so non-blocking servers must buffer it
+     */
+    boolean readsBody() {
+        return readsBody;
+    }
+
+    /**
+     * Rough rendered size, used to size output buffers up front
+     */
+    int estimateSize() {
+        return literalLength + 32 * segments.length;
+    }
+
+    void render(MockRequest request, Map<String, String> pathVariables, OutputStream out) throws IOException {
+        for (Segment segment : segments) {
+            segment.write(request, pathVariables, out);
+        }
+    }
+
+    private static Segment placeholder(String expression, boolean pathVariables) {
+        int dot = expression.indexOf('.');
+        String source = dot >= 0 ? expression.substring(0, dot) : expression;
+        String name = dot >= 0 ? expression.substring(dot + 1) : null;
+        switch (source) {
+            case "path":
+                return pathVariables && name != null
+                        ? (request, variables, out) -> writeValue(out, variables.get(name)) : null;
+            case "query":
+                return name != null ? (request, variables, out) -> writeValue(out, request.getQueryParam(name)) : null;
+            case "header":
+                return name != null ? (request, variables, out) -> writeValue(out, request.getHeader(name)) : null;
+            case "body":
+                return name != null ? new BodyValue(name) : null;
+            case "uuid":
+                return name == null ? (request, variables, out) -> writeAscii(out, randomUuid()) : null;
+            case "now":
+                if (name == null) {
+                    return (request, variables, out) -> writeAscii(out, Instant.now().toString());
+                }
+                return "millis".equals(name)
+                        ? (request, variables, out) -> writeAscii(out, Long.toString(System.currentTimeMillis())) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Version 4 UUID from a thread-local generator; mocks need uniqueness, not SecureRandom
+     */
+    static String randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    private static void writeValue(OutputStream out, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeAscii(OutputStream out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            out.write(value.charAt(i));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Segment {
+        void write(MockRequest request, Map<String, String> pathVariables, OutputStream out) throws IOException;
+    }
+
+    /**
+     * JSONPath into the request body; objects and arrays are written back as JSON
+     */
+    private static final class BodyValue implements Segment {
+
+        private final JsonPath jsonPath;
+
+        BodyValue(String path) {
+            this.jsonPath = JsonPath.compile(path.startsWith("$") ? path : "$." + path);
+        }
+
+        @Override
+        public void write(MockRequest request, Map<String, String> pathVariables, OutputStream out) throws IOException {
+            Object document = request.getJsonBody();
+            if (document == null) {
+                return;
+            }
+            Object value;
+            try {
+                value = jsonPath.read(document, RequestCondition.JSON_CONFIGURATION);
+            } catch (JsonPathException e) {
+                return;
+            }
+            if (value == null) {
+                return;
+            }
+            writeValue(out, value instanceof Map || value instanceof List
+                    ? RequestCondition.JSON_CONFIGURATION.jsonProvider().toJson(value)
+                    : value.toString());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.mockapi.server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * All variants registered for one method + path, with an index over their match
+ * conditions that is built once per change.
+ * <p>
+ * Each conditional variant is filed under its first header condition (else its first
+ * query condition) by name and expected value, so selecting a variant costs one map
+ * probe per distinct discriminating header/query name rather than a scan over all
+ * variants. Variants with only body predicates are kept in a short fallback list.
+ * Entries are immutable; adding or removing a variant builds a new entry.
+ */
+final class RouteEntry {
+
+    private static final Comparator<MockEndpoint> MOST_SPECIFIC_FIRST =
+            Comparator.comparingInt(MockEndpoint::getSpecificity).reversed();
+    private static final String[] NO_NAMES = new String[0];
+    private static final Map<String, MockEndpoint[]>[] NO_INDEX = new Map[0];
+    private static final MockEndpoint[] NO_VARIANTS = new MockEndpoint[0];
+
+    private final String path;
+    private final List<MockEndpoint> variants;
+    private final MockEndpoint fallback;
+    private final RouteMatch fallbackMatch;
+    private final String[] headerNames;
+    private final Map<String, MockEndpoint[]>[] headerIndex;
+    private final String[] queryNames;
+    private final Map<String, MockEndpoint[]>[] queryIndex;
+    private final MockEndpoint[] unindexed;
+    private final boolean readsBody;
+
+    private RouteEntry(String path, List<MockEndpoint> variants) {
+        this.path = path;
+        this.variants = List.copyOf(variants);
+
+        MockEndpoint unconditional = null;
+        // Most routes have a single unconditional variant; only build indexes when needed
+        Map<String, Map<String, List<MockEndpoint>>> headers = null;
+        Map<String, Map<String, List<MockEndpoint>>> queries = null;
+        List<MockEndpoint> others = null;
+        boolean bodyReaders = false;
+        for (MockEndpoint variant : variants) {
+            bodyReaders |= variant.readsBody();
+            if (!variant.isConditional()) {
+                unconditional = variant;
+                continue;
+            }
+            RequestCondition key = discriminator(variant);
+            if (key == null) {
+                if (others == null) {
+                    others = new ArrayList<>();
+                }
+                others.add(variant);
+            } else {
+                if (headers == null) {
+                    headers = new HashMap<>();
+                    queries = new HashMap<>();
+                }
+                Map<String, Map<String, List<MockEndpoint>>> index =
+                        key.getType() == MatchCondition.Type.HEADER ? headers : queries;
+                String name = key.getType() == MatchCondition.Type.HEADER
+                        ? key.getName().toLowerCase(Locale.ROOT) : key.getName();
+                index.computeIfAbsent(name, n -> new HashMap<>())
+                        .computeIfAbsent(key.getValue(), v -> new ArrayList<>())
+                        .add(variant);
+            }
+        }
+        this.fallback = unconditional;
+        this.fallbackMatch = unconditional != null ? new RouteMatch(unconditional) : null;
+        this.headerNames = headers != null ? headers.keySet().toArray(NO_NAMES) : NO_NAMES;
+        this.headerIndex = headers != null ? freeze(headerNames, headers) : NO_INDEX;
+        this.queryNames = queries != null ? queries.keySet().toArray(NO_NAMES) : NO_NAMES;
+        this.queryIndex = queries != null ? freeze(queryNames, queries) : NO_INDEX;
+        if (others != null) {
+            others.sort(MOST_SPECIFIC_FIRST);
+        }
+        this.unindexed = others != null ? others.toArray(NO_VARIANTS) : NO_VARIANTS;
+        this.readsBody = bodyReaders;
+    }
+
+    static RouteEntry of(MockEndpoint endpoint) {
+        return new RouteEntry(endpoint.getPath(), List.of(endpoint));
+    }
+
+    /**
+     * Copy of this entry with the variant added, replacing one with identical conditions
+     */
+    RouteEntry with(MockEndpoint endpoint) {
+        List<MockEndpoint> next = new ArrayList<>(variants.size() + 1);
+        for (MockEndpoint variant : variants) {
+            if (!variant.isSameVariant(endpoint)) {
+                next.add(variant);
+            }
+        }
+        next.add(endpoint);
+        return new RouteEntry(path, next);
+    }
+
+    /**
+     * Copy of this entry without the variant, or null when nothing is left
+     */
+    RouteEntry without(MockEndpoint endpoint) {
+        List<MockEndpoint> next = new ArrayList<>(variants);
+        next.removeIf(variant -> variant.isSameVariant(endpoint));
+        if (next.size() == variants.size()) {
+            return this;
+        }
+        return next.isEmpty() ? null : new RouteEntry(path, next);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    List<MockEndpoint> getVariants() {
+        return variants;
+    }
+
+    /**
+     * Whether selecting or rendering a variant may need the request body
+     */
+    boolean readsBody() {
+        return readsBody;
+    }
+
+    /**
+     * Endpoint served when no request details are available
+     */
+    MockEndpoint getDefault() {
+        return fallback;
+    }
+
+    /**
+     * Pick the most specific variant whose conditions hold, else the unconditional one
+     */
+    MockEndpoint select(MockRequest request) {
+        if (headerNames.length == 0 && queryNames.length == 0 && unindexed.length == 0) {
+            return fallback;
+        }
+        MockEndpoint best = null;
+        for (int i = 0; i < headerNames.length; i++) {
+            String value = request.getHeader(headerNames[i]);
+            if (value != null) {
+                best = firstMatch(headerIndex[i].get(value), request, best);
+            }
+        }
+        for (int i = 0; i < queryNames.length; i++) {
+            String value = request.getQueryParam(queryNames[i]);
+            if (value != null) {
+                best = firstMatch(queryIndex[i].get(value), request, best);
+            }
+        }
+        best = firstMatch(unindexed, request, best);
+        return best != null ? best : fallback;
+    }
+
+    /**
+     * Same as {@link #select} but reuses a cached match for the unconditional variant
+     */
+    RouteMatch match(MockRequest request) {
+        MockEndpoint selected = select(request);
+        if (selected == null) {
+            return null;
+        }
+        return selected == fallback ? fallbackMatch : new RouteMatch(selected);
+    }
+
+    private static MockEndpoint firstMatch(MockEndpoint[] candidates, MockRequest request, MockEndpoint best) {
+        if (candidates == null) {
+            return best;
+        }
+        for (MockEndpoint candidate : candidates) {
+            if (best != null && candidate.getSpecificity() <= best.getSpecificity()) {
+                break;
+            }
+            if (candidate.matches(request)) {
+                return candidate;
+            }
+        }
+        return best;
+    }
+
+    private static RequestCondition discriminator(MockEndpoint endpoint) {
+        RequestCondition query = null;
+        for (RequestCondition condition : endpoint.getRequestConditions()) {
+            if (condition.getType() == MatchCondition.Type.HEADER) {
+                return condition;
+            }
+            if (query == null && condition.getType() == MatchCondition.Type.QUERY) {
+                query = condition;
+            }
+        }
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, MockEndpoint[]>[] freeze(String[] names, Map<String, Map<String, List<MockEndpoint>>> index) {
+        Map<String, MockEndpoint[]>[] frozen = new Map[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Map<String, MockEndpoint[]> values = new HashMap<>();
+            index.get(names[i]).forEach((value, endpoints) -> {
+                endpoints.sort(MOST_SPECIFIC_FIRST);
+                values.put(value, endpoints.toArray(new MockEndpoint[0]));
+            });
+            frozen[i] = values;
+        }
+        return frozen;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mockapi.server.service;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of resolving a request path: the matched endpoint plus any captured path variables
+ */
+@Getter
+public class RouteMatch {
+    private final MockEndpoint endpoint;
+    private final Map<String, String> pathVariables;
+
+    public RouteMatch(MockEndpoint endpoint, Map<String, String> pathVariables) {
+        this.endpoint = endpoint;
+        this.pathVariables = pathVariables != null ? pathVariables : Collections.emptyMap();
+    }
+
+    public RouteMatch(MockEndpoint endpoint) {
+        this(endpoint, Collections.emptyMap());
+    }
+}
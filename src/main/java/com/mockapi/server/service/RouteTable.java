@@ -0,0 +1,308 @@
+package com.mockapi.server.service;
+
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route table indexed first by HTTP method (RequestMethod ordinal) and then by path.
+ * Exact paths are hashed on the request URI as-is, so no intermediate key is built per
+ * request; path templates are served by a per-method {@link RouteTrie} that is recompiled
+ * whenever a template is added or removed. Each path maps to a {@link RouteEntry} holding
+ * the variants registered for it.
+ * <p>
+ * Everything readers need hangs off one {@link Snapshot}, fetched with a single volatile
+ * read per lookup. Single-route changes swap one immutable RouteEntry in place (or publish
+ * a snapshot with a recompiled trie); {@link #update} copies the maps it touches, and
+ * {@link #replaceAll} and {@link #clear} build a whole new snapshot, off to the side and
+ * published at once, so a reload never exposes an empty or half-filled table. Writers are
+ * serialized; readers never block.
+ */
+class RouteTable {
+
+    private static final RequestMethod[] METHODS = RequestMethod.values();
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    /**
+     * Resolve a method name without allocating; returns null for unsupported methods
+     */
+    static RequestMethod resolveMethod(String method) {
+        return method != null ? RequestMethod.resolve(method) : null;
+    }
+
+    MockEndpoint get(RequestMethod method, String path) {
+        RouteEntry route = find(method, path);
+        return route != null ? route.getDefault() : null;
+    }
+
+    boolean readsBody(RequestMethod method, String path) {
+        RouteEntry route = find(method, path);
+        return route != null && route.readsBody();
+    }
+
+    RouteMatch match(RequestMethod method, String path, MockRequest request) {
+        if (method == null || path == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        RouteEntry exact = current.exactRoutes[method.ordinal()].get(path);
+        if (exact != null) {
+            return exact.match(request);
+        }
+        return current.tries[method.ordinal()].match(path, request);
+    }
+
+    private RouteEntry find(RequestMethod method, String path) {
+        if (method == null || path == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        RouteEntry route = current.exactRoutes[method.ordinal()].get(path);
+        return route != null ? route : current.tries[method.ordinal()].find(path);
+    }
+
+    synchronized void put(MockEndpoint endpoint) {
+        int index = indexOf(endpoint);
+        Snapshot current = snapshot;
+        if (RouteTrie.isTemplate(endpoint.getPath())) {
+            // Check the template first so an invalid one never enters the table
+            RouteTrie.validate(endpoint.getPath());
+            merge(current.templateRoutes[index], endpoint);
+            snapshot = current.withTrie(index, RouteTrie.compile(current.templateRoutes[index].values()));
+        } else {
+            merge(current.exactRoutes[index], endpoint);
+        }
+    }
+
+    /**
+     * Add endpoints on top of the current table, replacing variants with identical
+     * conditions, and publish the result in one step. Invalid input changes nothing.
+     */
+    synchronized void putAll(Collection<MockEndpoint> endpoints) {
+        List<MockEndpoint> merged = new ArrayList<>(values());
+        merged.addAll(endpoints);
+        snapshot = Snapshot.build(merged);
+    }
+
+    /**
+     * Remove and add variants as one change: the route maps of the affected methods are
+     * copied, edited off to the side and published together with their recompiled tries in
+     * one step, so readers see either the old routes or all of the new ones. The cost
+     * follows the size of the affected methods' maps rather than of the whole table.
+     * Invalid input is rejected before anything changes.
+     */
+    synchronized void update(Collection<MockEndpoint> removed, Collection<MockEndpoint> added) {
+        added.forEach(RouteTable::validate);
+        Snapshot current = snapshot;
+        Map<String, RouteEntry>[] exact = current.exactRoutes.clone();
+        Map<String, RouteEntry>[] templates = current.templateRoutes.clone();
+        boolean[] copied = new boolean[METHODS.length * 2];
+        RouteTrie[] tries = current.tries.clone();
+        for (MockEndpoint endpoint : removed) {
+            RequestMethod method = resolveMethod(endpoint.getMethod());
+            if (method == null) {
+                continue;
+            }
+            Map<String, RouteEntry> routes = current.routes(endpoint.getPath(), method.ordinal());
+            RouteEntry route = routes.get(endpoint.getPath());
+            RouteEntry next = route != null ? route.without(endpoint) : null;
+            if (route == null || next == route) {
+                continue;
+            }
+            routes = copy(exact, templates, copied, endpoint.getPath(), method.ordinal());
+            if (next == null) {
+                routes.remove(endpoint.getPath());
+            } else {
+                routes.put(endpoint.getPath(), next);
+            }
+        }
+        for (MockEndpoint endpoint : added) {
+            merge(copy(exact, templates, copied, endpoint.getPath(), indexOf(endpoint)), endpoint);
+        }
+        for (int i = 0; i < METHODS.length; i++) {
+            if (copied[METHODS.length + i]) {
+                tries[i] = RouteTrie.compile(templates[i].values());
+            }
+        }
+        snapshot = new Snapshot(exact, templates, tries);
+    }
+
+    /**
+     * The working copy of the map holding the path's routes for the method, copied from the
+     * published one on first use
+     */
+    private static Map<String, RouteEntry> copy(Map<String, RouteEntry>[] exact,
+                                                Map<String, RouteEntry>[] templates, boolean[] copied,
+                                                String path, int index) {
+        boolean template = RouteTrie.isTemplate(path);
+        Map<String, RouteEntry>[] maps = template ? templates : exact;
+        int slot = template ? METHODS.length + index : index;
+        if (!copied[slot]) {
+            maps[index] = new ConcurrentHashMap<>(maps[index]);
+            copied[slot] = true;
+        }
+        return maps[index];
+    }
+
+    /**
+     * Build a table holding exactly the given endpoints and publish it in one step. Invalid
+     * input (unsupported method, malformed template) is rejected before anything changes.
+     */
+    void replaceAll(Collection<MockEndpoint> endpoints) {
+        Snapshot next = Snapshot.build(endpoints);
+        synchronized (this) {
+            snapshot = next;
+        }
+    }
+
+    /**
+     * Remove every variant registered for the route; returns whether anything was removed
+     */
+    synchronized boolean remove(RequestMethod method, String path) {
+        if (method == null || path == null) {
+            return false;
+        }
+        int index = method.ordinal();
+        Snapshot current = snapshot;
+        if (current.exactRoutes[index].remove(path) != null) {
+            return true;
+        }
+        if (current.templateRoutes[index].remove(path) != null) {
+            snapshot = current.withTrie(index, RouteTrie.compile(current.templateRoutes[index].values()));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a single variant; returns whether it was registered
+     */
+    synchronized boolean remove(MockEndpoint endpoint) {
+        RequestMethod method = resolveMethod(endpoint.getMethod());
+        if (method == null) {
+            return false;
+        }
+        int index = method.ordinal();
+        Snapshot current = snapshot;
+        boolean template = RouteTrie.isTemplate(endpoint.getPath());
+        Map<String, RouteEntry> routes = template ? current.templateRoutes[index] : current.exactRoutes[index];
+        RouteEntry route = routes.get(endpoint.getPath());
+        RouteEntry next = route != null ? route.without(endpoint) : null;
+        if (route == null || next == route) {
+            return false;
+        }
+        if (next == null) {
+            routes.remove(endpoint.getPath());
+        } else {
+            routes.put(endpoint.getPath(), next);
+        }
+        if (template) {
+            snapshot = current.withTrie(index, RouteTrie.compile(routes.values()));
+        }
+        return true;
+    }
+
+    List<MockEndpoint> values() {
+        Snapshot current = snapshot;
+        List<MockEndpoint> all = new ArrayList<>();
+        for (int i = 0; i < METHODS.length; i++) {
+            for (RouteEntry route : current.exactRoutes[i].values()) {
+                all.addAll(route.getVariants());
+            }
+            for (RouteEntry route : current.templateRoutes[i].values()) {
+                all.addAll(route.getVariants());
+            }
+        }
+        return all;
+    }
+
+    synchronized void clear() {
+        snapshot = Snapshot.empty();
+    }
+
+    /**
+     * Check that the endpoint can enter the table: a supported method, a path outside the
+     * admin API and, for a path template, one that compiles. Throws IllegalArgumentException.
+     */
+    static void validate(MockEndpoint endpoint) {
+        indexOf(endpoint);
+        if (RouteTrie.isTemplate(endpoint.getPath())) {
+            RouteTrie.validate(endpoint.getPath());
+        }
+    }
+
+    /**
+     * Validate the endpoint's method and path and return the method's index
+     */
+    private static int indexOf(MockEndpoint endpoint) {
+        if (MockService.isAdminPath(endpoint.getPath())) {
+            throw new IllegalArgumentException(MockService.ADMIN_PATH + " is reserved for the admin API: "
+                    + endpoint.getPath());
+        }
+        RequestMethod method = resolveMethod(endpoint.getMethod());
+        if (method == null) {
+            throw new IllegalArgumentException("Unsupported HTTP method: " + endpoint.getMethod());
+        }
+        return method.ordinal();
+    }
+
+    private static void merge(Map<String, RouteEntry> routes, MockEndpoint endpoint) {
+        routes.compute(endpoint.getPath(),
+                (path, route) -> route == null ? RouteEntry.of(endpoint) : route.with(endpoint));
+    }
+
+    /**
+     * Route maps and compiled tries for every method. The arrays are never modified after
+     * publication; a changed trie or map means a new snapshot sharing the untouched ones.
+     */
+    private static final class Snapshot {
+        private final Map<String, RouteEntry>[] exactRoutes;
+        private final Map<String, RouteEntry>[] templateRoutes;
+        private final RouteTrie[] tries;
+
+        private Snapshot(Map<String, RouteEntry>[] exactRoutes, Map<String, RouteEntry>[] templateRoutes,
+                         RouteTrie[] tries) {
+            this.exactRoutes = exactRoutes;
+            this.templateRoutes = templateRoutes;
+            this.tries = tries;
+        }
+
+        private static Snapshot empty() {
+            return build(List.of());
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Snapshot build(Collection<MockEndpoint> endpoints) {
+            Map<String, RouteEntry>[] exact = new Map[METHODS.length];
+            Map<String, RouteEntry>[] templates = new Map[METHODS.length];
+            for (int i = 0; i < METHODS.length; i++) {
+                exact[i] = new ConcurrentHashMap<>();
+                templates[i] = new ConcurrentHashMap<>();
+            }
+            for (MockEndpoint endpoint : endpoints) {
+                int index = indexOf(endpoint);
+                merge(RouteTrie.isTemplate(endpoint.getPath()) ? templates[index] : exact[index], endpoint);
+            }
+            RouteTrie[] tries = new RouteTrie[METHODS.length];
+            for (int i = 0; i < METHODS.length; i++) {
+                tries[i] = templates[i].isEmpty() ? RouteTrie.EMPTY : RouteTrie.compile(templates[i].values());
+            }
+            return new Snapshot(exact, templates, tries);
+        }
+
+        private Map<String, RouteEntry> routes(String path, int index) {
+            return RouteTrie.isTemplate(path) ? templateRoutes[index] : exactRoutes[index];
+        }
+
+        private Snapshot withTrie(int index, RouteTrie trie) {
+            RouteTrie[] next = tries.clone();
+            next[index] = trie;
+            return new Snapshot(exactRoutes, templateRoutes, next);
+        }
+    }
+}
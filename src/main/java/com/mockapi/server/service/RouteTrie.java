@@ -0,0 +1,301 @@
+package com.mockapi.server.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled radix trie over path templates for a single HTTP method.
+ * <p>
+ * Supported template syntax, one token per path segment:
+ * <ul>
+ *     <li>{@code {name}} - matches one segment and captures it as {@code name}</li>
+ *     <li>{@code *} - matches one segment without capturing</li>
+ *     <li>{@code **} - last segment only, matches the rest of the path</li>
+ * </ul>
+ * Literal runs are stored as compressed edges, so matching walks the request path once
+ * (literal before variable before catch-all, backtracking only on dead ends) and its cost
+ * depends on the path length rather than on the number of registered templates.
+ * A trie is immutable once compiled; registry changes compile a new one.
+ */
+final class RouteTrie {
+
+    static final RouteTrie EMPTY = new RouteTrie(new Node(""), 0, 0);
+
+    private final Node root;
+    private final int maxVariables;
+    private final int size;
+
+    private RouteTrie(Node root, int maxVariables, int size) {
+        this.root = root;
+        this.maxVariables = maxVariables;
+        this.size = size;
+    }
+
+    /**
+     * Whether the path contains template tokens and must be routed through the trie
+     */
+    static boolean isTemplate(String path) {
+        if (path == null) {
+            return false;
+        }
+        if (path.indexOf('{') >= 0) {
+            return true;
+        }
+        if (path.indexOf('*') < 0) {
+            return false;
+        }
+        for (String segment : path.split("/")) {
+            if ("*".equals(segment) || "**".equals(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static RouteTrie compile(Collection<RouteEntry> routes) {
+        if (routes.isEmpty()) {
+            return EMPTY;
+        }
+        Node root = new Node("");
+        int maxVariables = 0;
+        for (RouteEntry route : routes) {
+            maxVariables = Math.max(maxVariables, insert(root, route));
+        }
+        return new RouteTrie(root, maxVariables, routes.size());
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Find the route for a request path without capturing variables (allocation-free)
+     */
+    RouteEntry find(String path) {
+        Target target = matchChildren(root, path, 0, null, 0);
+        return target != null ? target.route : null;
+    }
+
+    /**
+     * Find the route for a request path, select its variant and capture path variables
+     */
+    RouteMatch match(String path, MockRequest request) {
+        if (size == 0) {
+            return null;
+        }
+        int[] bounds = new int[maxVariables * 2];
+        Target target = matchChildren(root, path, 0, bounds, 0);
+        if (target == null) {
+            return null;
+        }
+        MockEndpoint endpoint = target.route.select(request);
+        if (endpoint == null) {
+            return null;
+        }
+        if (target.variableNames.length == 0) {
+            return new RouteMatch(endpoint);
+        }
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (int i = 0; i < target.variableNames.length; i++) {
+            String name = target.variableNames[i];
+            if (name != null) {
+                variables.put(name, path.substring(bounds[i * 2], bounds[i * 2 + 1]));
+            }
+        }
+        return new RouteMatch(endpoint, variables);
+    }
+
+    private static Target matchNode(Node node, String path, int offset, int[] bounds, int depth) {
+        if (!path.startsWith(node.prefix, offset)) {
+            return null;
+        }
+        return matchChildren(node, path, offset + node.prefix.length(), bounds, depth);
+    }
+
+    private static Target matchChildren(Node node, String path, int offset, int[] bounds, int depth) {
+        if (offset == path.length()) {
+            if (node.target != null) {
+                return node.target;
+            }
+        } else {
+            char next = path.charAt(offset);
+            for (int i = 0; i < node.childCount; i++) {
+                if (node.indices[i] == next) {
+                    Target target = matchNode(node.children[i], path, offset, bounds, depth);
+                    if (target != null) {
+                        return target;
+                    }
+                    break;
+                }
+            }
+            if (node.variable != null && next != '/') {
+                int end = path.indexOf('/', offset);
+                if (end < 0) {
+                    end = path.length();
+                }
+                if (bounds != null) {
+                    bounds[depth * 2] = offset;
+                    bounds[depth * 2 + 1] = end;
+                }
+                Target target = matchChildren(node.variable, path, end, bounds, depth + 1);
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+        if (node.catchAll != null) {
+            return node.catchAll;
+        }
+        return null;
+    }
+
+    /**
+     * Insert one template and return the number of variable segments it uses
+     */
+    private static int insert(Node root, RouteEntry route) {
+        String path = route.getPath();
+        List<String> variableNames = new ArrayList<>();
+        Node node = root;
+        StringBuilder literal = new StringBuilder();
+
+        validate(path);
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (i > 0) {
+                literal.append('/');
+            }
+            if ("**".equals(segment)) {
+                node = insertLiteral(node, literal);
+                node.catchAll = new Target(route, variableNames);
+                return variableNames.size();
+            } else if ("*".equals(segment) || isVariable(segment)) {
+                node = insertLiteral(node, literal);
+                if (node.variable == null) {
+                    node.variable = new Node("");
+                }
+                node = node.variable;
+                variableNames.add("*".equals(segment) ? null : segment.substring(1, segment.length() - 1));
+            } else {
+                literal.append(segment);
+            }
+        }
+        node = insertLiteral(node, literal);
+        node.target = new Target(route, variableNames);
+        return variableNames.size();
+    }
+
+    /**
+     * Check a path template without building a trie; throws IllegalArgumentException if
+     * {@link #compile} would reject it
+     */
+    static void validate(String path) {
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only allowed as the last segment: " + path);
+                }
+            } else if (!"*".equals(segment) && !isVariable(segment)
+                    && (segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0)) {
+                throw new IllegalArgumentException("Path variables must span a whole segment: " + path);
+            }
+        }
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    /**
+     * Insert a literal run below the given node, splitting shared edges, and reset the buffer
+     */
+    private static Node insertLiteral(Node node, StringBuilder literal) {
+        String remaining = literal.toString();
+        literal.setLength(0);
+        while (!remaining.isEmpty()) {
+            Node child = node.childFor(remaining.charAt(0));
+            if (child == null) {
+                child = new Node(remaining);
+                node.addChild(child);
+                return child;
+            }
+            int common = commonPrefixLength(child.prefix, remaining);
+            if (common < child.prefix.length()) {
+                Node split = new Node(child.prefix.substring(0, common));
+                child.prefix = child.prefix.substring(common);
+                split.addChild(child);
+                node.replaceChild(split);
+                child = split;
+            }
+            node = child;
+            remaining = remaining.substring(common);
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String prefix;
+        private char[] indices = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private Node variable;
+        private Target target;
+        private Target catchAll;
+
+        private Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private Node childFor(char c) {
+            for (int i = 0; i < childCount; i++) {
+                if (indices[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            indices = Arrays.copyOf(indices, childCount + 1);
+            children = Arrays.copyOf(children, childCount + 1);
+            indices[childCount] = child.prefix.charAt(0);
+            children[childCount] = child;
+            childCount++;
+        }
+
+        private void replaceChild(Node child) {
+            char c = child.prefix.charAt(0);
+            for (int i = 0; i < childCount; i++) {
+                if (indices[i] == c) {
+                    children[i] = child;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Target {
+        private final RouteEntry route;
+        private final String[] variableNames;
+
+        private Target(RouteEntry route, List<String> variableNames) {
+            this.route = route;
+            this.variableNames = variableNames.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mockapi.server.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named state machine shared by the mock variants that reference it. The current state
+ * and the number of requests served in it are packed into one long, so a transition
+ * is a single compare-and-set: clients driving different scenarios never contend, and
+ * clients racing on the same one retry instead of blocking.
+ * <p>
+ * State names are interned to small ids when variants are registered; requests only
+ * compare ids.
+ */
+public final class Scenario {
+
+    public static final String STARTED = "Started";
+
+    /** Required state of variants that apply in any state */
+    static final int ANY_STATE = -1;
+
+    private final String name;
+    private final AtomicLong state = new AtomicLong();
+    private volatile String[] stateNames = {STARTED};
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getState() {
+        return stateNames[stateId(state.get())];
+    }
+
+    /**
+     * Jump straight to a state, clearing its request count
+     */
+    public void setState(String stateName) {
+        state.set(pack(intern(stateName), 0));
+    }
+
+    public void reset() {
+        state.set(0);
+    }
+
+    /**
+     * Id for a state name, assigning the next one on first use
+     */
+    synchronized int intern(String stateName) {
+        String[] names = stateNames;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(stateName)) {
+                return i;
+            }
+        }
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = stateName;
+        stateNames = grown;
+        return names.length;
+    }
+
+    boolean isIn(int stateId) {
+        return stateId == ANY_STATE || stateId(state.get()) == stateId;
+    }
+
+    /**
+     * Count a request served in {@code requiredState}, moving to {@code nextState} once
+     * {@code times} requests have been served there. Returns false if the scenario left
+     * the required state first, in which case the caller should select a variant again.
+     */
+    boolean advance(int requiredState, int nextState, int times) {
+        while (true) {
+            long current = state.get();
+            int stateId = stateId(current);
+            if (requiredState != ANY_STATE && stateId != requiredState) {
+                return false;
+            }
+            if (nextState == ANY_STATE) {
+                return true;
+            }
+            int hits = hits(current) + 1;
+            long next = hits >= times ? pack(nextState, 0) : pack(stateId, hits);
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static long pack(int stateId, int hits) {
+        return ((long) stateId << 32) | (hits & 0xFFFFFFFFL);
+    }
+
+    private static int stateId(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int hits(long packed) {
+        return (int) packed;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + getState();
+    }
+}
@@ -0,0 +1,36 @@
+package com.mockapi.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ties a mock variant to a named scenario: the variant is only selected while the
+ * scenario is in {@code requiredState} (any state when null), and after serving it
+ * {@code times} requests in that state moves the scenario to {@code newState}.
+ * A fresh scenario starts in {@link Scenario#STARTED}.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioRule {
+    private String name;
+    private String requiredState;
+    private String newState;
+    /**
+     * Requests served in the required state before moving on; 1 when unset
+     */
+    private int times;
+
+    public ScenarioRule(String name, String requiredState, String newState) {
+        this(name, requiredState, newState, 1);
+    }
+
+    @Override
+    public String toString() {
+        return name + "[" + (requiredState != null ? requiredState : "*")
+                + (newState != null ? " -> " + newState + (times > 1 ? " after " + times : "") : "") + "]";
+    }
+}
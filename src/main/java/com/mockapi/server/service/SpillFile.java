@@ -0,0 +1,110 @@
+package com.mockapi.server.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size file used as a ring of bytes for message contents kept off the heap. Writers
+ * reserve space by bumping a shared position and write there with positional I/O, so they
+ * never wait on each other; the oldest contents are overwritten once the ring wraps. The
+ * file is deleted when closed.
+ */
+final class SpillFile implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long size;
+    private final AtomicLong reserved = new AtomicLong();
+
+    SpillFile(Path directory, long size) throws IOException {
+        this(directory, "messages", size);
+    }
+
+    /**
+     * A new file in the directory whose name starts with {@code name}, so several rings can
+     * share a directory
+     */
+    SpillFile(Path directory, String name, long size) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, name + "-", ".spill");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        this.size = size;
+    }
+
+    /**
+     * Whether content of this many bytes fits without overwriting itself
+     */
+    boolean fits(int length) {
+        return length <= size;
+    }
+
+    /**
+     * Write the content and return its position, for {@link #read}
+     */
+    long write(byte[] content) {
+        long position = reserved.getAndAdd(content.length);
+        try {
+            transfer(ByteBuffer.wrap(content), position, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return position;
+    }
+
+    /**
+     * Content written at the position, or null once it has been overwritten
+     */
+    String read(long position, int length) {
+        if (overwritten(position)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            transfer(buffer, position, false);
+        } catch (IOException e) {
+            return null;
+        }
+        // A writer may have wrapped around onto the content while it was being read
+        return overwritten(position) ? null : new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether content written at the position is still in the file
+     */
+    boolean holds(long position) {
+        return !overwritten(position);
+    }
+
+    private boolean overwritten(long position) {
+        return reserved.get() - position > size;
+    }
+
+    private void transfer(ByteBuffer buffer, long position, boolean write) throws IOException {
+        long offset = position % size;
+        while (buffer.hasRemaining()) {
+            // Content crossing the end of the file continues at its start
+            int chunk = (int) Math.min(buffer.remaining(), size - offset);
+            ByteBuffer part = buffer.slice(buffer.position(), chunk);
+            while (part.hasRemaining()) {
+                int done = write ? channel.write(part, offset + part.position()) : channel.read(part, offset + part.position());
+                if (done < 0) {
+                    throw new IOException("Unexpected end of spill file");
+                }
+            }
+            buffer.position(buffer.position() + chunk);
+            offset = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
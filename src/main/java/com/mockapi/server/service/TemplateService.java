@@ -1,69 +1,548 @@
 package com.mockapi.server.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Service for managing endpoint templates
+ * Service for managing endpoint templates. The library is parsed in the background with
+ * Jackson's streaming API, so startup doesn't wait for it, and indexed by category and
+ * template name; callers only block if they ask before the first load has finished.
+ * Templates come from {@code api_templates.json} on the classpath unless
+ * {@code mockapi.templates.file} names an external file, which can be reloaded at runtime.
+ * <p>
+ * {@code mockapi.templates.dir} adds a watched directory of template files (*.json, same
+ * format) whose templates join the index and are registered as live mocks. Only files
+ * that changed are re-parsed, and only the categories and mocks they contribute are
+ * replaced, so a reload costs as much as the change rather than the whole library.
+ * Directory mocks are not persisted: the directory is their source of truth, so a file
+ * deleted or edited while the server was down never leaves stale mocks behind.
  */
 @Service
-public class TemplateService {
+public class TemplateService implements AutoCloseable {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private List<TemplateCategory> categories;
+    private static final String CLASSPATH_TEMPLATES = "api_templates.json";
+    private static final String BASE_SOURCE = "";
+    private static final long SETTLE_MILLIS = 50;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader TEMPLATES_READER =
+            OBJECT_MAPPER.readerFor(new TypeReference<List<EndpointTemplate>>() {});
+
+    private final Path templatesDir;
+    private final MockService mockService;
+    private volatile Path templatesFile;
+    private volatile CompletableFuture<TemplateIndex> index;
+
+    // Guarded by this; current is published through index once the first load is done
+    private TemplateIndex current = TemplateIndex.EMPTY;
+    private boolean loaded;
+    private Map<String, List<EndpointTemplate>> baseCategories = Map.of();
+    private final Map<String, Map<String, List<EndpointTemplate>>> sources = new HashMap<>();
+    private final Map<Path, TemplateFile> files = new HashMap<>();
+    private final Map<String, Path> mockOwners = new HashMap<>();
+    private final Map<String, Map<String, List<EndpointTemplate>>> imported = new HashMap<>();
+    private WatchService watcher;
 
     public TemplateService() {
-        loadTemplates();
+        this("");
+    }
+
+    public TemplateService(String templatesFile) {
+        this(templatesFile, "", null);
+    }
+
+    @Autowired
+    public TemplateService(@Value("${mockapi.templates.file:}") String templatesFile,
+                           @Value("${mockapi.templates.dir:}") String templatesDir,
+                           MockService mockService) {
+        this.templatesFile = templatesFile != null && !templatesFile.isBlank() ? Path.of(templatesFile) : null;
+        this.templatesDir = templatesDir != null && !templatesDir.isBlank() ? Path.of(templatesDir) : null;
+        this.mockService = mockService;
+        this.index = CompletableFuture.supplyAsync(this::loadTemplates,
+                task -> Thread.ofPlatform().daemon().name("template-loader").start(task));
     }
 
     /**
-     * Load templates from JSON file
+     * Initial load; a missing or unreadable library leaves the template menu empty
      */
-    private void loadTemplates() {
+    private synchronized TemplateIndex loadTemplates() {
+        long start = System.nanoTime();
         try {
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream("api_templates.json");
-            if (inputStream != null) {
-                categories = objectMapper.readValue(inputStream, new TypeReference<List<TemplateCategory>>() {});
-                System.out.println("✅ Loaded " + categories.size() + " template categories");
-            } else {
-                System.out.println("⚠️ api_templates.json not found, using empty list");
-                categories = new ArrayList<>();
-            }
+            setBase(read());
         } catch (IOException e) {
             System.out.println("❌ Error loading templates: " + e.getMessage());
-            categories = new ArrayList<>();
         }
+        if (templatesDir != null) {
+            watchDirectory();
+        }
+        loaded = true;
+        System.out.println("✅ Loaded " + current.categories.size() + " template categories ("
+                + current.templateCount + " templates) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return current;
     }
 
     /**
      * Get all template categories
      */
     public List<TemplateCategory> getCategories() {
-        return categories;
+        return index().categories;
     }
 
     /**
      * Get templates by category name
      */
     public List<EndpointTemplate> getTemplatesByCategory(String categoryName) {
-        return categories.stream()
-                .filter(cat -> cat.getName().equals(categoryName))
-                .findFirst()
-                .map(TemplateCategory::getEndpoints)
-                .orElse(new ArrayList<>());
+        CategoryIndex category = index().byCategory.get(categoryName);
+        return category != null ? category.category.getEndpoints() : List.of();
     }
 
     /**
-     * Reload templates from file
+     * A template by category and template name, or null
      */
-    public void reloadTemplates() {
-        loadTemplates();
+    public EndpointTemplate getTemplate(String categoryName, String templateName) {
+        CategoryIndex category = index().byCategory.get(categoryName);
+        return category != null ? category.byName.get(templateName) : null;
+    }
+
+    public int getTemplateCount() {
+        return index().templateCount;
+    }
+
+    /**
+     * File the templates are read from, or null for the bundled classpath library
+     */
+    public Path getTemplatesFile() {
+        return templatesFile;
+    }
+
+    /**
+     * Watched template directory, or null
+     */
+    public Path getTemplatesDir() {
+        return templatesDir;
+    }
+
+    /**
+     * Reload templates from their current source and pick up any directory changes the
+     * watcher missed; on failure the loaded templates stay in place
+     */
+    public void reloadTemplates() throws IOException {
+        index();
+        synchronized (this) {
+            reload();
+        }
+    }
+
+    /**
+     * Switch to an external template file and load it; on failure nothing changes
+     */
+    public void reloadTemplates(Path file) throws IOException {
+        index();
+        synchronized (this) {
+            Path previous = templatesFile;
+            templatesFile = file;
+            try {
+                reload();
+            } catch (IOException e) {
+                templatesFile = previous;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Add generated templates, e.g. from an imported API spec, replacing whatever the same
+     * source added before; they stay until the source is imported again
+     */
+    public void putTemplates(String source, List<TemplateCategory> categories) {
+        index();
+        synchronized (this) {
+            Map<String, List<EndpointTemplate>> next = new LinkedHashMap<>();
+            for (TemplateCategory category : categories) {
+                next.computeIfAbsent(category.getName(), key -> new ArrayList<>()).addAll(category.getEndpoints());
+            }
+            applySource(source, imported.getOrDefault(source, Map.of()), next);
+            imported.put(source, next);
+        }
+    }
+
+    /**
+     * Stop watching the template directory
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private TemplateIndex index() {
+        return index.join();
+    }
+
+    private void reload() throws IOException {
+        setBase(read());
+        if (templatesDir != null) {
+            refresh(listDirectory());
+        }
+        System.out.println("🔄 Reloaded " + current.templateCount + " templates");
+    }
+
+    private TemplateIndex read() throws IOException {
+        Path file = templatesFile;
+        if (file != null) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return parse(input);
+            }
+        }
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CLASSPATH_TEMPLATES)) {
+            if (input == null) {
+                System.out.println("⚠️ " + CLASSPATH_TEMPLATES + " not found, using empty list");
+                return TemplateIndex.EMPTY;
+            }
+            return parse(input);
+        }
+    }
+
+    private void setBase(TemplateIndex library) {
+        Map<String, List<EndpointTemplate>> next = library.toCategories();
+        applySource(BASE_SOURCE, baseCategories, next);
+        baseCategories = next;
+    }
+
+    /**
+     * Replace one source's contribution to the index; only the categories it had or now
+     * has are rebuilt, each from the templates every source gives it, in source order
+     */
+    private void applySource(String source, Map<String, List<EndpointTemplate>> previous,
+                             Map<String, List<EndpointTemplate>> next) {
+        Set<String> touched = new LinkedHashSet<>(previous.keySet());
+        touched.addAll(next.keySet());
+        Map<String, List<EndpointTemplate>> changed = new LinkedHashMap<>();
+        for (String category : touched) {
+            Map<String, List<EndpointTemplate>> contributions = sources.computeIfAbsent(category, key -> new TreeMap<>());
+            List<EndpointTemplate> templates = next.get(category);
+            if (templates != null) {
+                contributions.put(source, templates);
+            } else {
+                contributions.remove(source);
+            }
+            List<EndpointTemplate> merged = new ArrayList<>();
+            contributions.values().forEach(merged::addAll);
+            if (contributions.isEmpty()) {
+                sources.remove(category);
+            }
+            changed.put(category, merged);
+        }
+        current = current.with(changed);
+        if (loaded) {
+            index = CompletableFuture.completedFuture(current);
+        }
+    }
+
+    /**
+     * Load the directory and keep it in sync from a daemon thread. The watch is registered
+     * before the first scan so nothing written in between is missed.
+     */
+    private void watchDirectory() {
+        try {
+            watcher = templatesDir.getFileSystem().newWatchService();
+            templatesDir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            refresh(listDirectory());
+            WatchService service = watcher;
+            Thread.ofPlatform().daemon().name("template-watcher").start(() -> watch(service));
+            System.out.println("👀 Watching " + files.size() + " template files in " + templatesDir);
+        } catch (IOException e) {
+            System.out.println("❌ Cannot watch template directory " + templatesDir + ": " + e.getMessage());
+        }
     }
-}
 
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = false;
+                // Editors and copies emit bursts of events per change; let them settle first
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            changed.add(templatesDir.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.out.println("⚠️ Template directory " + templatesDir + " is no longer accessible");
+                        return;
+                    }
+                } while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                synchronized (this) {
+                    refresh(overflow ? listDirectory() : changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shut down
+        } catch (IOException e) {
+            System.out.println("❌ Template directory watch stopped: " + e.getMessage());
+        }
+    }
+
+    private Set<Path> listDirectory() throws IOException {
+        Set<Path> listed = new HashSet<>(files.keySet());
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(templatesDir, "*.json")) {
+            entries.forEach(listed::add);
+        }
+        return listed;
+    }
+
+    /**
+     * Re-read the given files whose size or modification time changed and apply the
+     * difference to the index and the mock registry
+     */
+    private void refresh(Set<Path> changed) {
+        long start = System.nanoTime();
+        List<MockEndpoint> removed = new ArrayList<>();
+        Map<String, MockEndpoint> added = new LinkedHashMap<>();
+        int refreshed = 0;
+        for (Path file : changed) {
+            if (file.getFileName().toString().endsWith(".json") && refreshFile(file, removed, added)) {
+                refreshed++;
+            }
+        }
+        if (refreshed == 0) {
+            return;
+        }
+        if (mockService != null) {
+            try {
+                mockService.updateMocks(removed, added.values(), false);
+            } catch (IllegalArgumentException e) {
+                System.out.println("❌ Template mocks not applied: " + e.getMessage());
+            }
+        }
+        System.out.println("🔄 Reloaded " + refreshed + " template files (-" + removed.size() + " +"
+                + added.size() + " mocks) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private boolean refreshFile(Path file, List<MockEndpoint> removed, Map<String, MockEndpoint> added) {
+        TemplateFile previous = files.get(file);
+        TemplateFile next;
+        if (Files.isRegularFile(file)) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (previous != null && previous.isCurrent(attributes)) {
+                    return false;
+                }
+                next = TemplateFile.read(file, attributes);
+            } catch (IOException | IllegalArgumentException e) {
+                // Possibly still being written, or invalid; the file keeps its previous mocks
+                // and the next event for it retries
+                System.out.println("⚠️ Skipping template file " + file.getFileName() + ": " + e.getMessage());
+                return false;
+            }
+        } else if (previous != null) {
+            next = null;
+        } else {
+            return false;
+        }
+
+        applySource(file.getFileName().toString(), previous != null ? previous.categories : Map.of(),
+                next != null ? next.categories : Map.of());
+        if (next != null) {
+            files.put(file, next);
+            next.endpoints.forEach((key, endpoint) -> {
+                mockOwners.put(key, file);
+                added.put(key, endpoint);
+            });
+        } else {
+            files.remove(file);
+        }
+        if (previous != null) {
+            for (Map.Entry<String, MockEndpoint> entry : previous.endpoints.entrySet()) {
+                String key = entry.getKey();
+                if ((next == null || !next.endpoints.containsKey(key)) && file.equals(mockOwners.get(key))) {
+                    mockOwners.remove(key);
+                    removed.add(entry.getValue());
+                    added.remove(key);
+                    reassign(key, added);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hand a mock dropped by the file that defined it to another file that still defines it
+     */
+    private void reassign(String key, Map<String, MockEndpoint> added) {
+        for (Map.Entry<Path, TemplateFile> other : files.entrySet()) {
+            MockEndpoint endpoint = other.getValue().endpoints.get(key);
+            if (endpoint != null) {
+                mockOwners.put(key, other.getKey());
+                added.put(key, endpoint);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Walk the category array token by token and bind each category's endpoint array in
+     * one call, so the whole document is never held at once and unknown category fields are skipped
+     */
+    static TemplateIndex parse(InputStream input) throws IOException {
+        Map<String, List<EndpointTemplate>> categories = new LinkedHashMap<>();
+        try (JsonParser parser = OBJECT_MAPPER.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Template library must be a JSON array of categories");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                List<EndpointTemplate> endpoints = new ArrayList<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("name".equals(field)) {
+                        name = parser.getValueAsString();
+                    } else if ("endpoints".equals(field) && value == JsonToken.START_ARRAY) {
+                        endpoints.addAll(TEMPLATES_READER.<List<EndpointTemplate>>readValue(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                categories.computeIfAbsent(name != null ? name : "", key -> new ArrayList<>()).addAll(endpoints);
+            }
+        }
+        return TemplateIndex.EMPTY.with(categories);
+    }
+
+    /**
+     * One file of the watched directory: the templates it contributes and the mocks built from them
+     */
+    private static final class TemplateFile {
+
+        private final long modified;
+        private final long size;
+        private final Map<String, List<EndpointTemplate>> categories;
+        private final Map<String, MockEndpoint> endpoints;
+
+        private TemplateFile(BasicFileAttributes attributes, Map<String, List<EndpointTemplate>> categories,
+                             Map<String, MockEndpoint> endpoints) {
+            this.modified = attributes.lastModifiedTime().toMillis();
+            this.size = attributes.size();
+            this.categories = categories;
+            this.endpoints = endpoints;
+        }
+
+        private static TemplateFile read(Path file, BasicFileAttributes attributes) throws IOException {
+            Map<String, List<EndpointTemplate>> categories;
+            try (InputStream input = Files.newInputStream(file)) {
+                categories = parse(input).toCategories();
+            }
+            Map<String, MockEndpoint> endpoints = new LinkedHashMap<>();
+            int number = 0;
+            for (List<EndpointTemplate> templates : categories.values()) {
+                for (EndpointTemplate template : templates) {
+                    MockEndpoint endpoint = MockImporter.toEndpoint(template, "Template #" + ++number);
+                    // Skip the whole file, like a parse error, if the route table would refuse any of its mocks
+                    RouteTable.validate(endpoint);
+                    endpoints.put(endpoint.variantKey(), endpoint);
+                }
+            }
+            return new TemplateFile(attributes, categories, endpoints);
+        }
+
+        private boolean isCurrent(BasicFileAttributes attributes) {
+            return modified == attributes.lastModifiedTime().toMillis() && size == attributes.size();
+        }
+    }
+
+    /**
+     * Immutable view of the templates; a change publishes a new one sharing the untouched categories
+     */
+    static final class TemplateIndex {
+
+        private static final TemplateIndex EMPTY = new TemplateIndex(new LinkedHashMap<>());
+
+        private final Map<String, CategoryIndex> byCategory;
+        private final List<TemplateCategory> categories;
+        private final int templateCount;
+
+        private TemplateIndex(LinkedHashMap<String, CategoryIndex> byCategory) {
+            List<TemplateCategory> categoryList = new ArrayList<>(byCategory.size());
+            int count = 0;
+            for (CategoryIndex category : byCategory.values()) {
+                categoryList.add(category.category);
+                count += category.category.getEndpoints().size();
+            }
+            this.byCategory = byCategory;
+            this.categories = Collections.unmodifiableList(categoryList);
+            this.templateCount = count;
+        }
+
+        /**
+         * Copy with the given categories replaced; an empty category is dropped
+         */
+        private TemplateIndex with(Map<String, List<EndpointTemplate>> changed) {
+            LinkedHashMap<String, CategoryIndex> next = new LinkedHashMap<>(byCategory);
+            changed.forEach((name, endpoints) -> {
+                if (endpoints.isEmpty()) {
+                    next.remove(name);
+                } else {
+                    next.put(name, new CategoryIndex(name, endpoints));
+                }
+            });
+            return new TemplateIndex(next);
+        }
+
+        private Map<String, List<EndpointTemplate>> toCategories() {
+            Map<String, List<EndpointTemplate>> loaded = new LinkedHashMap<>();
+            byCategory.forEach((name, category) -> loaded.put(name, category.category.getEndpoints()));
+            return loaded;
+        }
+    }
+
+    private static final class CategoryIndex {
+
+        private final TemplateCategory category;
+        private final Map<String, EndpointTemplate> byName = new HashMap<>();
+
+        private CategoryIndex(String name, List<EndpointTemplate> endpoints) {
+            this.category = new TemplateCategory(name, Collections.unmodifiableList(endpoints));
+            for (EndpointTemplate template : endpoints) {
+                if (template.getName() != null) {
+                    byName.putIfAbsent(template.getName(), template);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mockapi.server.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared hashed timer wheel for simulated latency.
+ * <p>
+ * Scheduling is a lock-free enqueue; a single ticker thread moves new timeouts into
+ * their bucket and, once per tick, fires the ones that are due. Expired tasks run on
+ * virtual threads, so delayed responses never park a request thread and a slow task
+ * cannot hold up the wheel. Precision is one tick.
+ */
+@Component
+public class TimerWheel {
+
+    private final long tickNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread ticker;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean running = true;
+
+    public TimerWheel(@Value("${mockapi.latency.tick-ms:1}") long tickMs,
+                      @Value("${mockapi.latency.wheel-size:1024}") int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        int size = Integer.highestOneBit(Math.max(16, wheelSize - 1) << 1);
+        this.mask = size - 1;
+        this.buckets = newBuckets(size);
+        this.ticker = Thread.ofPlatform().daemon().name("mockapi-timer-wheel").start(this::run);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Timeout>[] newBuckets(int size) {
+        List<Timeout>[] buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * Run the task after the given delay; non-positive delays run it right away
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayNanos = unit.toNanos(delay);
+        if (delayNanos <= 0) {
+            executor.execute(task);
+            return;
+        }
+        long deadlineTick = (System.nanoTime() - startNanos + delayNanos + tickNanos - 1) / tickNanos;
+        pending.add(new Timeout(deadlineTick, task));
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+                if (!running) {
+                    return;
+                }
+            }
+            tick++;
+            transferPending(tick);
+            List<Timeout> bucket = buckets[(int) (tick & mask)];
+            for (int i = bucket.size() - 1; i >= 0; i--) {
+                Timeout timeout = bucket.get(i);
+                if (timeout.deadlineTick <= tick) {
+                    int last = bucket.size() - 1;
+                    bucket.set(i, bucket.get(last));
+                    bucket.remove(last);
+                    fire(timeout);
+                }
+            }
+        }
+    }
+
+    private void transferPending(long tick) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.deadlineTick <= tick) {
+                fire(timeout);
+            } else {
+                buckets[(int) (timeout.deadlineTick & mask)].add(timeout);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        try {
+            executor.execute(timeout.task);
+        } catch (RuntimeException e) {
+            System.out.println("❌ Timer task rejected: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+        executor.shutdownNow();
+    }
+
+    private static final class Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+    }
+}
@@ -2,13 +2,24 @@ package com.mockapi.server.ui;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mockapi.server.service.BulkPublishJob;
+import com.mockapi.server.service.BulkPublishRequest;
+import com.mockapi.server.service.BulkPublishStats;
+import com.mockapi.server.service.LatencyProfile;
+import com.mockapi.server.service.LoadTestRequest;
+import com.mockapi.server.service.MockConsumer;
+import com.mockapi.server.service.MockConsumerRequest;
+import com.mockapi.server.service.MockConsumerStats;
+import com.mockapi.server.service.MockReply;
 import com.mockapi.server.service.RabbitMQService;
+import com.mockapi.server.service.MessageHistory;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Consumer;
 
 public class RabbitMQPanel extends JPanel {
@@ -24,6 +35,7 @@ public class RabbitMQPanel extends JPanel {
 
     private static final String UI_FONT = UIHelper.getSystemUIFont();
     private static final String MONO_FONT = UIHelper.getSystemMonoFont();
+    private static final int MESSAGES_PAGE_SIZE = 100;
 
     private final RabbitMQService rabbitMQService;
     private final Consumer<String> logConsumer;
@@ -36,6 +48,14 @@ public class RabbitMQPanel extends JPanel {
     private JTextArea rabbitMessageArea;
     private JButton messagesToggleButton;
     private JPanel messagesListPanel;
+    private JButton bulkButton;
+    private JLabel bulkStatusLabel;
+    private BulkPublishJob bulkJob;
+    private Timer bulkTimer;
+    private JButton consumerButton;
+    private JLabel consumerStatusLabel;
+    private MockConsumer mockConsumer;
+    private Timer consumerTimer;
 
     public RabbitMQPanel(RabbitMQService rabbitMQService, Consumer<String> logConsumer) {
         this.rabbitMQService = rabbitMQService;
@@ -235,7 +255,49 @@ public class RabbitMQPanel extends JPanel {
         sendButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
         sendButton.addActionListener(e -> sendMessage());
 
+        bulkButton = new JButton("⇶ Bulk Send...");
+        bulkButton.setFont(new Font("Segoe UI Symbol", Font.PLAIN, 12));
+        bulkButton.setOpaque(true);
+        bulkButton.setBackground(new Color(240, 240, 240));
+        bulkButton.setFocusPainted(false);
+        bulkButton.setBorderPainted(false);
+        bulkButton.setContentAreaFilled(true);
+        bulkButton.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(200, 200, 200)),
+            new EmptyBorder(8, 20, 8, 20)
+        ));
+        bulkButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        bulkButton.setToolTipText("Publish many messages with publisher confirms, as fast as possible or at a target rate");
+        bulkButton.addActionListener(e -> bulkSend());
+
+        bulkStatusLabel = new JLabel();
+        bulkStatusLabel.setFont(new Font(MONO_FONT, Font.PLAIN, 11));
+        bulkStatusLabel.setForeground(new Color(100, 100, 100));
+
+        consumerButton = new JButton("👂 Mock Consumer...");
+        consumerButton.setFont(new Font("Segoe UI Symbol", Font.PLAIN, 12));
+        consumerButton.setOpaque(true);
+        consumerButton.setBackground(new Color(240, 240, 240));
+        consumerButton.setFocusPainted(false);
+        consumerButton.setBorderPainted(false);
+        consumerButton.setContentAreaFilled(true);
+        consumerButton.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(200, 200, 200)),
+            new EmptyBorder(8, 20, 8, 20)
+        ));
+        consumerButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        consumerButton.setToolTipText("Listen on the queue, record what arrives and answer RPC requests");
+        consumerButton.addActionListener(e -> toggleMockConsumer());
+
+        consumerStatusLabel = new JLabel();
+        consumerStatusLabel.setFont(new Font(MONO_FONT, Font.PLAIN, 11));
+        consumerStatusLabel.setForeground(new Color(100, 100, 100));
+
+        buttonPanel.add(consumerStatusLabel);
+        buttonPanel.add(bulkStatusLabel);
         buttonPanel.add(clearButton);
+        buttonPanel.add(consumerButton);
+        buttonPanel.add(bulkButton);
         buttonPanel.add(sendButton);
 
         add(fieldsPanel, BorderLayout.CENTER);
@@ -313,6 +375,244 @@ public class RabbitMQPanel extends JPanel {
         }
     }
 
+    private void bulkSend() {
+        if (bulkJob != null && !bulkJob.isDone()) {
+            // The button stops the running job
+            bulkJob.cancel();
+            bulkButton.setEnabled(false);
+            return;
+        }
+
+        String queue = queueField.getText().trim();
+        String exchange = exchangeField.getText().trim();
+        if (queue.isEmpty() && exchange.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Queue name or Exchange must be provided!",
+                "Validation Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JComboBox<String> sourceBox = new JComboBox<>(new String[]{
+            "Message above × count ({{seq}}, {{uuid}}, {{now}})",
+            "NDJSON file (one message per line)",
+            "File content × count"});
+        JTextField fileField = new JTextField(24);
+        JButton browseButton = new JButton("Browse...");
+        browseButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                fileField.setText(chooser.getSelectedFile().getAbsolutePath());
+            }
+        });
+        JPanel filePanel = new JPanel(new BorderLayout(5, 0));
+        filePanel.add(fileField, BorderLayout.CENTER);
+        filePanel.add(browseButton, BorderLayout.EAST);
+        JTextField countField = new JTextField("10000");
+        JTextField channelsField = new JTextField();
+        channelsField.setToolTipText("Parallel publishing channels; empty uses the configured default");
+        JTextField inFlightField = new JTextField();
+        inFlightField.setToolTipText("Messages awaiting a confirm at once; empty uses the configured default");
+        JTextField rateField = new JTextField();
+        rateField.setToolTipText("Publish at this many messages per second for the duration instead of a count");
+        JTextField durationField = new JTextField("60");
+        JTextField rampUpField = new JTextField("0");
+        JTextField burstRateField = new JTextField();
+        burstRateField.setToolTipText("Rate during bursts; empty for a steady rate");
+        JTextField burstEveryField = new JTextField("60");
+        JTextField burstLengthField = new JTextField("5");
+
+        JPanel form = new JPanel(new GridLayout(0, 2, 5, 5));
+        form.add(new JLabel("Source:"));
+        form.add(sourceBox);
+        form.add(new JLabel("File:"));
+        form.add(filePanel);
+        form.add(new JLabel("Count:"));
+        form.add(countField);
+        form.add(new JLabel("Channels:"));
+        form.add(channelsField);
+        form.add(new JLabel("Max In-Flight:"));
+        form.add(inFlightField);
+        form.add(new JLabel("Rate (msg/s, optional):"));
+        form.add(rateField);
+        form.add(new JLabel("Duration (s):"));
+        form.add(durationField);
+        form.add(new JLabel("Ramp-up (s):"));
+        form.add(rampUpField);
+        form.add(new JLabel("Burst Rate (msg/s):"));
+        form.add(burstRateField);
+        form.add(new JLabel("Burst Every (s):"));
+        form.add(burstEveryField);
+        form.add(new JLabel("Burst Length (s):"));
+        form.add(burstLengthField);
+
+        if (JOptionPane.showConfirmDialog(this, form, "Bulk Send", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        boolean load = !rateField.getText().isBlank();
+        BulkPublishRequest request = load ? new LoadTestRequest() : new BulkPublishRequest();
+        String vhost = vhostField.getText().trim();
+        request.setVirtualHost(vhost.isEmpty() ? null : vhost);
+        request.setQueue(queue);
+        request.setExchange(exchange);
+        request.setRoutingKey(routingField.getText().trim());
+        request.setJson("application/json".equals(contentTypeBox.getSelectedItem()));
+        int source = sourceBox.getSelectedIndex();
+        if (source == 0) {
+            request.setTemplate(rabbitMessageArea.getText().trim());
+        } else {
+            request.setFile(fileField.getText().trim());
+            request.setNdjson(source == 1);
+        }
+
+        try {
+            request.setCount(countField.getText().isBlank() ? 0 : Long.parseLong(countField.getText().trim()));
+            request.setChannels(channelsField.getText().isBlank() ? 0 : Integer.parseInt(channelsField.getText().trim()));
+            request.setMaxInFlight(inFlightField.getText().isBlank() ? 0 : Integer.parseInt(inFlightField.getText().trim()));
+            if (request instanceof LoadTestRequest loadTest) {
+                loadTest.setRate(Double.parseDouble(rateField.getText().trim()));
+                loadTest.setDurationSeconds(Double.parseDouble(durationField.getText().trim()));
+                loadTest.setRampUpSeconds(rampUpField.getText().isBlank() ? 0 : Double.parseDouble(rampUpField.getText().trim()));
+                if (!burstRateField.getText().isBlank()) {
+                    loadTest.setBurstRate(Double.parseDouble(burstRateField.getText().trim()));
+                    loadTest.setBurstEverySeconds(Double.parseDouble(burstEveryField.getText().trim()));
+                    loadTest.setBurstSeconds(Double.parseDouble(burstLengthField.getText().trim()));
+                }
+                bulkJob = rabbitMQService.startLoadTest(loadTest);
+            } else {
+                bulkJob = rabbitMQService.publishBulk(request);
+            }
+        } catch (Exception ex) {
+            logConsumer.accept(String.format("❌ Error: %s\n", ex.getMessage()));
+            JOptionPane.showMessageDialog(this,
+                "Failed to start bulk send:\n" + ex.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        logConsumer.accept(String.format("📦 %s #%d started to %s (VHost: %s)\n", load ? "Load run" : "Bulk send",
+            bulkJob.getId(), request.destination(), vhost.isEmpty() ? "default" : vhost));
+        bulkButton.setText("■ Stop Bulk");
+        bulkTimer = new Timer(500, e -> updateBulkStatus());
+        bulkTimer.start();
+        updateBulkStatus();
+    }
+
+    private void updateBulkStatus() {
+        BulkPublishStats stats = bulkJob.getStats();
+        String progress = stats.getTotal() >= 0
+            ? String.format("%,d/%,d", stats.getConfirmed(), stats.getTotal())
+            : String.format("%,d", stats.getConfirmed());
+        long rate = bulkJob.isDone() ? stats.getMessagesPerSecond() : stats.getCurrentRate();
+        String throughput = stats.getTargetRate() > 0
+            ? String.format("%,d of %,d msg/s · backlog %,d", rate, stats.getTargetRate(), stats.getBacklog())
+            : String.format("%,d msg/s", rate);
+        bulkStatusLabel.setText(String.format("📦 %s confirmed · %s · confirm p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+            progress, throughput, stats.getP50ConfirmMicros() / 1000.0, stats.getP99ConfirmMicros() / 1000.0,
+            stats.getMaxConfirmMicros() / 1000.0));
+        if (!bulkJob.isDone()) {
+            return;
+        }
+        bulkTimer.stop();
+        bulkButton.setText("⇶ Bulk Send...");
+        bulkButton.setEnabled(true);
+        String summary = String.format("%s Job #%d %s: %,d confirmed, %,d failed in %,d ms (%s, p99 confirm %.1f ms)%s\n",
+            stats.getState() == BulkPublishJob.State.FAILED ? "❌" : "✅", stats.getId(),
+            stats.getState().name().toLowerCase(Locale.ROOT), stats.getConfirmed(), stats.getFailed(),
+            stats.getElapsedMillis(), throughput, stats.getP99ConfirmMicros() / 1000.0, stats.getError() != null ? " - " + stats.getError() : "");
+        logConsumer.accept(summary);
+    }
+
+    private void toggleMockConsumer() {
+        if (mockConsumer != null) {
+            // The button stops the running consumer
+            rabbitMQService.stopConsumer(mockConsumer.getId());
+            consumerTimer.stop();
+            MockConsumerStats stats = mockConsumer.getStats();
+            logConsumer.accept(String.format("✅ Mock consumer #%d stopped: %,d received, %,d replied, %,d failed\n",
+                stats.getId(), stats.getReceived(), stats.getReplied(), stats.getFailed()));
+            mockConsumer = null;
+            consumerButton.setText("👂 Mock Consumer...");
+            consumerStatusLabel.setText("");
+            return;
+        }
+
+        String queue = queueField.getText().trim();
+        if (queue.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Queue name must be provided!",
+                "Validation Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JCheckBox replyBox = new JCheckBox("Answer RPC requests with the message above ({{header.*}}, {{body.*}})", true);
+        JTextField delayField = new JTextField("0");
+        JTextField concurrencyField = new JTextField();
+        concurrencyField.setToolTipText("Concurrent consumers; empty uses the configured default");
+        JTextField prefetchField = new JTextField();
+        prefetchField.setToolTipText("Unacknowledged deliveries per consumer; empty uses the configured default");
+        JTextField ackBatchField = new JTextField();
+        ackBatchField.setToolTipText("Deliveries acknowledged together; empty uses the configured default");
+
+        JPanel form = new JPanel(new GridLayout(0, 2, 5, 5));
+        form.add(new JLabel("Reply:"));
+        form.add(replyBox);
+        form.add(new JLabel("Reply Delay (ms):"));
+        form.add(delayField);
+        form.add(new JLabel("Concurrency:"));
+        form.add(concurrencyField);
+        form.add(new JLabel("Prefetch:"));
+        form.add(prefetchField);
+        form.add(new JLabel("Ack Batch Size:"));
+        form.add(ackBatchField);
+
+        if (JOptionPane.showConfirmDialog(this, form, "Mock Consumer on " + queue, JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        MockConsumerRequest request = new MockConsumerRequest();
+        String vhost = vhostField.getText().trim();
+        request.setVirtualHost(vhost.isEmpty() ? null : vhost);
+        request.setQueue(queue);
+        try {
+            if (replyBox.isSelected()) {
+                long delay = delayField.getText().isBlank() ? 0 : Long.parseLong(delayField.getText().trim());
+                request.setReplies(List.of(new MockReply(null, rabbitMessageArea.getText().trim(),
+                    (String) contentTypeBox.getSelectedItem(), delay > 0 ? LatencyProfile.fixed(delay) : null)));
+            }
+            request.setConcurrency(concurrencyField.getText().isBlank() ? 0 : Integer.parseInt(concurrencyField.getText().trim()));
+            request.setPrefetch(prefetchField.getText().isBlank() ? 0 : Integer.parseInt(prefetchField.getText().trim()));
+            request.setAckBatchSize(ackBatchField.getText().isBlank() ? 0 : Integer.parseInt(ackBatchField.getText().trim()));
+            mockConsumer = rabbitMQService.startConsumer(request);
+        } catch (Exception ex) {
+            logConsumer.accept(String.format("❌ Error: %s\n", ex.getMessage()));
+            JOptionPane.showMessageDialog(this,
+                "Failed to start mock consumer:\n" + ex.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        logConsumer.accept(String.format("👂 Mock consumer #%d listening on %s (VHost: %s)\n",
+            mockConsumer.getId(), queue, vhost.isEmpty() ? "default" : vhost));
+        consumerButton.setText("■ Stop Consumer");
+        consumerTimer = new Timer(500, e -> updateConsumerStatus());
+        consumerTimer.start();
+        updateConsumerStatus();
+    }
+
+    private void updateConsumerStatus() {
+        MockConsumerStats stats = mockConsumer.getStats();
+        consumerStatusLabel.setText(String.format("👂 %,d received · %,d replied · %,d/%,d consumers%s",
+            stats.getReceived(), stats.getReplied(), stats.getActiveConsumers(), stats.getConcurrency(),
+            stats.getError() != null ? " · " + stats.getError() : ""));
+    }
+
     private JPanel createMessagesListPanel() {
         messagesListPanel = new JPanel(new BorderLayout());
         messagesListPanel.setBackground(Color.WHITE);
@@ -349,53 +649,19 @@ public class RabbitMQPanel extends JPanel {
             scrollPane.setVisible(!isVisible);
 
             if (!isVisible) {
-                // Expand - refresh list
+                // Expand - refresh list from a snapshot, one page at a time
                 listPanel.removeAll();
-                List<RabbitMQService.QueueMessage> messages = rabbitMQService.getSentMessages();
+                MessageHistory.View messages = rabbitMQService.getSentMessages();
                 messagesToggleButton.setText("▼ Collapse - Sent Messages (" + messages.size() + ")");
 
-                if (messages.isEmpty()) {
+                if (messages.size() == 0) {
                     JLabel emptyLabel = new JLabel("No messages sent yet");
                     emptyLabel.setFont(new Font(UI_FONT, Font.ITALIC, 11));
                     emptyLabel.setForeground(Color.GRAY);
                     emptyLabel.setBorder(new EmptyBorder(10, 10, 10, 10));
                     listPanel.add(emptyLabel);
                 } else {
-                    for (RabbitMQService.QueueMessage message : messages) {
-                        JPanel itemPanel = new JPanel(new BorderLayout(5, 5));
-                        itemPanel.setBackground(Color.WHITE);
-                        itemPanel.setBorder(BorderFactory.createCompoundBorder(
-                                BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(230, 230, 230)),
-                                new EmptyBorder(8, 10, 8, 10)
-                        ));
-
-                        // Info panel
-                        JPanel infoPanel = new JPanel();
-                        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-                        infoPanel.setBackground(Color.WHITE);
-
-                        JLabel destLabel = new JLabel(message.getDestination());
-                        destLabel.setFont(new Font(MONO_FONT, Font.BOLD, 11));
-                        destLabel.setForeground(new Color(255, 87, 34));
-
-                        JLabel vhostLabel = new JLabel("VHost: " + (message.getVirtualHost() != null ? message.getVirtualHost() : "default"));
-                        vhostLabel.setFont(new Font(UI_FONT, Font.PLAIN, 10));
-                        vhostLabel.setForeground(Color.GRAY);
-
-                        JLabel contentLabel = new JLabel("Content: " +
-                                (message.getContent().length() > 50 ?
-                                        message.getContent().substring(0, 50) + "..." :
-                                        message.getContent()));
-                        contentLabel.setFont(new Font(MONO_FONT, Font.PLAIN, 10));
-                        contentLabel.setForeground(new Color(100, 100, 100));
-
-                        infoPanel.add(destLabel);
-                        infoPanel.add(vhostLabel);
-                        infoPanel.add(contentLabel);
-
-                        itemPanel.add(infoPanel, BorderLayout.CENTER);
-                        listPanel.add(itemPanel);
-                    }
+                    addMessagesPage(listPanel, messages, 0);
                 }
 
                 listPanel.revalidate();
@@ -406,7 +672,7 @@ public class RabbitMQPanel extends JPanel {
                 messagesListPanel.repaint();
             } else {
                 // Collapse
-                messagesToggleButton.setText("▶ Expand - Sent Messages (" + rabbitMQService.getSentMessages().size() + ")");
+                messagesToggleButton.setText("▶ Expand - Sent Messages (" + rabbitMQService.getSentMessageCount() + ")");
             }
         });
 
@@ -416,9 +682,61 @@ public class RabbitMQPanel extends JPanel {
         return messagesListPanel;
     }
 
+    private void addMessagesPage(JPanel listPanel, MessageHistory.View messages, int offset) {
+        List<RabbitMQService.QueueMessage> page = messages.page(offset, MESSAGES_PAGE_SIZE);
+        for (RabbitMQService.QueueMessage message : page) {
+            JPanel itemPanel = new JPanel(new BorderLayout(5, 5));
+            itemPanel.setBackground(Color.WHITE);
+            itemPanel.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(230, 230, 230)),
+                    new EmptyBorder(8, 10, 8, 10)
+            ));
+
+            // Info panel
+            JPanel infoPanel = new JPanel();
+            infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+            infoPanel.setBackground(Color.WHITE);
+
+            JLabel destLabel = new JLabel(message.getDestination());
+            destLabel.setFont(new Font(MONO_FONT, Font.BOLD, 11));
+            destLabel.setForeground(new Color(255, 87, 34));
+
+            JLabel vhostLabel = new JLabel("VHost: " + (message.getVirtualHost() != null ? message.getVirtualHost() : "default"));
+            vhostLabel.setFont(new Font(UI_FONT, Font.PLAIN, 10));
+            vhostLabel.setForeground(Color.GRAY);
+
+            JLabel contentLabel = new JLabel("Content: " + message.getPreview(50)
+                    + (message.getContentLength() > 50 ? "..." : ""));
+            contentLabel.setFont(new Font(MONO_FONT, Font.PLAIN, 10));
+            contentLabel.setForeground(new Color(100, 100, 100));
+
+            infoPanel.add(destLabel);
+            infoPanel.add(vhostLabel);
+            infoPanel.add(contentLabel);
+
+            itemPanel.add(infoPanel, BorderLayout.CENTER);
+            listPanel.add(itemPanel);
+        }
+
+        int shown = offset + page.size();
+        if (page.size() == MESSAGES_PAGE_SIZE && shown < messages.size()) {
+            JButton moreButton = new JButton("Show more (" + (messages.size() - shown) + " older)");
+            moreButton.setFont(new Font(UI_FONT, Font.PLAIN, 11));
+            moreButton.setFocusPainted(false);
+            moreButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            moreButton.addActionListener(e -> {
+                listPanel.remove(moreButton);
+                addMessagesPage(listPanel, messages, shown);
+                listPanel.revalidate();
+                listPanel.repaint();
+            });
+            listPanel.add(moreButton);
+        }
+    }
+
     private void updateMessagesList(JPanel listContent) {
         listContent.removeAll();
-        List<RabbitMQService.QueueMessage> messages = rabbitMQService.getSentMessages();
+        List<RabbitMQService.QueueMessage> messages = rabbitMQService.getSentMessages(0, MESSAGES_PAGE_SIZE);
 
         if (messages.isEmpty()) {
             JLabel emptyLabel = new JLabel("No messages sent yet");
@@ -444,9 +762,9 @@ public class RabbitMQPanel extends JPanel {
                 JLabel destLabel = new JLabel(destination);
                 destLabel.setFont(new Font(MONO_FONT, Font.BOLD, 11));
 
-                String messagePreview = msg.getContent();
-                if (messagePreview.length() > 50) {
-                    messagePreview = messagePreview.substring(0, 50) + "...";
+                String messagePreview = msg.getPreview(50);
+                if (msg.getContentLength() > 50) {
+                    messagePreview = messagePreview + "...";
                 }
                 JLabel msgLabel = new JLabel(messagePreview);
                 msgLabel.setFont(new Font(MONO_FONT, Font.PLAIN, 10));
@@ -467,7 +785,7 @@ public class RabbitMQPanel extends JPanel {
 
     private void updateMessagesButton() {
         if (messagesToggleButton != null) {
-            int count = rabbitMQService.getSentMessages().size();
+            int count = rabbitMQService.getSentMessageCount();
             String currentText = messagesToggleButton.getText();
             if (currentText.startsWith("▼")) {
                 // Button is expanded, don't update to avoid closing it
@@ -293,7 +293,12 @@ public class RestApiPanel extends JPanel {
             return;
         }
 
-        mockService.addMock(path, method, statusCode, json, contentType);
+        try {
+            mockService.addMock(path, method, statusCode, json, contentType);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
         System.out.println("DEBUG: Mock added - " + method + " " + path + " (Status: " + statusCode + ")");
         System.out.println("DEBUG: Total endpoints now: " + mockService.getMocksList().size());
@@ -455,9 +460,11 @@ public class RestApiPanel extends JPanel {
                 pathLabel.setFont(new Font(MONO_FONT, Font.BOLD, 13));
                 pathLabel.setForeground(new Color(33, 33, 33));
 
-                JLabel detailsLabel = new JLabel(String.format("Status: %d  •  Content-Type: %s",
+                JLabel detailsLabel = new JLabel(String.format("Status: %d  •  Content-Type: %s%s%s",
                         endpoint.getStatusCode(),
-                        endpoint.getContentType() != null ? endpoint.getContentType() : "application/json"));
+                        endpoint.getContentType() != null ? endpoint.getContentType() : "application/json",
+                        endpoint.isConditional() ? "  •  Match: " + endpoint.getConditions() : "",
+                        endpoint.isDelayed() ? "  •  Latency: " + endpoint.getLatency() : ""));
                 detailsLabel.setFont(new Font(UI_FONT, Font.PLAIN, 10));
                 detailsLabel.setForeground(new Color(117, 117, 117));
 
@@ -501,7 +508,7 @@ public class RestApiPanel extends JPanel {
                             JOptionPane.WARNING_MESSAGE);
 
                     if (confirm == JOptionPane.YES_OPTION) {
-                        boolean removed = mockService.removeMock(endpoint.getPath(), endpoint.getMethod());
+                        boolean removed = mockService.removeMock(endpoint);
                         if (removed) {
                             logConsumer.accept(String.format("🗑️ Endpoint deleted: %s %s\n",
                                     endpoint.getMethod(), endpoint.getPath()));
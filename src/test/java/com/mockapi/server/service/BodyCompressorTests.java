@@ -0,0 +1,70 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyCompressorTests {
+
+	private static String largeJson(int items) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < items; i++) {
+			json.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"status\":\"active\"}");
+		}
+		return json.append("]").toString();
+	}
+
+	@Test
+	void negotiatesPreferredEncoding() {
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br"));
+		assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("br, *;q=0.1"));
+		assertNull(ContentEncoding.negotiate("identity"));
+		assertNull(ContentEncoding.negotiate("gzip;q=0, deflate;q=0"));
+		assertNull(ContentEncoding.negotiate(null));
+	}
+
+	@Test
+	void compressesOnceAndCachesVariant() throws IOException {
+		BodyCompressor compressor = new BodyCompressor(1024, 16);
+		String body = largeJson(1000);
+		MockEndpoint endpoint = new MockEndpoint("/users", "GET", 200, body);
+
+		EncodedBody gzip = compressor.encode(endpoint, ContentEncoding.GZIP);
+		assertNotNull(gzip);
+		assertSame(gzip, compressor.encode(endpoint, ContentEncoding.GZIP));
+		assertTrue(gzip.getContentLength() < endpoint.getContentLength() / 5);
+		assertNotEquals(endpoint.getETag(), gzip.getETag());
+		assertEquals(gzip.getContentLength(), compressor.getUsedBytes());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		gzip.writeTo(out);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void skipsSmallDynamicAndBinaryBodies() {
+		BodyCompressor compressor = new BodyCompressor(1024, 16);
+		assertNull(compressor.encode(new MockEndpoint("/small", "GET", 200, "{}"), ContentEncoding.GZIP));
+		assertNull(compressor.encode(new MockEndpoint("/users/{id}", "GET", 200, "{\"id\":\"{{path.id}}\"," + largeJson(100).substring(1)),
+				ContentEncoding.GZIP));
+		assertNull(compressor.encode(new MockEndpoint("/logo", "GET", 200, largeJson(100), "image/png"), ContentEncoding.GZIP));
+	}
+
+	@Test
+	void servesUncompressedOnceBudgetIsSpent() {
+		BodyCompressor compressor = new BodyCompressor(1024, 0);
+		MockEndpoint endpoint = new MockEndpoint("/users", "GET", 200, largeJson(1000));
+
+		assertNull(compressor.encode(endpoint, ContentEncoding.GZIP));
+		assertEquals(0, compressor.getUsedBytes());
+	}
+}
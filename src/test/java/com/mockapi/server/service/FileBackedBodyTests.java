@@ -0,0 +1,70 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileBackedBodyTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void resolvesSingleByteRanges() {
+		ByteRange range = ByteRange.resolve("bytes=10-19", null, null, 100);
+		assertEquals(10, range.getStart());
+		assertEquals(10, range.getLength());
+		assertEquals("bytes 10-19/100", range.contentRange(100));
+
+		assertEquals(90, ByteRange.resolve("bytes=10-", null, null, 100).getLength());
+		assertEquals(90, ByteRange.resolve("bytes=10-500", null, null, 100).getLength());
+		assertEquals(75, ByteRange.resolve("bytes=-25", null, null, 100).getStart());
+		assertEquals(0, ByteRange.resolve("bytes=-500", null, null, 100).getStart());
+		assertSame(ByteRange.UNSATISFIABLE, ByteRange.resolve("bytes=100-", null, null, 100));
+	}
+
+	@Test
+	void servesWholeBodyForUnsupportedOrStaleRanges() {
+		assertNull(ByteRange.resolve(null, null, null, 100));
+		assertNull(ByteRange.resolve("bytes=0-1,5-6", null, null, 100));
+		assertNull(ByteRange.resolve("bytes=20-10", null, null, 100));
+		assertNull(ByteRange.resolve("items=0-1", null, null, 100));
+		assertNull(ByteRange.resolve("bytes=a-b", null, null, 100));
+		assertNull(ByteRange.resolve("bytes=0-9", "\"old\"", "\"new\"", 100));
+		assertNotNull(ByteRange.resolve("bytes=0-9", "\"new\"", "\"new\"", 100));
+	}
+
+	@Test
+	void mapsBodyFileInsteadOfHoldingItOnHeap() throws IOException {
+		byte[] content = new byte[300_000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		Path file = Files.write(dir.resolve("download.bin"), content);
+		MockEndpoint endpoint = new MockEndpoint("/download", "GET", 200, null, "application/octet-stream",
+				null, null, file);
+
+		assertTrue(endpoint.isFileBacked());
+		assertFalse(endpoint.isDynamic());
+		assertEquals(content.length, endpoint.getContentLength());
+		assertTrue(endpoint.getDirectBody().isDirect());
+
+		ByteArrayOutputStream whole = new ByteArrayOutputStream();
+		endpoint.writeBody(whole);
+		assertArrayEquals(content, whole.toByteArray());
+
+		ByteArrayOutputStream part = new ByteArrayOutputStream();
+		endpoint.writeBody(part, 100_000, 70_000);
+		byte[] expected = new byte[70_000];
+		System.arraycopy(content, 100_000, expected, 0, expected.length);
+		assertArrayEquals(expected, part.toByteArray());
+
+		assertNull(new BodyCompressor(0, 16).encode(endpoint, ContentEncoding.GZIP));
+	}
+}
@@ -0,0 +1,67 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyProfileTests {
+
+	@Test
+	void fixedAndUniformDelaysStayInRange() {
+		assertEquals(25, LatencyProfile.fixed(25).sampleDelayMillis());
+		for (int i = 0; i < 1000; i++) {
+			long delay = LatencyProfile.uniform(10, 20).sampleDelayMillis();
+			assertTrue(delay >= 10 && delay <= 20, "delay " + delay);
+		}
+	}
+
+	@Test
+	void percentileProfileHitsRequestedPercentiles() {
+		LatencyProfile profile = LatencyProfile.percentiles(40, 800);
+		long[] samples = new long[200_000];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = profile.sampleDelayMillis();
+		}
+		Arrays.sort(samples);
+
+		long p50 = samples[samples.length / 2];
+		long p99 = samples[samples.length * 99 / 100];
+		assertTrue(p50 >= 36 && p50 <= 44, "p50 " + p50);
+		assertTrue(p99 >= 680 && p99 <= 920, "p99 " + p99);
+	}
+
+	@Test
+	void percentileProfileRespectsCap() {
+		LatencyProfile profile = LatencyProfile.percentiles(40, 800);
+		profile.setMaxMs(100);
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(profile.sampleDelayMillis() <= 100);
+		}
+	}
+
+	@Test
+	void timerWheelFiresAfterDelay() throws InterruptedException {
+		TimerWheel wheel = new TimerWheel(1, 64);
+		try {
+			CountDownLatch fired = new CountDownLatch(2);
+			AtomicLong elapsed = new AtomicLong();
+			long start = System.nanoTime();
+			wheel.schedule(() -> {
+				elapsed.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				fired.countDown();
+			}, 150, TimeUnit.MILLISECONDS);
+			// Longer than one revolution of the 64-slot wheel
+			wheel.schedule(fired::countDown, 200, TimeUnit.MILLISECONDS);
+
+			assertTrue(fired.await(5, TimeUnit.SECONDS));
+			assertTrue(elapsed.get() >= 150, "fired after " + elapsed.get() + " ms");
+		} finally {
+			wheel.stop();
+		}
+	}
+}
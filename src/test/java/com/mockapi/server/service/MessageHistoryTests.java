@@ -0,0 +1,115 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageHistoryTests {
+
+	private static List<String> contents(List<RabbitMQService.QueueMessage> messages) {
+		return messages.stream().map(RabbitMQService.QueueMessage::getContent).toList();
+	}
+
+	@Test
+	void keepsTheNewestMessagesAndPagesNewestFirst() {
+		MessageHistory history = new MessageHistory(4);
+		for (int i = 0; i < 10; i++) {
+			history.add("orders", "/", "m" + i, false);
+		}
+		assertEquals(4, history.size());
+
+		MessageHistory.View view = history.snapshot();
+		assertEquals(4, view.size());
+		assertEquals(List.of("m9", "m8", "m7", "m6"), contents(view.page(0, 10)));
+		assertEquals(List.of("m7", "m6"), contents(view.page(2, 2)));
+		assertTrue(view.page(4, 10).isEmpty());
+	}
+
+	@Test
+	void snapshotIgnoresLaterMessagesAndDropsOverwrittenOnes() {
+		MessageHistory history = new MessageHistory(4);
+		for (int i = 0; i < 4; i++) {
+			history.add("orders", "/", "m" + i, false);
+		}
+		MessageHistory.View view = history.snapshot();
+
+		history.add("orders", "/", "m4", false);
+		history.add("orders", "/", "m5", false);
+		assertEquals(List.of("m3", "m2"), contents(view.page(0, 10)));
+		assertEquals(List.of("m5", "m4", "m3", "m2"), contents(history.snapshot().page(0, 10)));
+
+		history.clear();
+		assertEquals(0, history.size());
+		assertTrue(view.page(0, 10).isEmpty());
+		history.add("orders", "/", "m6", false);
+		assertEquals(List.of("m6"), contents(history.snapshot().page(0, 10)));
+	}
+
+	@Test
+	void concurrentPublishersKeepEveryRecentMessage() throws Exception {
+		MessageHistory history = new MessageHistory(1000);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			int thread = t;
+			executor.submit(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					history.add("orders", "/", thread + ":" + i, false);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		List<RabbitMQService.QueueMessage> page = history.snapshot().page(0, 2000);
+		assertEquals(1000, history.size());
+		assertEquals(1000, page.size());
+		Set<String> distinct = new HashSet<>(contents(page));
+		assertEquals(1000, distinct.size());
+	}
+
+	@Test
+	void truncatesLongContent() {
+		MessageHistory history = new MessageHistory(4, 5, null);
+		history.add("orders", "/", "short", false);
+		history.add("orders", "/", "much longer", false);
+
+		List<RabbitMQService.QueueMessage> page = history.snapshot().page(0, 2);
+		RabbitMQService.QueueMessage cut = page.get(0);
+		assertEquals("much ", cut.getContent());
+		assertEquals(11, cut.getContentLength());
+		assertTrue(cut.isTruncated());
+		assertFalse(page.get(1).isTruncated());
+	}
+
+	@Test
+	void spillsLongContentUntilTheSpillFileWraps(@TempDir Path dir) throws Exception {
+		try (MessageHistory history = new MessageHistory(8, 4, new SpillFile(dir, 64))) {
+			String first = "{\"id\":1,\"name\":\"ş\"}";
+			history.add("orders", "/", first, true);
+			RabbitMQService.QueueMessage spilled = history.snapshot().page(0, 1).get(0);
+			assertEquals(first, spilled.getContent());
+			assertEquals("{\"id", spilled.getPreview(50));
+			assertFalse(spilled.isTruncated());
+
+			// Too big for the spill file at all
+			history.add("orders", "/", "x".repeat(100), false);
+			assertEquals("xxxx", history.snapshot().page(0, 1).get(0).getContent());
+
+			for (int i = 0; i < 4; i++) {
+				history.add("orders", "/", "message number " + i, false);
+			}
+			assertTrue(spilled.isTruncated());
+			assertEquals("{\"id", spilled.getContent());
+			assertEquals("message number 3", history.snapshot().page(0, 1).get(0).getContent());
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockImporterTests {
+
+	private static ImportResult importMocks(MockImporter importer, String input, boolean replace) throws IOException {
+		return importer.importMocks(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), replace);
+	}
+
+	@Test
+	void importsJsonArrayAndNdjson() throws IOException {
+		MockService mockService = new MockService();
+		MockImporter importer = new MockImporter(mockService);
+
+		ImportResult array = importMocks(importer, "[{\"path\":\"/a\",\"method\":\"GET\",\"response\":\"a\"},"
+				+ "{\"path\":\"/b\",\"method\":\"POST\",\"statusCode\":201,\"response\":\"b\","
+				+ "\"conditions\":[{\"type\":\"HEADER\",\"name\":\"X-Mode\",\"value\":\"test\"}]}]", false);
+		assertEquals(2, array.getImported());
+		assertEquals(200, mockService.getMockEndpoint("/a", "GET").getStatusCode());
+		assertEquals(1, mockService.getMocksList().stream().filter(MockEndpoint::isConditional).count());
+
+		ImportResult ndjson = importMocks(importer, "{\"path\":\"/c\",\"method\":\"GET\",\"response\":\"c\"}\n"
+				+ "{\"path\":\"/a\",\"method\":\"GET\",\"response\":\"a2\"}\n", false);
+		assertEquals(2, ndjson.getImported());
+		assertEquals(3, ndjson.getTotal());
+		assertEquals("a2", mockService.getMockResponse("/a", "GET"));
+	}
+
+	@Test
+	void replaceSwapsWholeRegistry() throws IOException {
+		MockService mockService = new MockService();
+		mockService.addMock("/old", "GET", "old");
+		MockImporter importer = new MockImporter(mockService);
+
+		ImportResult result = importMocks(importer, "{\"path\":\"/new\",\"method\":\"GET\",\"response\":\"new\"}", true);
+		assertTrue(result.isReplaced());
+		assertEquals(1, result.getTotal());
+		assertNull(mockService.getMockEndpoint("/old", "GET"));
+		assertEquals("new", mockService.getMockResponse("/new", "GET"));
+	}
+
+	@Test
+	void invalidDefinitionRejectsWholeBatch() {
+		MockService mockService = new MockService();
+		mockService.addMock("/kept", "GET", "kept");
+		MockImporter importer = new MockImporter(mockService);
+
+		IllegalArgumentException badMethod = assertThrows(IllegalArgumentException.class, () -> importMocks(importer,
+				"{\"path\":\"/a\",\"method\":\"GET\"}\n{\"path\":\"/b\",\"method\":\"FETCH\"}", true));
+		assertTrue(badMethod.getMessage().startsWith("Mock #2"));
+		IllegalArgumentException malformed = assertThrows(IllegalArgumentException.class, () -> importMocks(importer,
+				"[{\"path\":\"/a\",\"method\":\"GET\"}, {\"path\":", true));
+		assertTrue(malformed.getMessage().startsWith("Mock #2"));
+		assertThrows(IllegalArgumentException.class, () -> importMocks(importer,
+				"{\"path\":\"/__admin/mocks\",\"method\":\"GET\"}", false));
+
+		assertEquals(1, mockService.getMocksList().size());
+		assertEquals("kept", mockService.getMockResponse("/kept", "GET"));
+	}
+}
@@ -0,0 +1,124 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockServiceTests {
+
+	private static List<MockEndpoint> generation(int generation, int count) {
+		List<MockEndpoint> endpoints = new ArrayList<>(count + 1);
+		for (int i = 0; i < count; i++) {
+			endpoints.add(new MockEndpoint("/users/" + i, "GET", 200, "{\"generation\":" + generation + "}"));
+		}
+		endpoints.add(new MockEndpoint("/accounts/{id}", "GET", 200, "{\"generation\":" + generation + "}"));
+		return endpoints;
+	}
+
+	@Test
+	void replaceAllMocksSwapsRegistryAtomically() throws InterruptedException {
+		MockService mockService = new MockService();
+		mockService.replaceAllMocks(generation(0, 50_000));
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger misses = new AtomicInteger();
+		Thread reader = new Thread(() -> {
+			int i = 0;
+			while (running.get()) {
+				if (mockService.getMockEndpoint(RequestMethod.GET, "/users/" + (i++ % 50_000)) == null
+						|| mockService.match(RequestMethod.GET, "/accounts/42") == null) {
+					misses.incrementAndGet();
+				}
+			}
+		});
+		reader.start();
+		for (int generation = 1; generation <= 5; generation++) {
+			mockService.replaceAllMocks(generation(generation, 50_000));
+		}
+		running.set(false);
+		reader.join();
+
+		assertEquals(0, misses.get());
+		assertEquals(50_001, mockService.getMocksList().size());
+		assertEquals("{\"generation\":5}", mockService.getMockResponse("/users/49999", "GET"));
+	}
+
+	@Test
+	void replaceAllMocksRejectsInvalidInputWithoutChanges() {
+		MockService mockService = new MockService();
+		mockService.addMock("/health", "GET", "{}");
+
+		List<MockEndpoint> invalid = List.of(
+				new MockEndpoint("/users", "GET", 200, "[]"),
+				new MockEndpoint("/files/**/raw", "GET", 200, "{}"));
+		assertThrows(IllegalArgumentException.class, () -> mockService.replaceAllMocks(invalid));
+
+		assertNotNull(mockService.getMockEndpoint("/health", "GET"));
+		assertNull(mockService.getMockEndpoint("/users", "GET"));
+	}
+
+	@Test
+	void updateMocksAppliesRemovalsAndAdditionsAtomically() throws InterruptedException {
+		MockService mockService = new MockService();
+		List<MockEndpoint> previous = List.of(
+				new MockEndpoint("/orders", "GET", 200, "{\"generation\":0}"),
+				new MockEndpoint("/orders/{id}", "GET", 200, "{\"generation\":0}"));
+		mockService.addMocks(previous);
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger misses = new AtomicInteger();
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				if (mockService.getMockEndpoint(RequestMethod.GET, "/orders") == null
+						|| mockService.match(RequestMethod.GET, "/orders/42") == null) {
+					misses.incrementAndGet();
+				}
+			}
+		});
+		reader.start();
+		for (int generation = 1; generation <= 2_000; generation++) {
+			List<MockEndpoint> next = List.of(
+					new MockEndpoint("/orders", "GET", 200, "{\"generation\":" + generation + "}"),
+					new MockEndpoint("/orders/{id}", "GET", 200, "{\"generation\":" + generation + "}"));
+			mockService.updateMocks(previous, next);
+			previous = next;
+		}
+		running.set(false);
+		reader.join();
+
+		assertEquals(0, misses.get());
+		assertEquals(2, mockService.getMocksList().size());
+		assertEquals("{\"generation\":2000}", mockService.getMockResponse("/orders", "GET"));
+	}
+
+	@Test
+	void rejectsMocksUnderTheAdminPath() {
+		MockService mockService = new MockService();
+		assertThrows(IllegalArgumentException.class, () -> mockService.addMock("/__admin/mocks", "GET", "{}"));
+		assertThrows(IllegalArgumentException.class, () -> mockService.addMocks(
+				List.of(new MockEndpoint("/__admin", "GET", 200, "{}"))));
+		assertThrows(IllegalArgumentException.class, () -> mockService.updateMocks(List.of(),
+				List.of(new MockEndpoint("/__admin/{any}", "GET", 200, "{}"))));
+
+		mockService.addMock("/__administrator", "GET", "{}");
+		assertEquals(1, mockService.getMocksList().size());
+	}
+
+	@Test
+	void incrementalChangesApplyOnTopOfReplacedRegistry() {
+		MockService mockService = new MockService();
+		mockService.replaceAllMocks(generation(1, 10));
+		mockService.addMock("/orders/{id}", "GET", 200, "{}");
+		assertTrue(mockService.removeMock("/users/0", "GET"));
+
+		assertNotNull(mockService.match(RequestMethod.GET, "/orders/7"));
+		assertNotNull(mockService.match(RequestMethod.GET, "/accounts/7"));
+		assertNull(mockService.getMockEndpoint("/users/0", "GET"));
+	}
+}
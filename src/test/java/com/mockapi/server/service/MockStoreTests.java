@@ -0,0 +1,169 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private final List<MockStore> stores = new ArrayList<>();
+
+	@AfterEach
+	void closeStores() throws IOException {
+		for (MockStore store : stores) {
+			store.close();
+		}
+	}
+
+	private MockStore store(int snapshotEvery) {
+		MockStore store = new MockStore(directory.toString(), snapshotEvery, false);
+		stores.add(store);
+		return store;
+	}
+
+	private MockService open(int snapshotEvery) {
+		return new MockService(new BodyCompressor(1024, 256), store(snapshotEvery));
+	}
+
+	private List<String> files() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	@Test
+	void restoresChangesFromLog() {
+		MockService first = open(1000);
+		first.addMock(new MockEndpoint("/orders/{id}", "GET", 200, "{\"id\":\"{{path.id}}\"}", "application/json",
+				List.of(MatchCondition.header("X-Tenant", "acme")), LatencyProfile.uniform(5, 10)));
+		first.addMock(new EndpointTemplate(null, "/login", "POST", 200, "ok", "text/plain", null, null, null,
+				new ScenarioRule("auth", Scenario.STARTED, "LoggedIn"), null));
+		first.addMock("/orders/{id}", "GET", 404, "{}");
+		first.addMock("/gone", "DELETE", 204, "");
+		first.addMock("/variant", "GET", 200, "default");
+		MockEndpoint conditional = new MockEndpoint("/variant", "GET", 200, "beta", "text/plain",
+				List.of(MatchCondition.query("beta", "1")));
+		first.addMock(conditional);
+		first.removeMock("/gone", "DELETE");
+		first.removeMock(conditional);
+
+		MockService restored = open(1000);
+		assertEquals(4, restored.getMocksList().size());
+		MockEndpoint orders = restored.getMocksList().stream()
+				.filter(endpoint -> endpoint.getPath().equals("/orders/{id}") && endpoint.isConditional())
+				.findFirst().orElseThrow();
+		assertEquals("X-Tenant", orders.getConditions().get(0).getName());
+		assertEquals(10, orders.getLatency().getMaxMs());
+		assertEquals(404, restored.getMockEndpoint("/orders/{id}", "GET").getStatusCode());
+		assertEquals("LoggedIn", restored.getMocksList().stream()
+				.filter(endpoint -> endpoint.getPath().equals("/login"))
+				.findFirst().orElseThrow().getScenario().getNewState());
+		assertNotNull(restored.getScenario("auth"));
+		assertNull(restored.getMockEndpoint("/gone", "DELETE"));
+		assertEquals("default", restored.getMockResponse("/variant", "GET"));
+	}
+
+	@Test
+	void compactsLogIntoSnapshots() throws IOException {
+		MockService first = open(3);
+		for (int i = 0; i < 7; i++) {
+			first.addMock("/items/" + i, "GET", "{\"i\":" + i + "}");
+		}
+		assertEquals(List.of("snapshot-2.bin", "wal-2.log"), files());
+
+		first.replaceAllMocks(List.of(new MockEndpoint("/only", "GET", 200, "only")));
+		assertEquals(List.of("snapshot-3.bin", "wal-3.log"), files());
+		assertEquals(List.of("/only"), open(3).getMocksList().stream().map(MockEndpoint::getPath).toList());
+
+		open(3).clearAllMocks();
+		assertTrue(open(3).getMocksList().isEmpty());
+	}
+
+	@Test
+	void dropsTornLogRecordAndRejectsCorruptSnapshot() throws IOException {
+		MockService first = open(1000);
+		first.addMock("/a", "GET", "a");
+		first.addMock("/b", "GET", "b");
+		Path log = directory.resolve("wal-0.log");
+		long intact = Files.size(log);
+		// A crash halfway through appending a record
+		Files.write(log, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+		MockService restored = open(1000);
+		assertEquals(2, restored.getMocksList().size());
+		assertEquals(intact, Files.size(log));
+		restored.addMock("/c", "GET", "c");
+		assertEquals(3, open(1000).getMocksList().size());
+
+		List<MockEndpoint> endpoints = new ArrayList<>(restored.getMocksList());
+		restored.replaceAllMocks(endpoints);
+		Path snapshot = directory.resolve("snapshot-1.bin");
+		byte[] bytes = Files.readAllBytes(snapshot);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(snapshot, bytes);
+		assertThrows(IllegalStateException.class, () -> open(1000));
+	}
+
+	@Test
+	void leavesUnpersistedMocksOutOfLogAndSnapshots() {
+		MockService first = open(2);
+		first.updateMocks(List.of(), List.of(new MockEndpoint("/template", "GET", 200, "{}")), false);
+		first.addMock("/a", "GET", "a");
+		first.addMock("/b", "GET", "b");
+		first.addMock("/c", "GET", "c");
+		assertNotNull(first.getMockEndpoint("/template", "GET"));
+
+		MockService restored = open(2);
+		assertEquals(3, restored.getMocksList().size());
+		assertNull(restored.getMockEndpoint("/template", "GET"));
+	}
+
+	@Test
+	void restoresLargeRegistryInRegistrationOrder() {
+		List<MockEndpoint> endpoints = new ArrayList<>(100_000);
+		for (int i = 0; i < 100_000; i++) {
+			endpoints.add(new MockEndpoint("/items/" + i, i % 2 == 0 ? "GET" : "POST", 200, "{\"i\":" + i + "}"));
+		}
+		MockStore store = store(1_000_000);
+		store.recover();
+		store.snapshot(endpoints.subList(0, 60_000));
+		store.added(endpoints.subList(60_000, 100_000));
+
+		List<MockEndpoint> restored = store(1_000_000).recover();
+		assertEquals(100_000, restored.size());
+		for (int i = 0; i < endpoints.size(); i++) {
+			assertEquals(endpoints.get(i).getPath(), restored.get(i).getPath());
+			assertEquals(endpoints.get(i).getMethod(), restored.get(i).getMethod());
+		}
+	}
+
+	@Test
+	void skipsStoredMocksTheRouteTableRejects() {
+		// Written before the admin path was reserved, or by a build with other route rules
+		MockStore store = store(1000);
+		store.recover();
+		store.snapshot(List.of(new MockEndpoint("/__admin/mocks", "GET", 200, "{}"),
+				new MockEndpoint("/kept", "GET", 200, "{}")));
+		store.added(List.of(new MockEndpoint("/files/**/raw", "GET", 200, "{}"),
+				new MockEndpoint("/kept/{id}", "GET", 200, "{}")));
+
+		MockService restored = open(1000);
+		assertEquals(2, restored.getMocksList().size());
+		assertNotNull(restored.getMockEndpoint("/kept", "GET"));
+		assertNotNull(restored.match(RequestMethod.GET, "/kept/1"));
+	}
+}
@@ -0,0 +1,168 @@
+package com.mockapi.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApiImporterTests {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final String PETSTORE = """
+			openapi: 3.0.3
+			info:
+			  title: Petstore
+			  version: 1.0.0
+			servers:
+			  - url: https://api.example.com/v1
+			paths:
+			  /pets:
+			    get:
+			      operationId: listPets
+			      tags: [pets]
+			      responses:
+			        '200':
+			          description: A page of pets
+			          content:
+			            application/json:
+			              schema:
+			                type: array
+			                items:
+			                  $ref: '#/components/schemas/Pet'
+			    post:
+			      operationId: createPet
+			      tags: [pets]
+			      responses:
+			        '400':
+			          description: Invalid pet
+			        '201':
+			          description: Created
+			          content:
+			            application/json:
+			              examples:
+			                created:
+			                  $ref: '#/components/examples/NewPet'
+			  /pets/{petId}:
+			    parameters:
+			      - name: petId
+			        in: path
+			    get:
+			      summary: Find a pet
+			      tags: [pets]
+			      responses:
+			        default:
+			          $ref: '#/components/responses/PetResponse'
+			  /files/{name}.{ext}:
+			    delete:
+			      responses:
+			        '204':
+			          description: Deleted
+			components:
+			  examples:
+			    NewPet:
+			      value: {id: 7, name: Rex}
+			  responses:
+			    PetResponse:
+			      description: A pet
+			      content:
+			        text/plain:
+			          example: not json
+			        application/json:
+			          schema:
+			            $ref: '#/components/schemas/Pet'
+			  schemas:
+			    Pet:
+			      allOf:
+			        - $ref: '#/components/schemas/Named'
+			        - type: object
+			          properties:
+			            id: {type: integer, format: int64, minimum: 1}
+			            status: {type: string, enum: [available, sold]}
+			            born: {type: string, format: date}
+			            parent: {$ref: '#/components/schemas/Pet'}
+			    Named:
+			      type: object
+			      properties:
+			        name: {type: string, example: Fluffy}
+			""";
+
+	private static ImportResult importSpec(OpenApiImporter importer, String spec, boolean replace, String basePath)
+			throws IOException {
+		return importer.importSpec(new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8)), replace, basePath);
+	}
+
+	@Test
+	void generatesMocksAndTemplatesFromYaml() throws IOException {
+		MockService mockService = new MockService();
+		TemplateService templateService = new TemplateService();
+		OpenApiImporter importer = new OpenApiImporter(mockService, templateService);
+
+		ImportResult result = importSpec(importer, PETSTORE, false, null);
+		assertEquals(4, result.getImported());
+
+		JsonNode list = MAPPER.readTree(mockService.getMockResponse("/v1/pets", "GET"));
+		assertEquals("Fluffy", list.get(0).get("name").asText());
+		assertEquals(1, list.get(0).get("id").asInt());
+		assertEquals("available", list.get(0).get("status").asText());
+		assertEquals("2024-01-01", list.get(0).get("born").asText());
+		// The recursive reference is expanded once and then cut off
+		assertTrue(list.get(0).get("parent").isNull());
+
+		MockEndpoint created = mockService.getMockEndpoint("/v1/pets", "POST");
+		assertEquals(201, created.getStatusCode());
+		assertEquals("Rex", MAPPER.readTree(created.getResponse()).get("name").asText());
+
+		RouteMatch pet = mockService.match(RequestMethod.GET, "/v1/pets/42");
+		assertNotNull(pet);
+		assertEquals(200, pet.getEndpoint().getStatusCode());
+		assertEquals("application/json", pet.getEndpoint().getContentType());
+		assertEquals(204, mockService.match(RequestMethod.DELETE, "/v1/files/report.pdf").getEndpoint().getStatusCode());
+
+		assertEquals(3, templateService.getTemplatesByCategory("pets").size());
+		assertEquals("/v1/pets/{petId}", templateService.getTemplate("pets", "Find a pet").getPath());
+		assertEquals(1, templateService.getTemplatesByCategory("Petstore").size());
+	}
+
+	@Test
+	void readsSwagger2JsonUnderGivenBasePath() throws IOException {
+		MockService mockService = new MockService();
+		mockService.addMock("/old", "GET", "old");
+		OpenApiImporter importer = new OpenApiImporter(mockService, new TemplateService());
+
+		String spec = """
+				{"swagger": "2.0", "info": {"title": "Accounts"}, "basePath": "/api",
+				 "paths": {"/accounts/{id}": {"get": {"produces": ["application/json"],
+				   "responses": {"200": {"schema": {"$ref": "#/definitions/Account"}}}}}},
+				 "definitions": {"Account": {"properties": {"iban": {"type": "string"}, "balance": {"type": "number"}}}}}
+				""";
+		ImportResult result = importSpec(importer, spec, true, "/mock/");
+		assertTrue(result.isReplaced());
+		assertEquals(1, result.getTotal());
+		JsonNode account = MAPPER.readTree(mockService.match(RequestMethod.GET, "/mock/accounts/TR1")
+				.getEndpoint().getResponse());
+		assertEquals("string", account.get("iban").asText());
+		assertEquals(0.0, account.get("balance").asDouble());
+	}
+
+	@Test
+	void rejectsInvalidSpecWithoutChanges() {
+		MockService mockService = new MockService();
+		mockService.addMock("/kept", "GET", "kept");
+		OpenApiImporter importer = new OpenApiImporter(mockService, new TemplateService());
+
+		assertThrows(IllegalArgumentException.class, () -> importSpec(importer, "paths: {}", true, null));
+		assertThrows(IllegalArgumentException.class, () -> importSpec(importer, "openapi: 3.0.0\npaths: [", true, null));
+		IllegalArgumentException reserved = assertThrows(IllegalArgumentException.class, () -> importSpec(importer,
+				"openapi: 3.0.0\npaths:\n  /__admin/mocks:\n    get:\n      responses: {}\n", true, null));
+		assertTrue(reserved.getMessage().startsWith("GET /__admin/mocks"));
+
+		assertEquals("kept", mockService.getMockResponse("/kept", "GET"));
+	}
+}
@@ -0,0 +1,300 @@
+package com.mockapi.server.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmCallback;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RabbitBulkPublisherTests {
+
+	private final ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+	private final RabbitBulkPublisher publisher = new RabbitBulkPublisher(null, 2, 100);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		publisher.close();
+		broker.shutdownNow();
+	}
+
+	/**
+	 * Connection whose channels record published bodies and are confirmed by the "broker"
+	 * every millisecond, all at once up to the last published sequence number
+	 */
+	private final class FakeConnection {
+		final Queue<String> bodies = new ConcurrentLinkedQueue<>();
+		final List<String> routes = new CopyOnWriteArrayList<>();
+		final AtomicLong outstanding = new AtomicLong();
+		final LongAccumulator maxOutstanding = new LongAccumulator(Math::max, 0);
+		final ConnectionFactory factory = mock(ConnectionFactory.class);
+		boolean nack;
+		int failAfter = Integer.MAX_VALUE;
+		long stallNanos;
+		volatile long stallUntil;
+
+		FakeConnection() throws Exception {
+			Connection connection = mock(Connection.class);
+			when(factory.newConnection(anyString())).thenReturn(connection);
+			when(connection.createChannel()).thenAnswer(invocation -> channel());
+		}
+
+		private Channel channel() throws IOException {
+			Channel channel = mock(Channel.class);
+			AtomicLong next = new AtomicLong(1);
+			AtomicLong confirmedUpTo = new AtomicLong();
+			AtomicInteger published = new AtomicInteger();
+			when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> next.get());
+			doAnswer(invocation -> {
+				ConfirmCallback callback = invocation.getArgument(nack ? 1 : 0);
+				broker.scheduleWithFixedDelay(() -> {
+					if (stallUntil != 0 && System.nanoTime() - stallUntil < 0) {
+						return;
+					}
+					long last = next.get() - 1;
+					long first = confirmedUpTo.get();
+					if (last > first) {
+						confirmedUpTo.set(last);
+						outstanding.addAndGet(first - last);
+						try {
+							callback.handle(last, true);
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					}
+				}, 1, 1, TimeUnit.MILLISECONDS);
+				return null;
+			}).when(channel).addConfirmListener(any(ConfirmCallback.class), any(ConfirmCallback.class));
+			doAnswer(invocation -> {
+				if (stallNanos > 0 && stallUntil == 0) {
+					stallUntil = System.nanoTime() + stallNanos;
+				}
+				if (published.incrementAndGet() > failAfter) {
+					throw new IOException("channel is broken");
+				}
+				routes.add(invocation.getArgument(0) + "/" + invocation.getArgument(1));
+				bodies.add(new String(invocation.<byte[]>getArgument(3), StandardCharsets.UTF_8));
+				maxOutstanding.accumulate(outstanding.incrementAndGet());
+				next.incrementAndGet();
+				return null;
+			}).when(channel).basicPublish(anyString(), anyString(), any(AMQP.BasicProperties.class), any(byte[].class));
+			return channel;
+		}
+	}
+
+	private static BulkPublishRequest toQueue(String queue) {
+		BulkPublishRequest request = new BulkPublishRequest();
+		request.setQueue(queue);
+		return request;
+	}
+
+	@Test
+	void publishesEveryMessageWithinTheInFlightLimit() throws Exception {
+		FakeConnection connection = new FakeConnection();
+		BulkPublishRequest request = toQueue("orders");
+		request.setChannels(3);
+		request.setMaxInFlight(64);
+
+		BulkPublishJob job = publisher.start(request, BulkMessageSource.template("{\"n\": {{seq}}}", 20_000),
+				connection.factory);
+		assertTrue(job.await(30, TimeUnit.SECONDS));
+
+		BulkPublishStats stats = job.getStats();
+		assertEquals(BulkPublishJob.State.COMPLETED, stats.getState());
+		assertEquals(20_000, stats.getTotal());
+		assertEquals(20_000, stats.getPublished());
+		assertEquals(20_000, stats.getConfirmed());
+		assertEquals(0, stats.getInFlight());
+		assertTrue(stats.getMaxConfirmMicros() >= stats.getAvgConfirmMicros());
+		assertTrue(connection.maxOutstanding.get() <= 64, "in flight: " + connection.maxOutstanding.get());
+		Set<String> bodies = Set.copyOf(connection.bodies);
+		assertEquals(20_000, bodies.size());
+		assertTrue(bodies.contains("{\"n\": 20000}"));
+		assertEquals(Set.of("/orders"), Set.copyOf(connection.routes));
+	}
+
+	@Test
+	void countsRejectedMessagesAsFailed() throws Exception {
+		FakeConnection connection = new FakeConnection();
+		connection.nack = true;
+		BulkPublishRequest request = toQueue("orders");
+		request.setExchange("events");
+		request.setRoutingKey("order.created");
+
+		BulkPublishJob job = publisher.start(request, BulkMessageSource.template("x", 500), connection.factory);
+		assertTrue(job.await(30, TimeUnit.SECONDS));
+
+		BulkPublishStats stats = job.getStats();
+		assertEquals(BulkPublishJob.State.COMPLETED, stats.getState());
+		assertEquals(0, stats.getConfirmed());
+		assertEquals(500, stats.getFailed());
+		assertEquals("events (Routing: order.created)", stats.getDestination());
+		assertEquals(Set.of("events/order.created"), Set.copyOf(connection.routes));
+	}
+
+	@Test
+	void stopsOnPublishErrorOrCancel() throws Exception {
+		FakeConnection broken = new FakeConnection();
+		broken.failAfter = 50;
+		BulkPublishJob failed = publisher.start(toQueue("orders"), BulkMessageSource.template("x", 1000),
+				broken.factory);
+		assertTrue(failed.await(5, TimeUnit.SECONDS));
+		assertEquals(BulkPublishJob.State.FAILED, failed.getStats().getState());
+		assertEquals("channel is broken", failed.getStats().getError());
+
+		FakeConnection connection = new FakeConnection();
+		BulkPublishJob cancelled = publisher.start(toQueue("orders"), BulkMessageSource.template("x", Long.MAX_VALUE),
+				connection.factory);
+		while (cancelled.getStats().getConfirmed() < 1000) {
+			Thread.sleep(5);
+		}
+		cancelled.cancel();
+		assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+		BulkPublishStats stats = cancelled.getStats();
+		assertEquals(BulkPublishJob.State.CANCELLED, stats.getState());
+		assertEquals(stats.getPublished(), stats.getConfirmed());
+		verify(connection.factory).newConnection(eq("mockapi-bulk-" + cancelled.getId()));
+	}
+
+	private static LoadTestRequest load(double rate, double durationSeconds) {
+		LoadTestRequest request = new LoadTestRequest();
+		request.setQueue("orders");
+		request.setTemplate("{{seq}}");
+		request.setRate(rate);
+		request.setDurationSeconds(durationSeconds);
+		return request;
+	}
+
+	@Test
+	void schedulesRampUpAndBursts() {
+		LoadTestRequest steady = load(5000, 600);
+		assertEquals(3_000_000, LoadSchedule.totalMessages(steady));
+		LoadSchedule schedule = new LoadSchedule(steady);
+		assertEquals(0, schedule.dueNanos(0));
+		assertEquals(200_000, schedule.dueNanos(1));
+		assertEquals(TimeUnit.SECONDS.toNanos(1), schedule.dueNanos(5000));
+		assertEquals(-1, schedule.dueNanos(3_000_000));
+
+		// A linear ramp to 1000/s over 4 s: n messages are due by sqrt(8n / 1000) s
+		LoadTestRequest ramp = load(1000, 10);
+		ramp.setRampUpSeconds(4);
+		assertEquals(8000, LoadSchedule.totalMessages(ramp));
+		LoadSchedule rampSchedule = new LoadSchedule(ramp);
+		assertEquals(TimeUnit.SECONDS.toNanos(2), rampSchedule.dueNanos(500), TimeUnit.MICROSECONDS.toNanos(10));
+		assertEquals(TimeUnit.SECONDS.toNanos(4), rampSchedule.dueNanos(2000), TimeUnit.MICROSECONDS.toNanos(10));
+		assertEquals(TimeUnit.SECONDS.toNanos(5), rampSchedule.dueNanos(3000), TimeUnit.MICROSECONDS.toNanos(10));
+		assertEquals(500, new LoadSchedule(ramp).dueBy(TimeUnit.SECONDS.toNanos(2)), 1e-6);
+
+		// 1000/s for the first second of every 5, 100/s otherwise
+		LoadTestRequest bursts = load(100, 10);
+		bursts.setBurstRate(1000);
+		bursts.setBurstSeconds(1);
+		bursts.setBurstEverySeconds(5);
+		assertEquals(2800, LoadSchedule.totalMessages(bursts));
+		assertEquals(TimeUnit.SECONDS.toNanos(5), new LoadSchedule(bursts).dueNanos(1400));
+
+		bursts.setBurstEverySeconds(1);
+		assertThrows(IllegalArgumentException.class, bursts::validate);
+		ramp.setRampUpSeconds(11);
+		assertThrows(IllegalArgumentException.class, ramp::validate);
+	}
+
+	@Test
+	void paceLoadRunToTheScheduleWithoutCoordinatedOmission() throws Exception {
+		FakeConnection connection = new FakeConnection();
+		LoadTestRequest request = load(2000, 1);
+		request.setChannels(2);
+		request.setMaxInFlight(50);
+		// The broker confirms nothing for the first 300 ms, so the in-flight limit holds
+		// publishing up
+		connection.stallNanos = TimeUnit.MILLISECONDS.toNanos(300);
+
+		BulkPublishJob job = publisher.start(request, request.openSource(), connection.factory);
+		assertTrue(job.await(30, TimeUnit.SECONDS));
+
+		BulkPublishStats stats = job.getStats();
+		assertEquals(BulkPublishJob.State.COMPLETED, stats.getState());
+		assertEquals(2000, stats.getTotal());
+		assertEquals(2000, stats.getConfirmed());
+		assertEquals(2000, stats.getTargetRate());
+		assertTrue(stats.getElapsedMillis() >= 990, "elapsed: " + stats.getElapsedMillis());
+		// Messages due during the stall were sent late and count from when they were due,
+		// rather than the stall only showing up in the few messages sent before it
+		Histogram latency = job.getLatencyHistogram();
+		assertEquals(2000, latency.getTotalCount());
+		long late = latency.getCountBetweenValues(TimeUnit.MILLISECONDS.toNanos(50), latency.getMaxValue());
+		assertTrue(late > 300, "late: " + late);
+		assertTrue(stats.getMaxConfirmMicros() >= 250_000, "max: " + stats.getMaxConfirmMicros());
+		assertTrue(stats.getP50ConfirmMicros() < stats.getP99ConfirmMicros());
+		assertEquals(Set.of("orders"), Set.copyOf(connection.routes.stream().map(route -> route.substring(1)).toList()));
+	}
+
+	@Test
+	void readsMessageSources() throws IOException {
+		BulkMessageSource template = BulkMessageSource.template("{{seq}}:{{ seq }}:{{other}}:{{uuid}}", 2);
+		assertEquals(2, template.size());
+		String first = new String(template.next(), StandardCharsets.UTF_8);
+		assertTrue(first.startsWith("1:1:{{other}}:"), first);
+		assertEquals(36, first.length() - "1:1:{{other}}:".length());
+		assertTrue(new String(template.next(), StandardCharsets.UTF_8).startsWith("2:2:"));
+		assertNull(template.next());
+
+		Path file = Files.createTempFile("messages", ".ndjson");
+		try {
+			Files.writeString(file, "{\"a\":1}\r\n\n  \n{\"a\":2}\n{\"a\":3}");
+			try (BulkMessageSource lines = BulkMessageSource.ndjson(file)) {
+				assertEquals(-1, lines.size());
+				StringBuilder read = new StringBuilder();
+				byte[] line;
+				while ((line = lines.next()) != null) {
+					read.append(new String(line, StandardCharsets.UTF_8)).append('|');
+				}
+				assertEquals("{\"a\":1}|{\"a\":2}|{\"a\":3}|", read.toString());
+			}
+			BulkMessageSource repeated = BulkMessageSource.repeat(file, 3);
+			assertSame(repeated.next(), repeated.next());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void rejectsIncompleteRequests() {
+		BulkPublishRequest request = new BulkPublishRequest();
+		request.setTemplate("x");
+		request.setCount(1);
+		assertThrows(IllegalArgumentException.class, request::validate);
+		request.setQueue("orders");
+		request.validate();
+		request.setCount(0);
+		assertThrows(IllegalArgumentException.class, request::validate);
+		request.setFile("messages.ndjson");
+		request.setNdjson(true);
+		request.validate();
+		assertEquals("orders", request.destination());
+	}
+}
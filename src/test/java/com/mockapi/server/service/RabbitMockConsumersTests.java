@@ -0,0 +1,176 @@
+package com.mockapi.server.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.AlreadyClosedException;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RabbitMockConsumersTests {
+
+	private final TimerWheel timerWheel = new TimerWheel(1, 64);
+	private final Channel channel = mock(Channel.class);
+	private RabbitMockConsumers consumers;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		consumers = new RabbitMockConsumers(null, timerWheel, 4, 10, 50, 20, 100, 0, "", 256);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		consumers.close();
+		timerWheel.stop();
+	}
+
+	private static Message message(String body, String replyTo, String correlationId) {
+		MessageProperties properties = new MessageProperties();
+		properties.setContentType("application/json");
+		properties.setReplyTo(replyTo);
+		properties.setCorrelationId(correlationId);
+		properties.setHeader("X-Tenant", "acme");
+		return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+	}
+
+	private static MockConsumerRequest request(MockReply... replies) {
+		MockConsumerRequest request = new MockConsumerRequest();
+		request.setQueue("orders.rpc");
+		request.setReplies(List.of(replies));
+		return request;
+	}
+
+	private byte[] publishedReply(String exchange, String routingKey, String correlationId) throws Exception {
+		ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+		ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+		verify(channel, timeout(5000)).basicPublish(eq(exchange), eq(routingKey), properties.capture(), body.capture());
+		assertEquals(correlationId, properties.getValue().getCorrelationId());
+		return body.getValue();
+	}
+
+	@Test
+	void answersRpcRequestsWithTheMostSpecificReply() throws Exception {
+		MockConsumer consumer = consumers.create(request(
+				new MockReply("{\"orderId\":\"{{body.orderId}}\",\"tenant\":\"{{header.x-tenant}}\","
+						+ "\"correlation\":\"{{header.correlation-id}}\"}"),
+				new MockReply(List.of(MatchCondition.jsonPath("$.orderId", "O-2")), "{\"status\":\"REJECTED\"}",
+						"application/json", null)));
+
+		consumer.onMessage(message("{\"orderId\":\"O-1\"}", "amq.rabbitmq.reply-to", "c-1"), channel);
+		assertEquals("{\"orderId\":\"O-1\",\"tenant\":\"acme\",\"correlation\":\"c-1\"}",
+				new String(publishedReply("", "amq.rabbitmq.reply-to", "c-1"), StandardCharsets.UTF_8));
+
+		clearInvocations(channel);
+		consumer.onMessage(message("{\"orderId\":\"O-2\"}", "replies/order.status", "c-2"), channel);
+		assertEquals("{\"status\":\"REJECTED\"}",
+				new String(publishedReply("replies", "order.status", "c-2"), StandardCharsets.UTF_8));
+
+		MockConsumerStats stats = consumer.getStats();
+		assertEquals(2, stats.getReceived());
+		assertEquals(2, stats.getReplied());
+		assertEquals(0, stats.getFailed());
+		List<RabbitMQService.QueueMessage> received = consumers.getReceivedMessages().page(0, 10);
+		assertEquals("{\"orderId\":\"O-2\"}", received.get(0).getContent());
+		assertEquals("orders.rpc", received.get(0).getDestination());
+		assertTrue(received.get(0).isJson());
+	}
+
+	@Test
+	void onlyRecordsMessagesWithoutReplyToOrMatchingReply() throws Exception {
+		MockConsumer consumer = consumers.create(request(
+				new MockReply(List.of(MatchCondition.header("X-Tenant", "other")), "{}", "application/json", null)));
+
+		consumer.onMessage(message("{\"n\":1}", null, null), channel);
+		consumer.onMessage(message("{\"n\":2}", "replies", "c-2"), channel);
+
+		verify(channel, never()).basicPublish(anyString(), anyString(), any(), any());
+		assertEquals(2, consumer.getStats().getReceived());
+		assertEquals(0, consumer.getStats().getReplied());
+		assertEquals(2, consumers.getReceivedMessages().size());
+
+		MockConsumerRequest unrecorded = request();
+		unrecorded.setRecord(false);
+		consumers.create(unrecorded).onMessage(message("{\"n\":3}", null, null), channel);
+		assertEquals(2, consumers.getReceivedMessages().size());
+	}
+
+	@Test
+	void appliesHistoryContentLimitsToReceivedMessages(@TempDir Path dir) throws Exception {
+		String large = "{\"payload\":\"" + "x".repeat(1000) + "\"}";
+		try (RabbitMockConsumers limited = new RabbitMockConsumers(null, timerWheel, 4, 10, 50, 20, 100, 16, "", 256)) {
+			limited.create(request()).onMessage(message(large, null, null), channel);
+			RabbitMQService.QueueMessage received = limited.getReceivedMessages().page(0, 1).get(0);
+			assertEquals(large.substring(0, 16), received.getContent());
+			assertTrue(received.isTruncated());
+		}
+		try (RabbitMockConsumers spilling = new RabbitMockConsumers(null, timerWheel, 4, 10, 50, 20, 100, 16,
+				dir.toString(), 1)) {
+			spilling.create(request()).onMessage(message(large, null, null), channel);
+			assertEquals(large, spilling.getReceivedMessages().page(0, 1).get(0).getContent());
+		}
+	}
+
+	@Test
+	void delaysRepliesWithoutBlockingTheConsumer() throws Exception {
+		MockConsumer consumer = consumers.create(request(
+				new MockReply(null, "{\"ok\":true}", "application/json", LatencyProfile.fixed(200))));
+
+		long start = System.nanoTime();
+		consumer.onMessage(message("{}", "replies", "c-1"), channel);
+		assertTrue(System.nanoTime() - start < 100_000_000L, "consumer thread waited for the delay");
+		verify(channel, never()).basicPublish(anyString(), anyString(), any(), any());
+
+		publishedReply("", "replies", "c-1");
+		assertTrue(System.nanoTime() - start >= 190_000_000L);
+		assertEquals(1, consumer.getStats().getReplied());
+	}
+
+	@Test
+	void countsFailedRepliesWithoutRejectingTheDelivery() throws Exception {
+		doThrow(new AlreadyClosedException(new ShutdownSignalException(false, false, null, null)))
+				.when(channel).basicPublish(anyString(), anyString(), any(), any());
+		MockConsumer consumer = consumers.create(request(new MockReply("{}")));
+
+		assertDoesNotThrow(() -> consumer.onMessage(message("{}", "replies", "c-1"), channel));
+		assertEquals(1, consumer.getStats().getFailed());
+		assertNotNull(consumer.getStats().getError());
+	}
+
+	@Test
+	void appliesDefaultsAndRaisesPrefetchToTheAckBatch() {
+		MockConsumer defaults = consumers.create(request());
+		assertEquals(4, defaults.getConcurrency());
+		assertEquals(50, defaults.getPrefetch());
+		assertEquals(50, defaults.getAckBatchSize());
+
+		MockConsumerRequest tuned = request();
+		tuned.setConcurrency(8);
+		tuned.setPrefetch(500);
+		tuned.setAckBatchSize(100);
+		MockConsumer consumer = consumers.create(tuned);
+		assertEquals(8, consumer.getConcurrency());
+		assertEquals(500, consumer.getPrefetch());
+		assertEquals(100, consumer.getAckBatchSize());
+
+		MockConsumerRequest invalid = request();
+		invalid.setQueue(" ");
+		assertThrows(IllegalArgumentException.class, () -> consumers.create(invalid));
+		assertThrows(IllegalArgumentException.class, () -> consumers.create(request(new MockReply())));
+	}
+}
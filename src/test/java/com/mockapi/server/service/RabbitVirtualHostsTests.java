@@ -0,0 +1,69 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RabbitVirtualHostsTests {
+
+	private static RabbitVirtualHosts open(long idleSeconds) {
+		// Factories connect lazily, so no broker is needed to look them up
+		CachingConnectionFactory factory = new CachingConnectionFactory("localhost", 5672);
+		factory.setVirtualHost("cert");
+		factory.setChannelCacheSize(40);
+		return new RabbitVirtualHosts(new RabbitTemplate(factory), factory, idleSeconds);
+	}
+
+	private static CachingConnectionFactory factoryOf(RabbitVirtualHosts hosts, String virtualHost) {
+		return hosts.execute(virtualHost, template -> (CachingConnectionFactory) template.getConnectionFactory());
+	}
+
+	@Test
+	void cachesOneFactoryPerVirtualHost() {
+		try (RabbitVirtualHosts hosts = open(300)) {
+			CachingConnectionFactory payments = factoryOf(hosts, "payments");
+			assertSame(payments, factoryOf(hosts, "payments"));
+			assertEquals("payments", payments.getVirtualHost());
+			assertEquals(40, payments.getChannelCacheSize());
+			assertNotSame(payments, factoryOf(hosts, "cards"));
+			assertEquals("cert", factoryOf(hosts, null).getVirtualHost());
+			assertSame(factoryOf(hosts, ""), factoryOf(hosts, "cert"));
+			assertEquals(2, hosts.getOpenHosts());
+		}
+	}
+
+	@Test
+	void evictsOnlyIdleHostsNotInUse() throws InterruptedException {
+		try (RabbitVirtualHosts hosts = open(60)) {
+			CachingConnectionFactory idle = factoryOf(hosts, "idle");
+			CountDownLatch inUse = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Thread sender = Thread.ofPlatform().start(() -> hosts.execute("busy", template -> {
+				inUse.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return null;
+			}));
+			assertTrue(inUse.await(5, TimeUnit.SECONDS));
+
+			hosts.evictIdle(System.nanoTime());
+			assertEquals(2, hosts.getOpenHosts());
+			hosts.evictIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+			assertEquals(1, hosts.getOpenHosts());
+
+			release.countDown();
+			sender.join();
+			hosts.evictIdle(System.nanoTime() + TimeUnit.MINUTES.toNanos(2));
+			assertEquals(0, hosts.getOpenHosts());
+			assertNotSame(idle, factoryOf(hosts, "idle"));
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestJournalTests {
+
+	private static final RequestJournal.HeaderReader<Map<String, String>> HEADERS =
+			(headers, sink) -> headers.forEach(sink::header);
+
+	private static void record(RequestJournal journal, String method, String path, Map<String, String> headers,
+							   String body) {
+		journal.record(method, path, null, headers, HEADERS, body, 200, System.nanoTime());
+	}
+
+	@Test
+	void recordsAndFiltersRequests() {
+		RequestJournal journal = new RequestJournal(16, 512, true);
+		journal.record("POST", "/orders", "page=2", Map.of("X-Tenant", "acme"), HEADERS, "{\"n\":\"ş\"}", 201,
+				System.nanoTime());
+		record(journal, "GET", "/orders", Map.of("X-Tenant", "other"), null);
+		record(journal, "GET", "/users", Map.of(), null);
+
+		JournalEntry first = journal.getEntries().get(0);
+		assertEquals("POST", first.getMethod());
+		assertEquals("page=2", first.getQuery());
+		assertEquals("acme", first.getHeader("x-tenant"));
+		assertEquals("{\"n\":\"ş\"}", first.getBody());
+		assertEquals(201, first.getStatus());
+		assertFalse(first.isTruncated());
+
+		assertEquals(2, journal.count(null, "/orders", null, null));
+		assertEquals(1, journal.count(null, null, "X-Tenant", "acme"));
+		assertEquals(2, journal.count(null, null, "X-Tenant", null));
+		List<JournalEntry> last = journal.find("get", null, null, null, 1);
+		assertEquals("/users", last.get(0).getPath());
+	}
+
+	@Test
+	void truncatesOversizedRequestsAndOverwritesOldest() {
+		RequestJournal journal = new RequestJournal(4, 256, true);
+		record(journal, "POST", "/big", Map.of("X-Id", "1"), "x".repeat(1000));
+		JournalEntry big = journal.getEntries().get(0);
+		assertTrue(big.isTruncated());
+		assertEquals("1", big.getHeader("X-Id"));
+		assertTrue(big.getBody().length() < 256);
+
+		for (int i = 0; i < 10; i++) {
+			record(journal, "GET", "/n/" + i, Map.of(), null);
+		}
+		List<JournalEntry> entries = journal.getEntries();
+		assertEquals(List.of("/n/6", "/n/7", "/n/8", "/n/9"), entries.stream().map(JournalEntry::getPath).toList());
+		assertEquals(11, journal.getRecordedCount());
+
+		journal.clear();
+		assertTrue(journal.getEntries().isEmpty());
+		record(journal, "GET", "/after", Map.of(), null);
+		assertEquals(1, journal.count(null, null, null, null));
+	}
+
+	@Test
+	void concurrentWritersKeepEntriesIntact() throws Exception {
+		RequestJournal journal = new RequestJournal(1024, 512, true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			String writer = Integer.toString(t);
+			executor.execute(() -> {
+				for (int i = 0; i < 5000; i++) {
+					record(journal, "POST", "/w/" + writer, Map.of("X-Writer", writer), writer + ":" + i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		List<JournalEntry> entries = journal.getEntries();
+		assertEquals(1024, entries.size());
+		for (JournalEntry entry : entries) {
+			String writer = entry.getHeader("X-Writer");
+			assertEquals("/w/" + writer, entry.getPath());
+			assertTrue(entry.getBody().startsWith(writer + ":"));
+		}
+		assertEquals(20000, journal.getRecordedCount());
+	}
+
+	@Test
+	void disabledJournalRecordsNothing() {
+		RequestJournal journal = new RequestJournal(0, 0, true);
+		record(journal, "GET", "/", Map.of(), null);
+		assertFalse(journal.isEnabled());
+		assertFalse(journal.isRecordingBodies());
+		assertTrue(journal.getEntries().isEmpty());
+	}
+}
@@ -0,0 +1,79 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMatchingTests {
+
+	private static MockEndpoint variant(String response, MatchCondition... conditions) {
+		return new MockEndpoint("/payments", "POST", 200, response, "application/json", List.of(conditions));
+	}
+
+	@Test
+	void selectsMostSpecificMatchingVariant() {
+		MockService service = new MockService();
+		service.addMock("/payments", "POST", 200, "default");
+		service.addMock(variant("tenant-a", MatchCondition.header("X-Tenant", "a")));
+		service.addMock(variant("tenant-a-eur",
+				MatchCondition.header("X-Tenant", "a"), MatchCondition.jsonPath("$.currency", "EUR")));
+		service.addMock(variant("dry-run", MatchCondition.query("dryRun", "true")));
+		service.addMock(variant("refund", MatchCondition.bodyRegex("\"type\"\\s*:\\s*\"refund\"")));
+
+		assertEquals("default", select(service, TestRequests.of(Map.of(), Map.of(), null)));
+		assertEquals("tenant-a", select(service, TestRequests.of(Map.of("x-tenant", "a"), Map.of(), "{\"currency\":\"USD\"}")));
+		assertEquals("tenant-a-eur", select(service, TestRequests.of(Map.of("X-Tenant", "a"), Map.of(), "{\"currency\":\"EUR\"}")));
+		assertEquals("dry-run", select(service, TestRequests.of(Map.of(), Map.of("dryRun", "true"), null)));
+		assertEquals("refund", select(service, TestRequests.of(Map.of(), Map.of(), "{\"type\": \"refund\"}")));
+		assertEquals("default", select(service, TestRequests.of(Map.of("X-Tenant", "b"), Map.of(), "not json")));
+	}
+
+	@Test
+	void doesNotReadBodyWithoutBodyPredicates() {
+		MockService service = new MockService();
+		service.addMock("/payments", "POST", 200, "default");
+		service.addMock(variant("tenant-a", MatchCondition.header("X-Tenant", "a")));
+
+		MockRequest untouchableBody = new MockRequest() {
+			@Override
+			public String getHeader(String name) {
+				return "a";
+			}
+
+			@Override
+			public String getQueryParam(String name) {
+				return null;
+			}
+
+			@Override
+			public String getBody() {
+				throw new AssertionError("body must not be read");
+			}
+		};
+		assertEquals("tenant-a", select(service, untouchableBody));
+	}
+
+	@Test
+	void replacesVariantWithIdenticalConditionsAndRemovesSingleVariant() {
+		MockService service = new MockService();
+		service.addMock("/payments", "POST", 200, "default");
+		service.addMock(variant("first", MatchCondition.header("X-Tenant", "a")));
+		service.addMock(variant("second", MatchCondition.header("X-Tenant", "a")));
+		assertEquals(2, service.getMocksList().size());
+		assertEquals("second", select(service, TestRequests.of(Map.of("X-Tenant", "a"), Map.of(), null)));
+
+		assertTrue(service.removeMock(variant("ignored", MatchCondition.header("X-Tenant", "a"))));
+		assertEquals("default", select(service, TestRequests.of(Map.of("X-Tenant", "a"), Map.of(), null)));
+		assertEquals(1, service.getMocksList().size());
+	}
+
+	private static String select(MockService service, MockRequest request) {
+		RouteMatch match = service.match(RequestMethod.POST, "/payments", request);
+		return match != null ? match.getEndpoint().getResponse() : null;
+	}
+
+}
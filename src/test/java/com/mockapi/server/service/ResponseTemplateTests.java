@@ -0,0 +1,65 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTemplateTests {
+
+	private static String render(MockEndpoint endpoint, MockRequest request, Map<String, String> pathVariables) {
+		return new String(endpoint.renderBody(request, pathVariables), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void rendersRequestDataIntoBody() {
+		MockEndpoint endpoint = new MockEndpoint("/orders/{id}", "POST", 201,
+				"{\"id\":\"{{path.id}}\",\"tenant\":\"{{header.X-Tenant}}\",\"page\":{{query.page}},"
+						+ "\"customer\":\"{{body.$.customer.name}}\",\"items\":{{body.items}}}");
+		MockRequest request = TestRequests.of(Map.of("X-Tenant", "acme"), Map.of("page", "2"),
+				"{\"customer\":{\"name\":\"Ayşe\"},\"items\":[1,2]}");
+
+		assertTrue(endpoint.isDynamic());
+		assertTrue(endpoint.readsBody());
+		assertEquals("{\"id\":\"42\",\"tenant\":\"acme\",\"page\":2,\"customer\":\"Ayşe\",\"items\":[1,2]}",
+				render(endpoint, request, Map.of("id", "42")));
+	}
+
+	@Test
+	void generatesUuidAndTimestamp() {
+		MockEndpoint endpoint = new MockEndpoint("/tokens", "POST", 200,
+				"{{uuid}}|{{now}}|{{now.millis}}");
+		String[] first = render(endpoint, MockRequest.EMPTY, Map.of()).split("\\|");
+		String[] second = render(endpoint, MockRequest.EMPTY, Map.of()).split("\\|");
+
+		assertEquals('4', first[0].charAt(14));
+		assertNotEquals(first[0], second[0]);
+		assertTrue(first[1].endsWith("Z"));
+		assertTrue(Long.parseLong(first[2]) > 0);
+		assertFalse(endpoint.readsBody());
+	}
+
+	@Test
+	void keepsUnknownPlaceholdersAndMissingValuesEmpty() {
+		MockEndpoint endpoint = new MockEndpoint("/users", "GET", 200,
+				"{{unknown}} {{path.id}} [{{header.Missing}}] [{{body.name}}]");
+		assertTrue(endpoint.isDynamic());
+		assertEquals("{{unknown}} {{path.id}} [] []", render(endpoint, MockRequest.EMPTY, Map.of()));
+
+		MockEndpoint literal = new MockEndpoint("/users", "GET", 200, "{{unknown}} {{path.id}}");
+		assertFalse(literal.isDynamic());
+	}
+
+	@Test
+	void routeBuffersBodyOnlyForBodyPlaceholders() {
+		RouteTable table = new RouteTable();
+		table.put(new MockEndpoint("/echo", "POST", 200, "{{body.name}}"));
+		table.put(new MockEndpoint("/static", "POST", 200, "{{header.Host}}", "text/plain", List.of()));
+
+		assertTrue(table.readsBody(RouteTable.resolveMethod("POST"), "/echo"));
+		assertFalse(table.readsBody(RouteTable.resolveMethod("POST"), "/static"));
+	}
+}
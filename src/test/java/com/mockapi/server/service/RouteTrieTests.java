@@ -0,0 +1,86 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTrieTests {
+
+	private static RouteEntry get(String path) {
+		return RouteEntry.of(new MockEndpoint(path, "GET", 200, path));
+	}
+
+	@Test
+	void matchesVariablesAndCapturesThem() {
+		RouteTrie trie = RouteTrie.compile(List.of(
+				get("/users/{id}"),
+				get("/users/{id}/posts/{postId}"),
+				get("/users/me")));
+
+		assertEquals("/users/me", trie.find("/users/me").getPath());
+
+		RouteMatch match = trie.match("/users/42/posts/7", MockRequest.EMPTY);
+		assertEquals("/users/{id}/posts/{postId}", match.getEndpoint().getPath());
+		assertEquals(Map.of("id", "42", "postId", "7"), match.getPathVariables());
+
+		assertEquals(Map.of("id", "mexico"), trie.match("/users/mexico", MockRequest.EMPTY).getPathVariables());
+		assertNull(trie.match("/users/", MockRequest.EMPTY));
+		assertNull(trie.match("/users/42/posts", MockRequest.EMPTY));
+	}
+
+	@Test
+	void prefersLiteralOverVariableOverCatchAll() {
+		RouteTrie trie = RouteTrie.compile(List.of(
+				get("/files/**"),
+				get("/files/{name}/meta"),
+				get("/files/readme/meta"),
+				get("/files/*/raw")));
+
+		assertEquals("/files/readme/meta", trie.find("/files/readme/meta").getPath());
+		assertEquals("/files/{name}/meta", trie.find("/files/report/meta").getPath());
+		assertEquals("/files/*/raw", trie.find("/files/report/raw").getPath());
+		assertTrue(trie.match("/files/x/raw", MockRequest.EMPTY).getPathVariables().isEmpty());
+		assertEquals("/files/**", trie.find("/files/report/other/deep").getPath());
+		assertEquals("/files/**", trie.find("/files/").getPath());
+		assertNull(trie.find("/other"));
+	}
+
+	@Test
+	void splitsSharedLiteralEdges() {
+		RouteTrie trie = RouteTrie.compile(List.of(
+				get("/api/{v}/orders"),
+				get("/api/{v}/order-items"),
+				get("/apix/{v}")));
+
+		assertEquals("/api/{v}/orders", trie.find("/api/1/orders").getPath());
+		assertEquals("/api/{v}/order-items", trie.find("/api/1/order-items").getPath());
+		assertEquals("/apix/{v}", trie.find("/apix/1").getPath());
+		assertNull(trie.find("/api/1/order"));
+	}
+
+	@Test
+	void rejectsInvalidTemplates() {
+		assertThrows(IllegalArgumentException.class, () -> RouteTrie.compile(List.of(get("/a/**/b"))));
+		assertThrows(IllegalArgumentException.class, () -> RouteTrie.compile(List.of(get("/a/x{id}"))));
+	}
+
+	@Test
+	void serviceRendersPathVariablesIntoBody() {
+		MockService service = new MockService();
+		service.addMock("/users/{id}", "GET", 200, "{\"id\": \"{{path.id}}\"}");
+		service.addMock("/users/1", "GET", 200, "{\"id\": \"exact\"}");
+
+		RouteMatch exact = service.match(RouteTable.resolveMethod("GET"), "/users/1");
+		assertFalse(exact.getEndpoint().isDynamic());
+
+		RouteMatch templated = service.match(RouteTable.resolveMethod("GET"), "/users/2");
+		assertEquals("{\"id\": \"2\"}", new String(templated.getEndpoint().renderBody(templated.getPathVariables())));
+
+		assertTrue(service.removeMock("/users/{id}", "GET"));
+		assertNull(service.match(RouteTable.resolveMethod("GET"), "/users/2"));
+	}
+
+}
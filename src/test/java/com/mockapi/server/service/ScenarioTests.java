@@ -0,0 +1,122 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioTests {
+
+	private static EndpointTemplate step(String path, int status, String required, String next, int times) {
+		EndpointTemplate template = new EndpointTemplate(null, path, "GET", status, "{}", "application/json");
+		template.setScenario(new ScenarioRule("payment", required, next, times));
+		return template;
+	}
+
+	@Test
+	void playsSequenceOfResponses() {
+		MockService service = new MockService();
+		service.addMock(step("/pay", 202, Scenario.STARTED, "failing", 1));
+		service.addMock(step("/pay", 500, "failing", "recovered", 2));
+		service.addMock(step("/pay", 200, "recovered", null, 0));
+
+		List<Integer> statuses = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			statuses.add(service.match(RequestMethod.GET, "/pay").getEndpoint().getStatusCode());
+		}
+		assertEquals(List.of(202, 500, 500, 200, 200, 200), statuses);
+		assertEquals("recovered", service.getScenario("payment").getState());
+
+		service.resetScenarios();
+		assertEquals(202, service.match(RequestMethod.GET, "/pay").getEndpoint().getStatusCode());
+	}
+
+	@Test
+	void concurrentClientsAdvanceScenarioExactlyOnce() throws Exception {
+		MockService service = new MockService();
+		int requests = 4000;
+		service.addMock(step("/pay", 500, Scenario.STARTED, "up", requests / 2));
+		service.addMock(step("/pay", 200, "up", null, 0));
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			results.add(executor.submit(() -> service.match(RequestMethod.GET, "/pay").getEndpoint().getStatusCode()));
+		}
+		int failures = 0;
+		for (Future<Integer> result : results) {
+			failures += result.get() == 500 ? 1 : 0;
+		}
+		executor.shutdown();
+		assertEquals(requests / 2, failures);
+		assertEquals("up", service.getScenario("payment").getState());
+	}
+
+	@Test
+	void storesPostedResourcesForLaterReads() {
+		MockService service = new MockService();
+		for (String[] route : new String[][]{{"/orders", "POST", "201"}, {"/orders", "GET", "200"},
+				{"/orders/{id}", "GET", "200"}, {"/orders/{id}", "PUT", "200"}, {"/orders/{id}", "DELETE", "204"}}) {
+			EndpointTemplate template = new EndpointTemplate(null, route[0], route[1], Integer.parseInt(route[2]), null,
+					"application/json");
+			template.setResource("orders");
+			service.addMock(template);
+		}
+
+		ResourceStore.Result created = post(service, "/orders", "{\"item\":\"book\"}");
+		assertEquals(201, created.statusCode());
+		assertEquals("{\"item\":\"book\",\"id\":\"1\"}", text(created));
+		post(service, "/orders", "{\"id\":\"A7\",\"item\":\"pen\"}");
+
+		assertEquals("{\"item\":\"book\",\"id\":\"1\"}", text(call(service, RequestMethod.GET, "/orders/1", null)));
+		assertEquals(404, call(service, RequestMethod.GET, "/orders/9", null).statusCode());
+		call(service, RequestMethod.PUT, "/orders/1", "{\"id\":\"1\",\"item\":\"lamp\"}");
+		assertEquals("[{\"id\":\"1\",\"item\":\"lamp\"},{\"id\":\"A7\",\"item\":\"pen\"}]",
+				text(call(service, RequestMethod.GET, "/orders", null)));
+		assertEquals(204, call(service, RequestMethod.DELETE, "/orders/A7", null).statusCode());
+		assertEquals(404, call(service, RequestMethod.GET, "/orders/A7", null).statusCode());
+	}
+
+	@Test
+	void treatsNestedRoutesWithoutItemIdAsTheCollection() {
+		MockService service = new MockService();
+		for (String[] route : new String[][]{{"/users/{userId}/orders", "POST", "201"},
+				{"/users/{userId}/orders", "GET", "200"}, {"/users/{userId}/orders", "DELETE", "204"},
+				{"/users/{userId}/orders/{id}", "GET", "200"}}) {
+			EndpointTemplate template = new EndpointTemplate(null, route[0], route[1], Integer.parseInt(route[2]), null,
+					"application/json");
+			template.setResource("orders");
+			service.addMock(template);
+		}
+
+		post(service, "/users/5/orders", "{\"item\":\"book\"}");
+		post(service, "/users/5/orders", "{\"item\":\"pen\"}");
+		assertEquals("[{\"item\":\"book\",\"id\":\"1\"},{\"item\":\"pen\",\"id\":\"2\"}]",
+				text(call(service, RequestMethod.GET, "/users/5/orders", null)));
+		assertEquals("{\"item\":\"pen\",\"id\":\"2\"}", text(call(service, RequestMethod.GET, "/users/5/orders/2", null)));
+		assertEquals(404, call(service, RequestMethod.DELETE, "/users/5/orders", null).statusCode());
+		assertEquals(404, call(service, RequestMethod.GET, "/users/5/orders/5", null).statusCode());
+	}
+
+	private static ResourceStore.Result post(MockService service, String path, String json) {
+		return call(service, RequestMethod.POST, path, json);
+	}
+
+	private static ResourceStore.Result call(MockService service, RequestMethod method, String path, String json) {
+		MockRequest request = TestRequests.body(json);
+		RouteMatch match = service.match(method, path, request);
+		assertTrue(match.getEndpoint().isResource());
+		return service.applyResource(method, match, request);
+	}
+
+	private static String text(ResourceStore.Result result) {
+		return new String(result.body(), StandardCharsets.UTF_8);
+	}
+}
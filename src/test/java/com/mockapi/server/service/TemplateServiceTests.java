@@ -0,0 +1,139 @@
+package com.mockapi.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private static String library(String category, String... templates) {
+		StringBuilder json = new StringBuilder("[{\"description\":{\"tags\":[\"x\"]},\"endpoints\":[");
+		for (int i = 0; i < templates.length; i++) {
+			json.append(i > 0 ? "," : "").append("{\"name\":\"").append(templates[i])
+					.append("\",\"path\":\"/").append(category.toLowerCase()).append('/').append(i).append("\",\"method\":\"GET\",\"statusCode\":200,")
+					.append("\"contentType\":\"application/json\",\"response\":\"{}\"}");
+		}
+		return json.append("],\"name\":\"").append(category).append("\"}]").toString();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Template directory change not applied");
+			Thread.sleep(20);
+		}
+	}
+
+	@Test
+	void indexesBundledLibrary() {
+		TemplateService service = new TemplateService();
+		assertFalse(service.getCategories().isEmpty());
+		TemplateCategory first = service.getCategories().get(0);
+		assertEquals(first.getEndpoints(), service.getTemplatesByCategory(first.getName()));
+		EndpointTemplate template = first.getEndpoints().get(0);
+		assertSame(template, service.getTemplate(first.getName(), template.getName()));
+		assertTrue(service.getTemplatesByCategory("No such category").isEmpty());
+		assertNull(service.getTemplate(first.getName(), "No such template"));
+	}
+
+	@Test
+	void reloadsExternalFile() throws IOException {
+		Path file = directory.resolve("templates.json");
+		Files.writeString(file, library("Payments", "Create", "Refund"));
+		TemplateService service = new TemplateService(file.toString());
+		assertEquals(2, service.getTemplateCount());
+		assertEquals("/payments/1", service.getTemplate("Payments", "Refund").getPath());
+
+		Files.writeString(file, library("Cards", "Block"));
+		service.reloadTemplates();
+		assertTrue(service.getTemplatesByCategory("Payments").isEmpty());
+		assertEquals(1, service.getTemplatesByCategory("Cards").size());
+	}
+
+	@Test
+	void failedReloadKeepsLoadedTemplates() throws IOException {
+		Path file = directory.resolve("templates.json");
+		Files.writeString(file, library("Payments", "Create"));
+		TemplateService service = new TemplateService(file.toString());
+		assertEquals(1, service.getTemplateCount());
+
+		Path broken = directory.resolve("broken.json");
+		Files.writeString(broken, "[{\"name\":\"Cards\",\"endpoints\":[{\"name\":");
+		assertThrows(IOException.class, () -> service.reloadTemplates(broken));
+		assertThrows(IOException.class, () -> service.reloadTemplates(directory.resolve("missing.json")));
+		assertEquals(file, service.getTemplatesFile());
+		assertNotNull(service.getTemplate("Payments", "Create"));
+
+		assertEquals(0, new TemplateService(directory.resolve("missing.json").toString()).getTemplateCount());
+	}
+
+	@Test
+	void appliesDirectoryChangesIncrementally() throws Exception {
+		Path templates = Files.createDirectory(directory.resolve("templates"));
+		Files.writeString(templates.resolve("payments.json"), library("Payments", "Create", "Refund"));
+		Files.writeString(templates.resolve("cards.json"), library("Cards", "Block"));
+		MockService mockService = new MockService();
+		try (TemplateService service = new TemplateService("", templates.toString(), mockService)) {
+			assertEquals(2, service.getTemplatesByCategory("Payments").size());
+			assertNotNull(service.getTemplate("Cards", "Block"));
+			assertFalse(service.getTemplatesByCategory(service.getCategories().get(0).getName()).isEmpty());
+			MockEndpoint card = mockService.getMockEndpoint("/cards/0", "GET");
+			assertNotNull(card);
+			assertNotNull(mockService.getMockEndpoint("/payments/1", "GET"));
+
+			Files.writeString(templates.resolve("payments.json"), library("Payments", "Create"));
+			await(() -> mockService.getMockEndpoint("/payments/1", "GET") == null);
+			assertEquals(1, service.getTemplatesByCategory("Payments").size());
+			assertNotNull(mockService.getMockEndpoint("/payments/0", "GET"));
+			// The unchanged file is neither re-parsed nor re-registered
+			assertSame(card, mockService.getMockEndpoint("/cards/0", "GET"));
+
+			Files.writeString(templates.resolve("loans.json"), "[{\"name\":\"Loans\",\"endpoints\":[{\"name\":\"Get\","
+					+ "\"path\":\"/loans/{id}\",\"method\":\"GET\",\"response\":\"{}\"}]}]");
+			await(() -> mockService.match(RequestMethod.GET, "/loans/7") != null);
+			Files.delete(templates.resolve("cards.json"));
+			await(() -> mockService.getMockEndpoint("/cards/0", "GET") == null);
+			assertTrue(service.getTemplatesByCategory("Cards").isEmpty());
+			assertEquals(200, mockService.match(RequestMethod.GET, "/loans/7").getEndpoint().getStatusCode());
+		}
+	}
+
+	@Test
+	void skipsTemplateFilesTheRouteTableRejects() throws Exception {
+		String invalid = "[{\"name\":\"Files\",\"endpoints\":[{\"name\":\"Raw\","
+				+ "\"path\":\"/files/**/raw\",\"method\":\"GET\",\"response\":\"{}\"}]}]";
+		Path templates = Files.createDirectory(directory.resolve("templates"));
+		Files.writeString(templates.resolve("files.json"), invalid);
+		Files.writeString(templates.resolve("cards.json"), library("Cards", "Block"));
+		MockService mockService = new MockService();
+		try (TemplateService service = new TemplateService("", templates.toString(), mockService)) {
+			assertTrue(service.getTemplatesByCategory("Files").isEmpty());
+			assertNotNull(mockService.getMockEndpoint("/cards/0", "GET"));
+			assertEquals(1, mockService.getMocksList().size());
+
+			// A bad edit keeps the file's previous mocks, which later edits still replace
+			Files.writeString(templates.resolve("cards.json"), invalid.replace("Files", "Cards"));
+			Thread.sleep(500);
+			assertNotNull(mockService.getMockEndpoint("/cards/0", "GET"));
+			assertEquals("Block", service.getTemplatesByCategory("Cards").get(0).getName());
+			Files.writeString(templates.resolve("cards.json"), library("Cards", "Block", "Unblock"));
+			await(() -> mockService.getMockEndpoint("/cards/1", "GET") != null);
+
+			Files.writeString(templates.resolve("files.json"), library("Files", "Raw"));
+			await(() -> mockService.getMockEndpoint("/files/0", "GET") != null);
+			Files.delete(templates.resolve("cards.json"));
+			await(() -> mockService.getMockEndpoint("/cards/0", "GET") == null);
+			assertEquals(1, mockService.getMocksList().size());
+		}
+	}
+}
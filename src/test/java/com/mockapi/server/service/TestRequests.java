@@ -0,0 +1,44 @@
+package com.mockapi.server.service;
+
+import java.util.Map;
+
+/**
+ * Fixed requests for tests that select or render mock variants
+ */
+final class TestRequests {
+
+	private TestRequests() {
+	}
+
+	/**
+	 * Request with the given headers (looked up ignoring case), query parameters and body
+	 */
+	static MockRequest of(Map<String, String> headers, Map<String, String> query, String body) {
+		return new MockRequest() {
+			@Override
+			public String getHeader(String name) {
+				return headers.entrySet().stream()
+						.filter(e -> e.getKey().equalsIgnoreCase(name))
+						.map(Map.Entry::getValue)
+						.findFirst().orElse(null);
+			}
+
+			@Override
+			public String getQueryParam(String name) {
+				return query.get(name);
+			}
+
+			@Override
+			public String getBody() {
+				return body;
+			}
+		};
+	}
+
+	/**
+	 * Request with only a body
+	 */
+	static MockRequest body(String body) {
+		return of(Map.of(), Map.of(), body);
+	}
+}